@@ -2,6 +2,8 @@ package com.waribank;
 
 import com.waribank.ui.CLIInterface;
 import com.waribank.database.DatabaseManager;
+import com.waribank.dao.StatisticsRegistry;
+import com.waribank.dao.WithdrawalLimitTracker;
 import com.waribank.utils.AppLogger;
 
 public class WariBankApp {
@@ -17,10 +19,18 @@ public class WariBankApp {
             DatabaseManager.getInstance().initializeDatabase();
             AppLogger.info("Database initialized successfully");
             
+            // Seed the in-memory statistics once; write paths keep them current
+            StatisticsRegistry.getInstance().reload();
+            
+            // Rebuild withdrawal tallies now rather than on the first withdrawal
+            WithdrawalLimitTracker.getInstance().reload();
+            
             // Start CLI interface
             CLIInterface cli = new CLIInterface();
             cli.start();
             
+            DatabaseManager.getInstance().shutdown();
+            
         } catch (Exception e) {
             AppLogger.error("Failed to start WariBank application: " + e.getMessage());
             System.err.println("Error: " + e.getMessage());
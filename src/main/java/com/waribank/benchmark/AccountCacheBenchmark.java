@@ -0,0 +1,103 @@
+package com.waribank.benchmark;
+
+import com.waribank.cache.EntityCache;
+import com.waribank.dao.AccountDAO;
+import com.waribank.dao.TransactionDAO;
+import com.waribank.database.DatabaseManager;
+import com.waribank.model.Transaction;
+import com.waribank.model.TransactionType;
+
+import java.util.Random;
+
+/**
+ * Measures account lookups through the account cache: first touches (all
+ * misses), a skewed workload where a small set of accounts takes most of the
+ * traffic, and a deposit-then-view loop that checks writes keep hot accounts cached.
+ *
+ * Usage: java -cp build:sqlite-jdbc-3.42.0.0.jar com.waribank.benchmark.AccountCacheBenchmark [lookups]
+ *
+ * @author Albert Fekadu Wari
+ */
+public class AccountCacheBenchmark {
+    private static final int ACCOUNTS = 100_000;
+    private static final int COLD_LOOKUPS = 20_000;
+    private static final int HOT_ACCOUNTS = 1_000;
+    private static final int DEPOSITS = 2_000;
+    private static final int THREADS = 4;
+
+    public static void main(String[] args) throws Exception {
+        int lookups = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        DatabaseManager dbManager = BenchmarkSupport.openTempDatabase();
+        String[] numbers = BenchmarkSupport.loadAccounts(dbManager, ACCOUNTS);
+
+        AccountDAO accountDAO = new AccountDAO();
+        System.out.println("=== ACCOUNT CACHE BENCHMARK ===");
+        System.out.printf("Accounts                  : %,d (cache holds %,d)%n", ACCOUNTS,
+                          AccountDAO.getCacheStatistics().getMaxSize());
+
+        // Distinct accounts from the cold end, never seen before
+        long start = System.nanoTime();
+        for (int i = 0; i < COLD_LOOKUPS; i++) {
+            accountDAO.findByAccountNumber(numbers[ACCOUNTS - 1 - i]);
+        }
+        System.out.printf("%-26s: %,10.0f ns/lookup%n", "Cold (database)", (System.nanoTime() - start) / (double) COLD_LOOKUPS);
+
+        // The hot set fits in the cache; after one pass every lookup is a hit
+        for (int i = 0; i < HOT_ACCOUNTS; i++) {
+            accountDAO.findByAccountNumber(numbers[i]);
+        }
+        start = System.nanoTime();
+        for (int i = 0; i < lookups / 4; i++) {
+            accountDAO.findByAccountNumber(numbers[i % HOT_ACCOUNTS]);
+        }
+        System.out.printf("%-26s: %,10.0f ns/lookup%n", "Hot (cached)", (System.nanoTime() - start) / (lookups / 4.0));
+
+        // 80% of lookups go to 1% of the accounts
+        EntityCache.CacheStatistics before = AccountDAO.getCacheStatistics();
+        Thread[] threads = new Thread[THREADS];
+        start = System.nanoTime();
+        for (int t = 0; t < THREADS; t++) {
+            final Random random = new Random(t);
+            threads[t] = new Thread(() -> {
+                try {
+                    for (int i = 0; i < lookups / THREADS; i++) {
+                        int index = random.nextInt(10) < 8 ? random.nextInt(HOT_ACCOUNTS) : random.nextInt(ACCOUNTS);
+                        accountDAO.findByAccountNumber(numbers[index]);
+                    }
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        double skewedNanos = (System.nanoTime() - start) / (double) lookups;
+        EntityCache.CacheStatistics after = AccountDAO.getCacheStatistics();
+        System.out.printf("%-26s: %,10.0f ns/lookup, %.1f%% hits, %,d evictions (%d threads)%n", "Skewed",
+                          skewedNanos, ratio(after.getHits() - before.getHits(), after.getMisses() - before.getMisses()),
+                          after.getEvictions() - before.getEvictions(), THREADS);
+
+        // Each deposit writes the account through to the cache, so the following view still hits
+        TransactionDAO transactionDAO = new TransactionDAO();
+        before = AccountDAO.getCacheStatistics();
+        start = System.nanoTime();
+        for (int i = 0; i < DEPOSITS; i++) {
+            String number = numbers[i % 50];
+            transactionDAO.createTransaction(number, new Transaction(0, TransactionType.DEPOSIT, 1_000, "Benchmark deposit"));
+            accountDAO.findByAccountNumber(number);
+        }
+        after = AccountDAO.getCacheStatistics();
+        System.out.printf("%-26s: %,10.0f us/cycle, %.1f%% hits%n", "Deposit then view",
+                          (System.nanoTime() - start) / 1e3 / DEPOSITS,
+                          ratio(after.getHits() - before.getHits(), after.getMisses() - before.getMisses()));
+
+        System.out.println(AccountDAO.getCacheStatistics());
+        dbManager.shutdown();
+    }
+
+    private static double ratio(long hits, long misses) {
+        return hits + misses == 0 ? 0.0 : 100.0 * hits / (hits + misses);
+    }
+}
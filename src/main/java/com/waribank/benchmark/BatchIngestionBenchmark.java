@@ -0,0 +1,85 @@
+package com.waribank.benchmark;
+
+import com.waribank.dao.AccountDAO;
+import com.waribank.dao.CustomerDAO;
+import com.waribank.dao.TransactionDAO;
+import com.waribank.database.DatabaseManager;
+import com.waribank.model.Account;
+import com.waribank.model.AccountStatus;
+import com.waribank.model.AccountType;
+import com.waribank.model.Customer;
+import com.waribank.model.Transaction;
+import com.waribank.model.TransactionType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Benchmark comparing per-call createTransaction with the batched createTransactions API.
+ *
+ * Usage: java -cp build:sqlite-jdbc-3.42.0.0.jar com.waribank.benchmark.BatchIngestionBenchmark [postings]
+ *
+ * @author Albert Fekadu Wari
+ */
+public class BatchIngestionBenchmark {
+    private static final int ACCOUNTS = 100;
+    private static final int PER_CALL_POSTINGS = 1_000;
+
+    public static void main(String[] args) throws Exception {
+        int batchPostings = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+        DatabaseManager dbManager = BenchmarkSupport.openTempDatabase();
+        List<String> accountNumbers = createAccounts();
+        TransactionDAO transactionDAO = new TransactionDAO();
+
+        // Per-call loop
+        List<TransactionDAO.PostingRequest> single = generatePostings(accountNumbers, PER_CALL_POSTINGS);
+        long start = System.nanoTime();
+        for (TransactionDAO.PostingRequest posting : single) {
+            transactionDAO.createTransaction(posting.getAccountNumber(), posting.getTransaction());
+        }
+        double perCallRate = PER_CALL_POSTINGS / ((System.nanoTime() - start) / 1e9);
+
+        // Batched
+        List<TransactionDAO.PostingRequest> batch = generatePostings(accountNumbers, batchPostings);
+        start = System.nanoTime();
+        TransactionDAO.BatchResult result = transactionDAO.createTransactions(batch);
+        double batchRate = batchPostings / ((System.nanoTime() - start) / 1e9);
+
+        System.out.println("=== BATCH INGESTION BENCHMARK ===");
+        System.out.printf("Per-call createTransaction : %,10.0f postings/s (%d postings)%n", perCallRate, PER_CALL_POSTINGS);
+        System.out.printf("Batched createTransactions : %,10.0f postings/s (%d postings, %d failed)%n",
+                          batchRate, batchPostings, result.getFailed());
+        System.out.printf("Speedup                    : %10.1fx%n", batchRate / perCallRate);
+
+        dbManager.shutdown();
+    }
+
+    private static List<String> createAccounts() throws Exception {
+        CustomerDAO customerDAO = new CustomerDAO();
+        AccountDAO accountDAO = new AccountDAO();
+        List<String> numbers = new ArrayList<>();
+
+        for (int i = 0; i < ACCOUNTS; i++) {
+            Customer customer = customerDAO.createCustomer(new Customer(
+                "Bench", "Customer" + i, "bench" + i + "@waribank.test", "000", "Benchmark", "BENCH-" + i));
+            Account account = new Account(customer.getCustomerId(), AccountType.CHECKING, 100_000_000);
+            account.setStatus(AccountStatus.ACTIVE);
+            numbers.add(accountDAO.createAccount(account).getAccountNumber());
+        }
+        return numbers;
+    }
+
+    private static List<TransactionDAO.PostingRequest> generatePostings(List<String> accountNumbers, int count) {
+        Random random = new Random(42);
+        List<TransactionDAO.PostingRequest> postings = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            TransactionType type = random.nextBoolean() ? TransactionType.DEPOSIT : TransactionType.WITHDRAWAL;
+            Transaction transaction = new Transaction(0, type, 100 + random.nextInt(50_000), "Benchmark posting");
+            postings.add(new TransactionDAO.PostingRequest(
+                accountNumbers.get(random.nextInt(accountNumbers.size())), transaction));
+        }
+        return postings;
+    }
+}
@@ -0,0 +1,123 @@
+package com.waribank.benchmark;
+
+import com.waribank.dao.AccountNumberAllocator;
+import com.waribank.database.DatabaseManager;
+import com.waribank.model.AccountStatus;
+import com.waribank.model.AccountType;
+import com.waribank.model.TransactionStatus;
+import com.waribank.model.TransactionType;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Scratch database setup and bulk loaders shared by the benchmarks.
+ *
+ * Loaders write straight through JDBC batches rather than the DAOs, so setup
+ * stays fast and does not disturb the caches and statistics being measured.
+ *
+ * @author Albert Fekadu Wari
+ */
+final class BenchmarkSupport {
+    // Held so the level set below is not lost with a collected logger
+    private static final Logger APP_LOGGER = Logger.getLogger("com.waribank");
+    private static final int LOAD_BATCH_SIZE = 10_000;
+
+    private BenchmarkSupport() {
+    }
+
+    /**
+     * Point the application at a new temporary database, deleted on exit, migrated to
+     * the latest schema. Must run before anything else touches DatabaseManager.
+     */
+    static DatabaseManager openTempDatabase() throws IOException {
+        APP_LOGGER.setLevel(Level.WARNING);
+
+        File dbFile = File.createTempFile("waribank-bench", ".db");
+        dbFile.deleteOnExit();
+        System.setProperty("waribank.db.path", dbFile.getPath());
+
+        DatabaseManager dbManager = DatabaseManager.getInstance();
+        dbManager.initializeDatabase();
+        return dbManager;
+    }
+
+    /**
+     * Size in bytes of the database file opened by {@link #openTempDatabase()}
+     */
+    static long databaseFileSize() {
+        return new File(System.getProperty("waribank.db.path")).length();
+    }
+
+    /**
+     * Insert active checking accounts, two per customer, each holding 1,000.00; returns their numbers
+     */
+    static String[] loadAccounts(DatabaseManager dbManager, int count) throws SQLException {
+        // Allocate before taking the write connection; a block refill needs it too
+        String[] numbers = new String[count];
+        for (int i = 0; i < count; i++) {
+            numbers[i] = AccountNumberAllocator.getInstance().nextAccountNumber();
+        }
+
+        try (Connection conn = dbManager.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    "INSERT INTO accounts (customer_id, account_number, account_type, balance, status) " +
+                    "VALUES (?, ?, " + AccountType.CHECKING.getCode() + ", 100000, " + AccountStatus.ACTIVE.getCode() + ")")) {
+                for (int i = 0; i < count; i++) {
+                    pstmt.setInt(1, 1 + i / 2);
+                    pstmt.setString(2, numbers[i]);
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+            }
+            conn.commit();
+            conn.setAutoCommit(true);
+        }
+        return numbers;
+    }
+
+    /**
+     * Insert completed transactions three seconds apart over the past year, spread at random
+     * over account ids 1..accounts and the given types. The seed is fixed, so runs are repeatable.
+     */
+    static void loadTransactions(DatabaseManager dbManager, int rows, int accounts, TransactionType... types)
+            throws SQLException {
+        Random random = new Random(42);
+        LocalDateTime base = LocalDateTime.now().minusDays(365);
+
+        try (Connection conn = dbManager.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    "INSERT INTO transactions (account_id, transaction_type, amount, description, transaction_date, " +
+                    "status, reference_number, balance_after_transaction) VALUES (?, ?, ?, ?, ?, " +
+                    TransactionStatus.COMPLETED.getCode() + ", ?, ?)")) {
+                for (int i = 0; i < rows; i++) {
+                    pstmt.setInt(1, 1 + random.nextInt(accounts));
+                    pstmt.setInt(2, types[random.nextInt(types.length)].getCode());
+                    pstmt.setLong(3, 100 + random.nextInt(100_000));
+                    pstmt.setString(4, "Benchmark posting, batch " + (i / LOAD_BATCH_SIZE));
+                    pstmt.setTimestamp(5, Timestamp.valueOf(base.plusSeconds(i * 3L)));
+                    pstmt.setString(6, "BENCH" + i);
+                    pstmt.setLong(7, random.nextInt(1_000_000));
+                    pstmt.addBatch();
+                    if (i % LOAD_BATCH_SIZE == LOAD_BATCH_SIZE - 1) {
+                        pstmt.executeBatch();
+                        conn.commit();
+                    }
+                }
+                pstmt.executeBatch();
+            }
+            conn.commit();
+            conn.setAutoCommit(true);
+        }
+    }
+}
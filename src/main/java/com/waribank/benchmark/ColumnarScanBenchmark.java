@@ -0,0 +1,94 @@
+package com.waribank.benchmark;
+
+import com.waribank.dao.TransactionDAO;
+import com.waribank.database.DatabaseManager;
+import com.waribank.model.TransactionType;
+import com.waribank.report.ColumnarExporter;
+import com.waribank.report.ColumnarReader;
+
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares an analytic query (total amount per transaction type) over the
+ * transactions table done row by row through TransactionDAO against the same
+ * query over a columnar export.
+ *
+ * Usage: java -cp build:sqlite-jdbc-3.42.0.0.jar com.waribank.benchmark.ColumnarScanBenchmark [rows]
+ *
+ * @author Albert Fekadu Wari
+ */
+public class ColumnarScanBenchmark {
+    private static final int ACCOUNTS = 10_000;
+    private static final int RUNS = 5;
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    public static void main(String[] args) throws Exception {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        DatabaseManager dbManager = BenchmarkSupport.openTempDatabase();
+        BenchmarkSupport.loadTransactions(dbManager, rows, ACCOUNTS, TYPES);
+
+        System.out.println("=== COLUMNAR SCAN BENCHMARK ===");
+        Path target = Files.createTempFile("waribank-transactions", ".wbc");
+        ColumnarExporter.ExportResult export = new ColumnarExporter().exportTransactions(target);
+        System.out.printf("%-26s: %s%n", "Export", export);
+        System.out.printf("%-26s: %.1f bytes/row (database file %.1f MB)%n", "Columnar size",
+                          export.getBytes() / (double) rows, BenchmarkSupport.databaseFileSize() / (1024.0 * 1024.0));
+
+        TransactionDAO transactionDAO = new TransactionDAO();
+        Map<String, Long> expected = null;
+        long rowNanos = Long.MAX_VALUE;
+        for (int run = 0; run < RUNS; run++) {
+            Map<String, Long> totals = new HashMap<>();
+            long start = System.nanoTime();
+            transactionDAO.forEach(1_000, t -> totals.merge(t.getTransactionType().name(), t.getAmount(), Long::sum));
+            rowNanos = Math.min(rowNanos, System.nanoTime() - start);
+            expected = totals;
+        }
+
+        Map<String, Long> actual = null;
+        long columnNanos = Long.MAX_VALUE;
+        try (ColumnarReader reader = ColumnarReader.open(target)) {
+            for (int run = 0; run < RUNS; run++) {
+                long start = System.nanoTime();
+                actual = totalsByType(reader);
+                columnNanos = Math.min(columnNanos, System.nanoTime() - start);
+            }
+        }
+
+        System.out.printf("%-26s: %8.1f ms%n", "TransactionDAO.forEach", rowNanos / 1e6);
+        System.out.printf("%-26s: %8.1f ms (%.0fx)%n", "ColumnarReader", columnNanos / 1e6,
+                          rowNanos / (double) columnNanos);
+        System.out.printf("%-26s: %s%n", "Totals match", matches(expected, actual));
+
+        Files.deleteIfExists(target);
+        dbManager.shutdown();
+    }
+
+    private static Map<String, Long> totalsByType(ColumnarReader reader) {
+        List<String> types = reader.getDictionary("transaction_type");
+        long[] sums = new long[types.size()];
+        for (int g = 0; g < reader.getGroupCount(); g++) {
+            ByteBuffer codes = reader.codes("transaction_type", g);
+            LongBuffer amounts = reader.longs("amount", g);
+            for (int i = 0, n = reader.getGroupRows(g); i < n; i++) {
+                sums[Byte.toUnsignedInt(codes.get(i))] += amounts.get(i);
+            }
+        }
+        Map<String, Long> totals = new HashMap<>();
+        for (int i = 0; i < sums.length; i++) {
+            totals.put(types.get(i), sums[i]);
+        }
+        return totals;
+    }
+
+    private static boolean matches(Map<String, Long> expected, Map<String, Long> actual) {
+        // Minor units add exactly, so both paths must agree to the cent
+        return expected.equals(actual);
+    }
+}
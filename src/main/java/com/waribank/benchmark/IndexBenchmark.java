@@ -0,0 +1,151 @@
+package com.waribank.benchmark;
+
+import com.waribank.dao.LoanDAO;
+import com.waribank.dao.TransactionDAO;
+import com.waribank.database.DatabaseManager;
+import com.waribank.model.AccountStatus;
+import com.waribank.model.AccountType;
+import com.waribank.model.LoanStatus;
+import com.waribank.model.LoanType;
+import com.waribank.model.TransactionStatus;
+import com.waribank.model.TransactionType;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.Random;
+
+/**
+ * Benchmark of hot-path query latency with and without the secondary indexes.
+ *
+ * Builds a scratch database at the latest schema, drops the indexes behind
+ * the two timed DAO queries, loads it with transactions and times the queries,
+ * then rebuilds the indexes exactly as the migrations create them and times
+ * them again. The loan status index is over the integer status code.
+ *
+ * Usage: java -cp build:sqlite-jdbc-3.42.0.0.jar com.waribank.benchmark.IndexBenchmark [transactions]
+ *
+ * @author Albert Fekadu Wari
+ */
+public class IndexBenchmark {
+    private static final int ACCOUNTS = 10_000;
+    private static final int LOANS = 50_000;
+    private static final int QUERIES = 200;
+
+    private static final String[] INDEXES = {
+        "idx_transactions_account_date ON transactions (account_id, transaction_date)",
+        "idx_loans_status_date ON loans (status, application_date)"
+    };
+
+    public static void main(String[] args) throws Exception {
+        int transactionCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        DatabaseManager dbManager = BenchmarkSupport.openTempDatabase();
+        try (Connection conn = dbManager.getConnection();
+             Statement stmt = conn.createStatement()) {
+            for (String index : INDEXES) {
+                stmt.execute("DROP INDEX " + index.substring(0, index.indexOf(' ')));
+            }
+            System.out.println("Loading " + transactionCount + " transactions...");
+            load(conn, transactionCount);
+        }
+
+        TransactionDAO transactionDAO = new TransactionDAO();
+        LoanDAO loanDAO = new LoanDAO();
+
+        System.out.println("=== INDEX BENCHMARK (" + transactionCount + " transactions) ===");
+        double historyBefore = timeHistoryQueries(transactionDAO);
+        double pendingBefore = timePendingLoans(loanDAO);
+
+        long start = System.nanoTime();
+        try (Connection conn = dbManager.getConnection();
+             Statement stmt = conn.createStatement()) {
+            for (String index : INDEXES) {
+                stmt.execute("CREATE INDEX " + index);
+            }
+            stmt.execute("ANALYZE");
+        }
+        double buildSeconds = (System.nanoTime() - start) / 1e9;
+
+        double historyAfter = timeHistoryQueries(transactionDAO);
+        double pendingAfter = timePendingLoans(loanDAO);
+
+        System.out.printf("%-32s %12s %12s %10s%n", "Query", "scan (ms)", "index (ms)", "speedup");
+        System.out.printf("%-32s %12.3f %12.3f %9.1fx%n", "findByAccountId", historyBefore, historyAfter,
+                          historyBefore / historyAfter);
+        System.out.printf("%-32s %12.3f %12.3f %9.1fx%n", "findPendingLoans", pendingBefore, pendingAfter,
+                          pendingBefore / pendingAfter);
+        System.out.printf("Index build took %.1f s%n", buildSeconds);
+
+        dbManager.shutdown();
+    }
+
+    private static double timeHistoryQueries(TransactionDAO transactionDAO) throws SQLException {
+        Random random = new Random(7);
+        transactionDAO.findByAccountId(1); // warm up
+        long start = System.nanoTime();
+        for (int i = 0; i < QUERIES; i++) {
+            transactionDAO.findByAccountId(1 + random.nextInt(ACCOUNTS));
+        }
+        return (System.nanoTime() - start) / 1e6 / QUERIES;
+    }
+
+    private static double timePendingLoans(LoanDAO loanDAO) throws SQLException {
+        int runs = 20;
+        loanDAO.findPendingLoans(); // warm up
+        long start = System.nanoTime();
+        for (int i = 0; i < runs; i++) {
+            loanDAO.findPendingLoans();
+        }
+        return (System.nanoTime() - start) / 1e6 / runs;
+    }
+
+    private static void load(Connection conn, int transactionCount) throws SQLException {
+        Random random = new Random(42);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        conn.setAutoCommit(false);
+
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "INSERT INTO accounts (customer_id, account_number, account_type, balance, status) VALUES (?, ?, " +
+                AccountType.CHECKING.getCode() + ", 0, " + AccountStatus.ACTIVE.getCode() + ")")) {
+            for (int i = 1; i <= ACCOUNTS; i++) {
+                pstmt.setInt(1, i);
+                pstmt.setString(2, "WBIDX" + i);
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "INSERT INTO loans (customer_id, account_id, loan_amount, interest_rate, term_in_months, loan_type, " +
+                "application_date, status) VALUES (?, ?, 100000, 10, 12, " + LoanType.PERSONAL.getCode() + ", ?, ?)")) {
+            for (int i = 0; i < LOANS; i++) {
+                int accountId = 1 + random.nextInt(ACCOUNTS);
+                pstmt.setInt(1, accountId);
+                pstmt.setInt(2, accountId);
+                pstmt.setTimestamp(3, now);
+                pstmt.setInt(4, (random.nextInt(100) == 0 ? LoanStatus.PENDING : LoanStatus.COMPLETED).getCode());
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+
+        long baseMillis = now.getTime() - 365L * 24 * 3600 * 1000;
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "INSERT INTO transactions (account_id, transaction_type, amount, transaction_date, status, reference_number) " +
+                "VALUES (?, " + TransactionType.DEPOSIT.getCode() + ", ?, ?, " + TransactionStatus.COMPLETED.getCode() + ", ?)")) {
+            for (int i = 0; i < transactionCount; i++) {
+                pstmt.setInt(1, 1 + random.nextInt(ACCOUNTS));
+                pstmt.setLong(2, 100 + random.nextInt(100_000));
+                pstmt.setTimestamp(3, new Timestamp(baseMillis + i * 30_000L));
+                pstmt.setString(4, "IDX" + i);
+                pstmt.addBatch();
+                if (i % 10_000 == 9_999) {
+                    pstmt.executeBatch();
+                }
+            }
+            pstmt.executeBatch();
+        }
+
+        conn.commit();
+        conn.setAutoCommit(true);
+    }
+}
@@ -0,0 +1,131 @@
+package com.waribank.benchmark;
+
+import com.waribank.dao.WithdrawalLimitTracker;
+import com.waribank.database.DatabaseManager;
+import com.waribank.model.TransactionStatus;
+import com.waribank.model.TransactionType;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Random;
+
+/**
+ * Benchmark of the in-memory withdrawal limit check against the SUM query it replaces.
+ *
+ * Usage: java -cp build:sqlite-jdbc-3.42.0.0.jar com.waribank.benchmark.LimitCheckBenchmark [checks]
+ *
+ * @author Albert Fekadu Wari
+ */
+public class LimitCheckBenchmark {
+    private static final int ACCOUNTS = 10_000;
+    private static final int HISTORY_ROWS = 500_000;
+    private static final int QUERY_CHECKS = 2_000;
+    private static final int THREADS = 4;
+
+    private static final String SUM_SQL =
+        "SELECT COALESCE(SUM(amount), 0) FROM transactions WHERE account_id = ? " +
+        "AND transaction_type IN (" + TransactionType.WITHDRAWAL.getCode() + ", " + TransactionType.TRANSFER.getCode() + ") " +
+        "AND status = " + TransactionStatus.COMPLETED.getCode() + " AND transaction_date >= ?";
+
+    public static void main(String[] args) throws Exception {
+        int checks = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        DatabaseManager dbManager = BenchmarkSupport.openTempDatabase();
+        loadHistory(dbManager);
+
+        WithdrawalLimitTracker tracker = WithdrawalLimitTracker.getInstance();
+        long start = System.nanoTime();
+        tracker.reload();
+        double rebuildMs = (System.nanoTime() - start) / 1e6;
+
+        // Per-check SUM query, as validateTransaction would otherwise need
+        Random random = new Random(7);
+        Timestamp monthStart = Timestamp.valueOf(LocalDate.now().withDayOfMonth(1).atStartOfDay());
+        start = System.nanoTime();
+        try (Connection conn = dbManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(SUM_SQL)) {
+            for (int i = 0; i < QUERY_CHECKS; i++) {
+                pstmt.setInt(1, 1 + random.nextInt(ACCOUNTS));
+                pstmt.setTimestamp(2, monthStart);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    rs.next();
+                }
+            }
+        }
+        double queryNanos = (double) (System.nanoTime() - start) / QUERY_CHECKS;
+
+        // Warm up, then measure single-threaded reserve + release
+        runChecks(tracker, checks / 10, 1);
+        start = System.nanoTime();
+        runChecks(tracker, checks, 1);
+        double singleNanos = (double) (System.nanoTime() - start) / checks;
+
+        // Contended: several posting threads sharing the tracker
+        Thread[] threads = new Thread[THREADS];
+        start = System.nanoTime();
+        for (int t = 0; t < THREADS; t++) {
+            final int seed = t + 2;
+            threads[t] = new Thread(() -> runChecks(tracker, checks / THREADS, seed));
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        double contendedNanos = (double) (System.nanoTime() - start) / (checks / THREADS * THREADS);
+
+        System.out.println("=== WITHDRAWAL LIMIT CHECK BENCHMARK ===");
+        System.out.printf("History                   : %,d withdrawals over %,d accounts%n", HISTORY_ROWS, ACCOUNTS);
+        System.out.printf("Tally rebuild             : %10.1f ms%n", rebuildMs);
+        System.out.printf("SUM query per check       : %,10.0f ns/check (%d checks)%n", queryNanos, QUERY_CHECKS);
+        System.out.printf("In-memory, 1 thread       : %,10.1f ns/check (%,d checks)%n", singleNanos, checks);
+        System.out.printf("In-memory, %d threads      : %,10.1f ns/check (wall clock per check)%n", THREADS, contendedNanos);
+
+        dbManager.shutdown();
+    }
+
+    private static void runChecks(WithdrawalLimitTracker tracker, int checks, long seed) {
+        Random random = new Random(seed);
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < checks; i++) {
+            int accountId = 1 + random.nextInt(ACCOUNTS);
+            if (tracker.tryReserve(accountId, 100, today, 1_000_000, 10_000_000) == WithdrawalLimitTracker.OK) {
+                tracker.release(accountId, 100, today);
+            }
+        }
+    }
+
+    private static void loadHistory(DatabaseManager dbManager) throws Exception {
+        Random random = new Random(42);
+        LocalDateTime now = LocalDateTime.now();
+
+        try (Connection conn = dbManager.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    "INSERT INTO transactions (account_id, transaction_type, amount, description, transaction_date, " +
+                    "status, reference_number, balance_after_transaction) VALUES (?, " + TransactionType.WITHDRAWAL.getCode() +
+                    ", ?, 'History', ?, " + TransactionStatus.COMPLETED.getCode() + ", ?, 0)")) {
+                for (int i = 0; i < HISTORY_ROWS; i++) {
+                    pstmt.setInt(1, 1 + random.nextInt(ACCOUNTS));
+                    pstmt.setLong(2, 100 + random.nextInt(10_000));
+                    pstmt.setTimestamp(3, Timestamp.valueOf(now.minusMinutes(random.nextInt(60 * 24 * 40))));
+                    pstmt.setString(4, "HIST" + i);
+                    pstmt.addBatch();
+                    if (i % 10_000 == 9_999) {
+                        pstmt.executeBatch();
+                    }
+                }
+                pstmt.executeBatch();
+            }
+            conn.commit();
+            conn.setAutoCommit(true);
+            // Give the planner real statistics so the SUM baseline uses the account index
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("ANALYZE");
+            }
+        }
+    }
+}
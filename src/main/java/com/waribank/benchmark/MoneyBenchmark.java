@@ -0,0 +1,131 @@
+package com.waribank.benchmark;
+
+import com.waribank.model.Money;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+/**
+ * Compares the three ways an amount can be carried: double, BigDecimal and
+ * long minor units. Each representation posts the same stream of amounts to a
+ * running balance, where only double drifts from the exact total, and then
+ * credits monthly interest to a set of balances. Interest is rounded to the
+ * cent every month, so the totals there differ only where a product lands on
+ * a tie the representations break differently.
+ *
+ * Usage: java -cp build com.waribank.benchmark.MoneyBenchmark [postings]
+ *
+ * @author Albert Fekadu Wari
+ */
+public class MoneyBenchmark {
+    private static final int BALANCES = 100_000;
+    private static final double MONTHLY_RATE = 0.035 / 12;
+    private static final int ROUNDS = 5;
+
+    private static volatile Object sink;
+
+    public static void main(String[] args) {
+        int postings = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+
+        // Amounts as they would be typed in: whole birr and cents
+        Random random = new Random(42);
+        String[] inputs = new String[10_000];
+        for (int i = 0; i < inputs.length; i++) {
+            inputs[i] = random.nextInt(5_000) + "." + String.format("%02d", random.nextInt(100));
+        }
+        double[] doubles = new double[inputs.length];
+        BigDecimal[] decimals = new BigDecimal[inputs.length];
+        long[] minors = new long[inputs.length];
+        for (int i = 0; i < inputs.length; i++) {
+            doubles[i] = Double.parseDouble(inputs[i]);
+            decimals[i] = new BigDecimal(inputs[i]);
+            minors[i] = Money.parse(inputs[i]);
+        }
+
+        System.out.println("=== MONEY BENCHMARK ===");
+        System.out.printf("Postings                  : %,d, interest credited to %,d balances%n", postings, BALANCES);
+
+        double doubleTotal = 0;
+        BigDecimal decimalTotal = BigDecimal.ZERO;
+        long minorTotal = 0;
+        long doubleNanos = 0, decimalNanos = 0, minorNanos = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            doubleTotal = 0;
+            for (int i = 0; i < postings; i++) {
+                doubleTotal += doubles[i % doubles.length];
+            }
+            doubleNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            decimalTotal = BigDecimal.ZERO;
+            for (int i = 0; i < postings; i++) {
+                decimalTotal = decimalTotal.add(decimals[i % decimals.length]);
+            }
+            decimalNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            minorTotal = 0;
+            for (int i = 0; i < postings; i++) {
+                minorTotal = Money.add(minorTotal, minors[i % minors.length]);
+            }
+            minorNanos = System.nanoTime() - start;
+        }
+        System.out.println("Summing");
+        report("double", doubleNanos, postings, String.format("%.2f", doubleTotal));
+        report("BigDecimal", decimalNanos, postings, decimalTotal.toPlainString());
+        report("long minor units", minorNanos, postings, Money.format(minorTotal));
+        System.out.printf("%-26s: %s%n", "double drift",
+                          new BigDecimal(doubleTotal).subtract(decimalTotal).setScale(6, RoundingMode.HALF_EVEN).toPlainString());
+
+        // Credit a year of monthly interest to each balance, rounding to the cent every month
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            double doubleSum = 0;
+            for (int i = 0; i < BALANCES; i++) {
+                double balance = doubles[i % doubles.length];
+                for (int month = 0; month < 12; month++) {
+                    balance += Math.round(balance * MONTHLY_RATE * 100) / 100.0;
+                }
+                doubleSum += balance;
+            }
+            doubleNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            BigDecimal rate = BigDecimal.valueOf(MONTHLY_RATE);
+            BigDecimal decimalSum = BigDecimal.ZERO;
+            for (int i = 0; i < BALANCES; i++) {
+                BigDecimal balance = decimals[i % decimals.length];
+                for (int month = 0; month < 12; month++) {
+                    balance = balance.add(balance.multiply(rate).setScale(2, RoundingMode.HALF_EVEN));
+                }
+                decimalSum = decimalSum.add(balance);
+            }
+            decimalNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            long minorSum = 0;
+            for (int i = 0; i < BALANCES; i++) {
+                long balance = minors[i % minors.length];
+                for (int month = 0; month < 12; month++) {
+                    balance = Money.add(balance, Money.multiply(balance, MONTHLY_RATE));
+                }
+                minorSum = Money.add(minorSum, balance);
+            }
+            minorNanos = System.nanoTime() - start;
+
+            if (round == ROUNDS - 1) {
+                System.out.println("Monthly interest, 12 months");
+                report("double", doubleNanos, BALANCES * 12, String.format("%.2f", doubleSum));
+                report("BigDecimal", decimalNanos, BALANCES * 12, decimalSum.toPlainString());
+                report("long minor units", minorNanos, BALANCES * 12, Money.format(minorSum));
+            }
+            sink = decimalSum;
+        }
+    }
+
+    private static void report(String label, long nanos, int count, String total) {
+        System.out.printf("  %-24s: %8.2f ns/op, total %s%n", label, nanos / (double) count, total);
+    }
+}
@@ -0,0 +1,118 @@
+package com.waribank.benchmark;
+
+import com.waribank.dao.AccountDAO;
+import com.waribank.dao.AccountNumberAllocator;
+import com.waribank.database.DatabaseManager;
+import com.waribank.exception.AccountNotFoundException;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Measures the cost of looking up account numbers that do not exist: building
+ * the not-found exception with and without a stack trace, the first miss that
+ * goes to the database, and repeated misses answered by the negative cache.
+ * Everything runs a few dozen frames deep, like a lookup made from a batch job.
+ *
+ * Usage: java -cp build:sqlite-jdbc-3.42.0.0.jar com.waribank.benchmark.NotFoundBenchmark [lookups]
+ *
+ * @author Albert Fekadu Wari
+ */
+public class NotFoundBenchmark {
+    private static final int ACCOUNTS = 50_000;
+    private static final int MISSING = 5_000;
+    private static final int DEPTH = 64;
+
+    private static volatile Object sink;
+
+    public static void main(String[] args) throws Exception {
+        int lookups = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        DatabaseManager dbManager = BenchmarkSupport.openTempDatabase();
+        BenchmarkSupport.loadAccounts(dbManager, ACCOUNTS);
+
+        // Valid check digits, never inserted
+        String[] missing = new String[MISSING];
+        for (int i = 0; i < MISSING; i++) {
+            missing[i] = AccountNumberAllocator.getInstance().nextAccountNumber();
+        }
+
+        AccountDAO accountDAO = new AccountDAO();
+        System.out.println("=== NOT FOUND BENCHMARK ===");
+        System.out.printf("Accounts                  : %,d, missing numbers probed: %,d, stack depth %d%n",
+                          ACCOUNTS, MISSING, DEPTH);
+
+        for (int warmup = 0; warmup < 2; warmup++) {
+            atDepth(DEPTH, () -> construct(lookups / 10, true));
+            atDepth(DEPTH, () -> construct(lookups / 10, false));
+        }
+        report("Exception with stack", atDepth(DEPTH, () -> construct(lookups, true)), lookups);
+        report("Exception, stackless", atDepth(DEPTH, () -> construct(lookups, false)), lookups);
+
+        // Each number misses once in the database, then stays in the negative cache
+        long nanos = atDepth(DEPTH, () -> {
+            long start = System.nanoTime();
+            for (String number : missing) {
+                sink = accountDAO.lookupByAccountNumber(number);
+            }
+            return System.nanoTime() - start;
+        });
+        report("First miss (database)", nanos, MISSING);
+
+        report("Repeat miss, Optional", atDepth(DEPTH, () -> {
+            long start = System.nanoTime();
+            for (int i = 0; i < lookups; i++) {
+                sink = accountDAO.lookupByAccountNumber(missing[i % MISSING]);
+            }
+            return System.nanoTime() - start;
+        }), lookups);
+
+        report("Repeat miss, stackless", atDepth(DEPTH, () -> {
+            long start = System.nanoTime();
+            for (int i = 0; i < lookups; i++) {
+                try {
+                    sink = accountDAO.findByAccountNumber(missing[i % MISSING]);
+                } catch (AccountNotFoundException e) {
+                    sink = e;
+                }
+            }
+            return System.nanoTime() - start;
+        }), lookups);
+
+        // What every miss paid before: the same lookup, then an exception with a full trace
+        report("Repeat miss, with stack", atDepth(DEPTH, () -> {
+            long start = System.nanoTime();
+            for (int i = 0; i < lookups; i++) {
+                String number = missing[i % MISSING];
+                try {
+                    if (accountDAO.lookupByAccountNumber(number).isEmpty()) {
+                        throw new AccountNotFoundException("Account not found", number);
+                    }
+                } catch (AccountNotFoundException e) {
+                    sink = e;
+                }
+            }
+            return System.nanoTime() - start;
+        }), lookups);
+
+        for (String summary : AccountDAO.getNegativeCacheSummaries()) {
+            System.out.println(summary);
+        }
+        dbManager.shutdown();
+    }
+
+    private static long construct(int count, boolean withStack) {
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            sink = withStack ? new AccountNotFoundException("Account not found", i)
+                             : AccountNotFoundException.stackless("Account not found", i);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static long atDepth(int depth, Callable<Long> task) throws Exception {
+        return depth == 0 ? task.call() : atDepth(depth - 1, task);
+    }
+
+    private static void report(String label, long nanos, int count) {
+        System.out.printf("%-26s: %,10.0f ns/lookup%n", label, nanos / (double) count);
+    }
+}
@@ -0,0 +1,80 @@
+package com.waribank.benchmark;
+
+import com.waribank.database.DatabaseManager;
+import com.waribank.model.TransactionType;
+import com.waribank.report.ReportEngine;
+import com.waribank.report.ReportFilter;
+import com.waribank.report.ReportFormat;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Exports a large transaction table through the report engine and records
+ * throughput and peak heap. Run with a small heap to check memory stays bounded.
+ *
+ * Usage: java -Xmx32m -cp build:sqlite-jdbc-3.42.0.0.jar com.waribank.benchmark.ReportExportBenchmark [rows]
+ *
+ * @author Albert Fekadu Wari
+ */
+public class ReportExportBenchmark {
+    private static final int ACCOUNTS = 10_000;
+    private static final TransactionType[] TYPES = {
+        TransactionType.DEPOSIT, TransactionType.WITHDRAWAL, TransactionType.TRANSFER
+    };
+
+    public static void main(String[] args) throws Exception {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        DatabaseManager dbManager = BenchmarkSupport.openTempDatabase();
+
+        long start = System.nanoTime();
+        BenchmarkSupport.loadTransactions(dbManager, rows, ACCOUNTS, TYPES);
+        double loadSeconds = (System.nanoTime() - start) / 1e9;
+
+        resetPeakHeap();
+        ReportEngine engine = new ReportEngine();
+        System.out.println("=== REPORT EXPORT BENCHMARK ===");
+        System.out.printf("Rows                      : %,d (loaded in %.1f s)%n", rows, loadSeconds);
+        System.out.printf("Max heap                  : %,d MB%n", Runtime.getRuntime().maxMemory() >> 20);
+
+        for (ReportFormat format : ReportFormat.values()) {
+            Path target = Files.createTempFile("waribank-report", "." + format.getExtension());
+            ReportEngine.ReportResult result = engine.exportTransactions(new ReportFilter(), format, target, null);
+            System.out.printf("%-26s: %s%n", format, result);
+            Files.deleteIfExists(target);
+        }
+
+        // A filtered export should only touch the matching range
+        ReportFilter filter = new ReportFilter();
+        filter.setAccountId(42);
+        filter.setTransactionType(TransactionType.DEPOSIT);
+        Path target = Files.createTempFile("waribank-report", ".csv");
+        System.out.printf("%-26s: %s%n", "CSV, one account", engine.exportTransactions(filter, ReportFormat.CSV, target, null));
+        Files.deleteIfExists(target);
+
+        System.out.printf("Peak heap used            : %,d MB%n", peakHeapUsed() >> 20);
+        dbManager.shutdown();
+    }
+
+    private static void resetPeakHeap() {
+        System.gc();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    private static long peakHeapUsed() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+}
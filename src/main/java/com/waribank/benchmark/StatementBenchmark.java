@@ -0,0 +1,140 @@
+package com.waribank.benchmark;
+
+import com.waribank.database.DatabaseManager;
+import com.waribank.model.AccountStatus;
+import com.waribank.model.AccountType;
+import com.waribank.model.TransactionStatus;
+import com.waribank.model.TransactionType;
+import com.waribank.report.StatementJob;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Generates a month of statements for a large account base, then deletes a
+ * few partitions from the checkpoint and reruns to time a resumed job.
+ *
+ * Usage: java -cp build:sqlite-jdbc-3.42.0.0.jar com.waribank.benchmark.StatementBenchmark [accounts] [transactions per account]
+ *
+ * @author Albert Fekadu Wari
+ */
+public class StatementBenchmark {
+    private static final TransactionType[] TYPES = {
+        TransactionType.DEPOSIT, TransactionType.WITHDRAWAL, TransactionType.TRANSFER
+    };
+
+    public static void main(String[] args) throws Exception {
+        int accounts = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int perAccount = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        DatabaseManager dbManager = BenchmarkSupport.openTempDatabase();
+
+        YearMonth month = YearMonth.now().minusMonths(1);
+        long start = System.nanoTime();
+        load(dbManager, accounts, perAccount, month);
+        double loadSeconds = (System.nanoTime() - start) / 1e9;
+
+        Path output = Files.createTempDirectory("waribank-statements");
+        System.out.println("=== STATEMENT JOB BENCHMARK ===");
+        System.out.printf("Accounts                  : %,d (%,d transactions, loaded in %.1f s)%n",
+                          accounts, (long) accounts * perAccount, loadSeconds);
+        System.out.printf("Threads                   : %d%n",
+                          Math.min(Runtime.getRuntime().availableProcessors(),
+                                   dbManager.getReadPoolStatistics().getMaxSize()));
+
+        StatementJob.JobResult full = new StatementJob(month, output).run(null);
+        System.out.printf("%-26s: %s%n", "Full run", full);
+
+        // Pretend the last quarter of the partitions never finished
+        Path checkpoint = output.resolve("statements.checkpoint");
+        int keep = full.getPartitions() - Math.max(1, full.getPartitions() / 4);
+        try (Stream<String> lines = Files.lines(checkpoint)) {
+            String[] kept = lines.filter(line -> !line.startsWith("done=")
+                                              || Integer.parseInt(line.substring(5)) < keep)
+                                 .toArray(String[]::new);
+            Files.write(checkpoint, Arrays.asList(kept));
+        }
+        StatementJob.JobResult resumed = new StatementJob(month, output).run(null);
+        System.out.printf("%-26s: %s%n", "Resumed run", resumed);
+
+        System.out.printf("Output                    : %.1f MB%n", directorySize(output) / (1024.0 * 1024.0));
+        deleteRecursively(output);
+        dbManager.shutdown();
+    }
+
+    private static void load(DatabaseManager dbManager, int accounts, int perAccount, YearMonth month) throws Exception {
+        Random random = new Random(42);
+        LocalDateTime monthStart = month.atDay(1).atStartOfDay();
+        long monthSeconds = month.lengthOfMonth() * 86_400L;
+
+        try (Connection conn = dbManager.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    "INSERT INTO accounts (customer_id, account_number, account_type, balance, status) " +
+                    "VALUES (?, ?, " + AccountType.SAVINGS.getCode() + ", ?, " + AccountStatus.ACTIVE.getCode() + ")")) {
+                for (int i = 0; i < accounts; i++) {
+                    pstmt.setInt(1, 1 + i / 2);
+                    pstmt.setString(2, "BENCH" + i);
+                    pstmt.setLong(3, random.nextInt(10_000_000));
+                    pstmt.addBatch();
+                    if (i % 10_000 == 9_999) {
+                        pstmt.executeBatch();
+                    }
+                }
+                pstmt.executeBatch();
+            }
+            conn.commit();
+
+            long rows = (long) accounts * perAccount;
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    "INSERT INTO transactions (account_id, transaction_type, amount, transaction_date, " +
+                    "status, reference_number, to_account_id) VALUES (?, ?, ?, ?, " + TransactionStatus.COMPLETED.getCode() + ", ?, ?)")) {
+                for (long i = 0; i < rows; i++) {
+                    TransactionType type = TYPES[random.nextInt(TYPES.length)];
+                    pstmt.setInt(1, 1 + random.nextInt(accounts));
+                    pstmt.setInt(2, type.getCode());
+                    pstmt.setLong(3, 100 + random.nextInt(100_000));
+                    // A tenth of the postings land after the statement month
+                    long offset = (long) (random.nextDouble() * monthSeconds * 1.1);
+                    pstmt.setTimestamp(4, Timestamp.valueOf(monthStart.plusSeconds(offset)));
+                    pstmt.setString(5, "BENCH" + i);
+                    if (type == TransactionType.TRANSFER) {
+                        pstmt.setInt(6, 1 + random.nextInt(accounts));
+                    } else {
+                        pstmt.setNull(6, Types.INTEGER);
+                    }
+                    pstmt.addBatch();
+                    if (i % 10_000 == 9_999) {
+                        pstmt.executeBatch();
+                        conn.commit();
+                    }
+                }
+                pstmt.executeBatch();
+            }
+            conn.commit();
+            conn.setAutoCommit(true);
+        }
+    }
+
+    private static long directorySize(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.mapToLong(file -> file.toFile().length()).sum();
+        }
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+}
@@ -0,0 +1,329 @@
+package com.waribank.cache;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.function.UnaryOperator;
+
+/**
+ * Bounded, thread-safe cache of entities keyed by their integer id, with any
+ * number of unique secondary keys (an account number, an email address).
+ *
+ * Entities are copied on the way in and on the way out, so callers can modify
+ * what they get back without touching the cached copy. Secondary keys map to
+ * the id; a lookup by key is checked against the entry it lands on, so a key
+ * that has since moved to another value is treated as a miss.
+ *
+ * When the cache is full, entries are evicted with the CLOCK algorithm: a read
+ * marks an entry as referenced, and the eviction hand gives referenced entries
+ * a second chance before removing them. Reads never take a lock.
+ *
+ * Loads from the database race with writes, and a slow reader could otherwise
+ * cache a row that a writer has just replaced. Every write or invalidation
+ * bumps a counter. A load takes {@link #beginLoad()} before reading and
+ * {@link #completeLoad} drops its value if any write happened in between.
+ *
+ * @author Albert Fekadu Wari
+ */
+public class EntityCache<V> {
+    private final String name;
+    private final int maxSize;
+    private final ToIntFunction<V> idOf;
+    private final UnaryOperator<V> copier;
+    private final List<Function<V, String>> keyFunctions;
+    private final ConcurrentHashMap<Integer, Node<V>> entries;
+    private final List<ConcurrentHashMap<String, Integer>> indexes;
+
+    // CLOCK hand: ids in insertion order; may hold ids that have since been removed
+    private final ConcurrentLinkedQueue<Integer> clock = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger clockSize = new AtomicInteger();
+    private final Object evictionLock = new Object();
+    private final AtomicLong writes = new AtomicLong();
+
+    // Metrics
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder staleLoads = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    @SafeVarargs
+    public EntityCache(String name, int maxSize, ToIntFunction<V> idOf, UnaryOperator<V> copier,
+                       Function<V, String>... keys) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive");
+        }
+        this.name = name;
+        this.maxSize = maxSize;
+        this.idOf = idOf;
+        this.copier = copier;
+        this.keyFunctions = new ArrayList<>(keys.length);
+        this.entries = new ConcurrentHashMap<>(Math.min(maxSize, 1 << 16));
+        this.indexes = new ArrayList<>(keys.length);
+        // Copied element by element; handing the generic array on would risk heap pollution
+        for (Function<V, String> key : keys) {
+            keyFunctions.add(key);
+            indexes.add(new ConcurrentHashMap<>(Math.min(maxSize, 1 << 16)));
+        }
+    }
+
+    /**
+     * A copy of the entity with this id, or null if it is not cached
+     */
+    public V get(int id) {
+        Node<V> node = entries.get(id);
+        if (node == null) {
+            misses.increment();
+            return null;
+        }
+        node.referenced = true;
+        hits.increment();
+        return copier.apply(node.value);
+    }
+
+    /**
+     * A copy of the entity whose secondary key (by constructor position) matches, or null
+     */
+    public V getByKey(int index, String key) {
+        Node<V> node = null;
+        if (key != null) {
+            Integer id = indexes.get(index).get(key);
+            node = id == null ? null : entries.get(id);
+        }
+        if (node == null || !key.equals(node.keys[index])) {
+            misses.increment();
+            return null;
+        }
+        node.referenced = true;
+        hits.increment();
+        return copier.apply(node.value);
+    }
+
+    public boolean contains(int id) {
+        return entries.containsKey(id);
+    }
+
+    /**
+     * Stamp to pass to {@link #completeLoad} once the database read is done
+     */
+    public long beginLoad() {
+        return writes.get();
+    }
+
+    /**
+     * Cache a value read from the database, unless a write happened since the stamp was taken
+     */
+    public void completeLoad(V value, long stamp) {
+        if (writes.get() != stamp) {
+            staleLoads.increment();
+            return;
+        }
+        Node<V> node = insert(value);
+        loads.increment();
+        // A write that landed while inserting may have missed this entry
+        if (writes.get() != stamp) {
+            remove(node);
+            staleLoads.increment();
+        }
+    }
+
+    /**
+     * Cache a value that was just committed to the database
+     */
+    public void put(V value) {
+        writes.incrementAndGet();
+        insert(value);
+    }
+
+    /**
+     * Replace a cached value with one just committed; does nothing if the id is not cached
+     */
+    public void putIfPresent(V value) {
+        writes.incrementAndGet();
+        if (entries.containsKey(idOf.applyAsInt(value))) {
+            insert(value);
+        }
+    }
+
+    public void invalidate(int id) {
+        writes.incrementAndGet();
+        Node<V> node = entries.remove(id);
+        if (node != null) {
+            unindex(node);
+            invalidations.increment();
+        }
+    }
+
+    public void invalidateAll() {
+        writes.incrementAndGet();
+        synchronized (evictionLock) {
+            invalidations.add(entries.size());
+            entries.clear();
+            for (ConcurrentHashMap<String, Integer> index : indexes) {
+                index.clear();
+            }
+            clock.clear();
+            clockSize.set(0);
+        }
+    }
+
+    public CacheStatistics getStatistics() {
+        return new CacheStatistics(name, entries.size(), maxSize, hits.sum(), misses.sum(), loads.sum(),
+                                   staleLoads.sum(), evictions.sum(), invalidations.sum());
+    }
+
+    private Node<V> insert(V value) {
+        V copy = copier.apply(value);
+        int id = idOf.applyAsInt(copy);
+        String[] keys = new String[keyFunctions.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = keyFunctions.get(i).apply(copy);
+        }
+
+        Node<V> node = new Node<>(id, copy, keys);
+        Node<V> previous = entries.put(id, node);
+        if (previous == null) {
+            clock.offer(id);
+            clockSize.incrementAndGet();
+        } else {
+            node.referenced = previous.referenced;
+            for (int i = 0; i < keys.length; i++) {
+                if (previous.keys[i] != null && !previous.keys[i].equals(keys[i])) {
+                    indexes.get(i).remove(previous.keys[i], id);
+                }
+            }
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                indexes.get(i).put(keys[i], id);
+            }
+        }
+
+        if (entries.size() > maxSize || clockSize.get() > 2 * maxSize) {
+            evict();
+        }
+        return node;
+    }
+
+    private void remove(Node<V> node) {
+        if (entries.remove(node.id, node)) {
+            unindex(node);
+        }
+    }
+
+    private void unindex(Node<V> node) {
+        for (int i = 0; i < node.keys.length; i++) {
+            if (node.keys[i] != null) {
+                indexes.get(i).remove(node.keys[i], node.id);
+            }
+        }
+    }
+
+    /**
+     * Advance the clock hand until the cache is back within its bound
+     */
+    private void evict() {
+        synchronized (evictionLock) {
+            while (entries.size() > maxSize) {
+                Integer id = clock.poll();
+                if (id == null) {
+                    break;
+                }
+                clockSize.decrementAndGet();
+                Node<V> node = entries.get(id);
+                if (node == null) {
+                    continue;
+                }
+                if (node.referenced) {
+                    node.referenced = false;
+                    clock.offer(id);
+                    clockSize.incrementAndGet();
+                } else if (entries.remove(id, node)) {
+                    unindex(node);
+                    evictions.increment();
+                }
+            }
+
+            // Invalidated ids stay in the hand until it reaches them; drop them if they pile up
+            if (clockSize.get() > 2 * maxSize) {
+                Set<Integer> seen = new HashSet<>();
+                clock.removeIf(id -> !entries.containsKey(id) || !seen.add(id));
+                clockSize.set(clock.size());
+            }
+        }
+    }
+
+    private static final class Node<V> {
+        final int id;
+        final V value;
+        final String[] keys;
+        volatile boolean referenced;
+
+        Node(int id, V value, String[] keys) {
+            this.id = id;
+            this.value = value;
+            this.keys = keys;
+        }
+    }
+
+    /**
+     * Inner class for cache statistics
+     */
+    public static class CacheStatistics {
+        private final String name;
+        private final int size;
+        private final int maxSize;
+        private final long hits;
+        private final long misses;
+        private final long loads;
+        private final long staleLoads;
+        private final long evictions;
+        private final long invalidations;
+
+        public CacheStatistics(String name, int size, int maxSize, long hits, long misses, long loads,
+                               long staleLoads, long evictions, long invalidations) {
+            this.name = name;
+            this.size = size;
+            this.maxSize = maxSize;
+            this.hits = hits;
+            this.misses = misses;
+            this.loads = loads;
+            this.staleLoads = staleLoads;
+            this.evictions = evictions;
+            this.invalidations = invalidations;
+        }
+
+        // Getters
+        public String getName() { return name; }
+        public int getSize() { return size; }
+        public int getMaxSize() { return maxSize; }
+        public long getHits() { return hits; }
+        public long getMisses() { return misses; }
+        public long getLoads() { return loads; }
+        public long getStaleLoads() { return staleLoads; }
+        public long getEvictions() { return evictions; }
+        public long getInvalidations() { return invalidations; }
+
+        public double getHitRatio() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0.0 : (double) hits / lookups;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Cache{%s, size=%d/%d, hits=%d, misses=%d, hitRatio=%.1f%%, loads=%d, " +
+                                 "staleLoads=%d, evictions=%d, invalidations=%d}",
+                                 name, size, maxSize, hits, misses, getHitRatio() * 100, loads,
+                                 staleLoads, evictions, invalidations);
+        }
+    }
+}
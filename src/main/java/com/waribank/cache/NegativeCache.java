@@ -0,0 +1,131 @@
+package com.waribank.cache;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Remembers keys that a lookup recently failed to find, for a short time, so
+ * repeated probes for the same missing key skip the database.
+ *
+ * Entries expire after the time-to-live and are dropped as soon as the key is
+ * created. Misses are recorded with the same stamp protocol as
+ * {@link EntityCache}: take {@link #beginLoad()} before querying and pass it to
+ * {@link #completeMiss}, which drops the entry if any key was created in
+ * between, so a probe that read just before an insert cannot hide the new row.
+ *
+ * @author Albert Fekadu Wari
+ */
+public class NegativeCache<K> {
+    private final String name;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final ConcurrentHashMap<K, Long> expiries;
+    private final AtomicLong writes = new AtomicLong();
+
+    // Metrics
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder recorded = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public NegativeCache(String name, int maxSize, long ttl, TimeUnit unit) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive");
+        }
+        this.name = name;
+        this.maxSize = maxSize;
+        this.ttlNanos = unit.toNanos(ttl);
+        this.expiries = new ConcurrentHashMap<>(Math.min(maxSize, 1 << 16));
+    }
+
+    /**
+     * True if the key was looked up and not found within the time-to-live
+     */
+    public boolean isKnownMissing(K key) {
+        if (key == null || ttlNanos <= 0) {
+            return false;
+        }
+        Long expiry = expiries.get(key);
+        if (expiry == null) {
+            return false;
+        }
+        if (System.nanoTime() - expiry >= 0) {
+            if (expiries.remove(key, expiry)) {
+                expired.increment();
+            }
+            return false;
+        }
+        hits.increment();
+        return true;
+    }
+
+    /**
+     * Stamp to pass to {@link #completeMiss} once the database read is done
+     */
+    public long beginLoad() {
+        return writes.get();
+    }
+
+    /**
+     * Remember a key the database did not have, unless a key was created since the stamp was taken
+     */
+    public void completeMiss(K key, long stamp) {
+        if (key == null || ttlNanos <= 0 || writes.get() != stamp) {
+            return;
+        }
+        if (expiries.size() >= maxSize) {
+            purgeExpired();
+            if (expiries.size() >= maxSize) {
+                // Full of live misses; not worth evicting for, the next probe just asks again
+                return;
+            }
+        }
+        Long expiry = System.nanoTime() + ttlNanos;
+        expiries.put(key, expiry);
+        recorded.increment();
+        // A key created while recording may have been missed by its invalidation
+        if (writes.get() != stamp) {
+            expiries.remove(key, expiry);
+        }
+    }
+
+    /**
+     * Forget a key that was just created; call after the insert commits
+     */
+    public void invalidate(K key) {
+        writes.incrementAndGet();
+        if (key != null && expiries.remove(key) != null) {
+            invalidations.increment();
+        }
+    }
+
+    public void invalidateAll() {
+        writes.incrementAndGet();
+        invalidations.add(expiries.size());
+        expiries.clear();
+    }
+
+    public int size() {
+        return expiries.size();
+    }
+
+    private void purgeExpired() {
+        long now = System.nanoTime();
+        expiries.entrySet().removeIf(entry -> {
+            if (now - entry.getValue() >= 0) {
+                expired.increment();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    @Override
+    public String toString() {
+        return String.format("NegativeCache{%s, size=%d/%d, ttl=%dms, hits=%d, recorded=%d, expired=%d, invalidations=%d}",
+                             name, expiries.size(), maxSize, TimeUnit.NANOSECONDS.toMillis(ttlNanos), hits.sum(),
+                             recorded.sum(), expired.sum(), invalidations.sum());
+    }
+}
@@ -1,27 +1,54 @@
 package com.waribank.dao;
 
+import com.waribank.cache.EntityCache;
+import com.waribank.cache.NegativeCache;
 import com.waribank.database.DatabaseManager;
 import com.waribank.model.Account;
+import com.waribank.model.AccountStatus;
+import com.waribank.model.AccountType;
+import com.waribank.model.Money;
 import com.waribank.exception.AccountNotFoundException;
 
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 
 /**
  * Data Access Object for Account entity
  * 
+ * Lookups by id and by account number go through a cache shared by every
+ * instance. Writes made here update it directly; writes that join a caller's
+ * transaction through {@link #applyDelta(Connection, int, long)} are brought
+ * in with {@link #refreshCached} once the caller commits.
+ * 
+ * The lookup* methods return an empty Optional for a missing account, for
+ * callers that only want to know whether it exists. Account numbers that were
+ * recently looked up and not found are remembered for a few seconds.
+ * 
  * @author Albert Fekadu Wari
  */
 public class AccountDAO {
     private static final Logger LOGGER = Logger.getLogger(AccountDAO.class.getName());
+    private static final int ACCOUNT_NUMBER_KEY = 0;
+    private static final EntityCache<Account> CACHE = new EntityCache<>("accounts",
+        Integer.getInteger("waribank.cache.accounts", 10_000), Account::getAccountId, Account::new,
+        Account::getAccountNumber);
+    private static final NegativeCache<String> MISSING_NUMBERS = new NegativeCache<>("account numbers",
+        10_000, Long.getLong("waribank.cache.missing.ttl", 5_000), TimeUnit.MILLISECONDS);
     private final DatabaseManager dbManager;
+    private final StatisticsRegistry statistics;
     
     public AccountDAO() {
         this.dbManager = DatabaseManager.getInstance();
+        this.statistics = StatisticsRegistry.getInstance();
     }
     
     /**
@@ -32,20 +59,25 @@ public class AccountDAO {
                     "opening_date, last_transaction_date, status, minimum_balance, " +
                     "daily_withdrawal_limit, monthly_withdrawal_limit) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
         
+        // Allocate before taking the write connection; a block refill needs it too
+        if (account.getAccountNumber() == null) {
+            account.setAccountNumber(AccountNumberAllocator.getInstance().nextAccountNumber());
+        }
+        
         try (Connection conn = dbManager.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             
             pstmt.setInt(1, account.getCustomerId());
             pstmt.setString(2, account.getAccountNumber());
-            pstmt.setString(3, account.getAccountType());
-            pstmt.setDouble(4, account.getBalance());
+            pstmt.setInt(3, account.getAccountType().getCode());
+            pstmt.setLong(4, account.getBalance());
             pstmt.setDouble(5, account.getInterestRate());
             pstmt.setTimestamp(6, Timestamp.valueOf(account.getOpeningDate()));
             pstmt.setTimestamp(7, Timestamp.valueOf(account.getLastTransactionDate()));
-            pstmt.setString(8, account.getStatus());
-            pstmt.setDouble(9, account.getMinimumBalance());
-            pstmt.setDouble(10, account.getDailyWithdrawalLimit());
-            pstmt.setDouble(11, account.getMonthlyWithdrawalLimit());
+            pstmt.setInt(8, account.getStatus().getCode());
+            pstmt.setLong(9, account.getMinimumBalance());
+            pstmt.setLong(10, account.getDailyWithdrawalLimit());
+            pstmt.setLong(11, account.getMonthlyWithdrawalLimit());
             
             int affectedRows = pstmt.executeUpdate();
             if (affectedRows == 0) {
@@ -55,6 +87,9 @@ public class AccountDAO {
             try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
                 if (generatedKeys.next()) {
                     account.setAccountId(generatedKeys.getInt(1));
+                    statistics.accountAdded(account.getStatus(), account.getAccountType(), account.getBalance());
+                    CACHE.put(account);
+                    MISSING_NUMBERS.invalidate(account.getAccountNumber());
                     LOGGER.info("Account created with ID: " + account.getAccountId());
                     return account;
                 } else {
@@ -68,40 +103,82 @@ public class AccountDAO {
      * Find account by ID
      */
     public Account findById(int accountId) throws SQLException, AccountNotFoundException {
+        return lookupById(accountId)
+            .orElseThrow(() -> AccountNotFoundException.stackless("Account not found", accountId));
+    }
+    
+    /**
+     * Find account by account number
+     */
+    public Account findByAccountNumber(String accountNumber) throws SQLException, AccountNotFoundException {
+        if (!AccountNumberAllocator.isPlausible(accountNumber)) {
+            throw AccountNotFoundException.stackless("Invalid account number", accountNumber);
+        }
+        return lookupByAccountNumber(accountNumber)
+            .orElseThrow(() -> AccountNotFoundException.stackless("Account not found", accountNumber));
+    }
+    
+    /**
+     * Look up an account by ID; empty if there is none
+     */
+    public Optional<Account> lookupById(int accountId) throws SQLException {
         String sql = "SELECT * FROM accounts WHERE account_id = ?";
         
-        try (Connection conn = dbManager.getConnection();
+        Account cached = CACHE.get(accountId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        
+        long stamp = CACHE.beginLoad();
+        try (Connection conn = dbManager.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setInt(1, accountId);
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapResultSetToAccount(rs);
-                } else {
-                    throw new AccountNotFoundException("Account not found", accountId);
+                    Account account = mapResultSetToAccount(rs);
+                    CACHE.completeLoad(account, stamp);
+                    return Optional.of(account);
                 }
+                return Optional.empty();
             }
         }
     }
     
     /**
-     * Find account by account number
+     * Look up an account by account number; empty if there is none or the number is malformed
      */
-    public Account findByAccountNumber(String accountNumber) throws SQLException, AccountNotFoundException {
+    public Optional<Account> lookupByAccountNumber(String accountNumber) throws SQLException {
         String sql = "SELECT * FROM accounts WHERE account_number = ?";
         
-        try (Connection conn = dbManager.getConnection();
+        if (!AccountNumberAllocator.isPlausible(accountNumber)) {
+            return Optional.empty();
+        }
+        
+        Account cached = CACHE.getByKey(ACCOUNT_NUMBER_KEY, accountNumber);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        if (MISSING_NUMBERS.isKnownMissing(accountNumber)) {
+            return Optional.empty();
+        }
+        
+        long stamp = CACHE.beginLoad();
+        long missStamp = MISSING_NUMBERS.beginLoad();
+        try (Connection conn = dbManager.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setString(1, accountNumber);
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapResultSetToAccount(rs);
-                } else {
-                    throw new AccountNotFoundException("Account not found", accountNumber);
+                    Account account = mapResultSetToAccount(rs);
+                    CACHE.completeLoad(account, stamp);
+                    return Optional.of(account);
                 }
+                MISSING_NUMBERS.completeMiss(accountNumber, missStamp);
+                return Optional.empty();
             }
         }
     }
@@ -113,7 +190,7 @@ public class AccountDAO {
         String sql = "SELECT * FROM accounts WHERE customer_id = ? ORDER BY account_id";
         List<Account> accounts = new ArrayList<>();
         
-        try (Connection conn = dbManager.getConnection();
+        try (Connection conn = dbManager.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setInt(1, customerId);
@@ -135,7 +212,7 @@ public class AccountDAO {
         String sql = "SELECT * FROM accounts ORDER BY account_id";
         List<Account> accounts = new ArrayList<>();
         
-        try (Connection conn = dbManager.getConnection();
+        try (Connection conn = dbManager.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql);
              ResultSet rs = pstmt.executeQuery()) {
             
@@ -147,14 +224,33 @@ public class AccountDAO {
         return accounts;
     }
     
+    /**
+     * Stream all accounts in account_id order, mapping rows lazily as they are consumed.
+     * The stream holds a read connection until it is closed.
+     */
+    public Stream<Account> streamAll(int fetchSize) throws SQLException {
+        return ResultSetStream.open(dbManager, "SELECT * FROM accounts ORDER BY account_id", fetchSize, this::mapResultSetToAccount);
+    }
+    
+    public Stream<Account> streamAll() throws SQLException {
+        return streamAll(ResultSetStream.DEFAULT_FETCH_SIZE);
+    }
+    
+    /**
+     * Pass every account to a callback in account_id order; returns the number of rows read
+     */
+    public long forEach(int fetchSize, Consumer<? super Account> action) throws SQLException {
+        return ResultSetStream.forEach(dbManager, "SELECT * FROM accounts ORDER BY account_id", fetchSize, this::mapResultSetToAccount, action);
+    }
+    
     /**
      * Get active accounts
      */
     public List<Account> findActiveAccounts() throws SQLException {
-        String sql = "SELECT * FROM accounts WHERE status = 'ACTIVE' ORDER BY account_id";
+        String sql = "SELECT * FROM accounts WHERE status = " + AccountStatus.ACTIVE.getCode() + " ORDER BY account_id";
         List<Account> accounts = new ArrayList<>();
         
-        try (Connection conn = dbManager.getConnection();
+        try (Connection conn = dbManager.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql);
              ResultSet rs = pstmt.executeQuery()) {
             
@@ -180,19 +276,25 @@ public class AccountDAO {
             
             pstmt.setInt(1, account.getCustomerId());
             pstmt.setString(2, account.getAccountNumber());
-            pstmt.setString(3, account.getAccountType());
-            pstmt.setDouble(4, account.getBalance());
+            pstmt.setInt(3, account.getAccountType().getCode());
+            pstmt.setLong(4, account.getBalance());
             pstmt.setDouble(5, account.getInterestRate());
             pstmt.setTimestamp(6, Timestamp.valueOf(account.getOpeningDate()));
             pstmt.setTimestamp(7, Timestamp.valueOf(account.getLastTransactionDate()));
-            pstmt.setString(8, account.getStatus());
-            pstmt.setDouble(9, account.getMinimumBalance());
-            pstmt.setDouble(10, account.getDailyWithdrawalLimit());
-            pstmt.setDouble(11, account.getMonthlyWithdrawalLimit());
+            pstmt.setInt(8, account.getStatus().getCode());
+            pstmt.setLong(9, account.getMinimumBalance());
+            pstmt.setLong(10, account.getDailyWithdrawalLimit());
+            pstmt.setLong(11, account.getMonthlyWithdrawalLimit());
             pstmt.setInt(12, account.getAccountId());
             
             int affectedRows = pstmt.executeUpdate();
             LOGGER.info("Account updated. Rows affected: " + affectedRows);
+            if (affectedRows > 0) {
+                statistics.invalidate();
+                CACHE.put(account);
+                // The number may have changed to one an earlier lookup found missing
+                MISSING_NUMBERS.invalidate(account.getAccountNumber());
+            }
             return affectedRows > 0;
         }
     }
@@ -200,36 +302,120 @@ public class AccountDAO {
     /**
      * Update account balance
      */
-    public boolean updateBalance(int accountId, double newBalance) throws SQLException {
+    public boolean updateBalance(int accountId, long newBalance) throws SQLException {
         String sql = "UPDATE accounts SET balance = ?, last_transaction_date = ? WHERE account_id = ?";
         
         try (Connection conn = dbManager.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
-            pstmt.setDouble(1, newBalance);
+            pstmt.setLong(1, newBalance);
             pstmt.setTimestamp(2, Timestamp.valueOf(LocalDateTime.now()));
             pstmt.setInt(3, accountId);
             
+            Account previous = findCurrent(conn, accountId);
             int affectedRows = pstmt.executeUpdate();
-            LOGGER.info("Account balance updated to " + newBalance + ". Rows affected: " + affectedRows);
+            LOGGER.info("Account balance updated to " + Money.format(newBalance) + ". Rows affected: " + affectedRows);
+            if (affectedRows > 0 && previous != null) {
+                statistics.balanceChanged(newBalance - previous.getBalance());
+            }
+            refreshCached(conn, accountId);
             return affectedRows > 0;
         }
     }
     
+    /**
+     * Post a balance delta to an active account and return the new balance.
+     * Only balance and last_transaction_date are written.
+     */
+    public OptionalLong applyDelta(int accountId, long amount) throws SQLException {
+        try (Connection conn = dbManager.getConnection()) {
+            OptionalLong balance = applyDelta(conn, accountId, amount);
+            if (balance.isPresent()) {
+                statistics.balanceChanged(amount);
+                refreshCached(conn, accountId);
+            }
+            return balance;
+        }
+    }
+    
+    /**
+     * Post a balance delta unless the resulting balance would fall below the guard.
+     * Returns empty when the guard (or account status) rejected the update.
+     */
+    public OptionalLong applyDelta(int accountId, long amount, long guard) throws SQLException {
+        try (Connection conn = dbManager.getConnection()) {
+            OptionalLong balance = applyDelta(conn, accountId, amount, guard);
+            if (balance.isPresent()) {
+                statistics.balanceChanged(amount);
+                refreshCached(conn, accountId);
+            }
+            return balance;
+        }
+    }
+    
+    /**
+     * Post a balance delta on the caller's connection, joining its transaction.
+     * Call {@link #refreshCached} for the account after committing.
+     */
+    public OptionalLong applyDelta(Connection conn, int accountId, long amount) throws SQLException {
+        String sql = "UPDATE accounts SET balance = balance + ?, last_transaction_date = ? " +
+                    "WHERE account_id = ? AND status = " + AccountStatus.ACTIVE.getCode() + " RETURNING balance";
+        
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setLong(1, amount);
+            pstmt.setTimestamp(2, Timestamp.valueOf(LocalDateTime.now()));
+            pstmt.setInt(3, accountId);
+            
+            return readReturnedBalance(pstmt);
+        }
+    }
+    
+    /**
+     * Post a guarded balance delta on the caller's connection, joining its transaction
+     */
+    public OptionalLong applyDelta(Connection conn, int accountId, long amount, long guard) throws SQLException {
+        String sql = "UPDATE accounts SET balance = balance + ?, last_transaction_date = ? " +
+                    "WHERE account_id = ? AND status = " + AccountStatus.ACTIVE.getCode() + " AND balance + ? >= ? RETURNING balance";
+        
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setLong(1, amount);
+            pstmt.setTimestamp(2, Timestamp.valueOf(LocalDateTime.now()));
+            pstmt.setInt(3, accountId);
+            pstmt.setLong(4, amount);
+            pstmt.setLong(5, guard);
+            
+            return readReturnedBalance(pstmt);
+        }
+    }
+    
+    private OptionalLong readReturnedBalance(PreparedStatement pstmt) throws SQLException {
+        try (ResultSet rs = pstmt.executeQuery()) {
+            if (rs.next()) {
+                return OptionalLong.of(rs.getLong(1));
+            }
+            return OptionalLong.empty();
+        }
+    }
+    
     /**
      * Update account status
      */
-    public boolean updateAccountStatus(String accountNumber, String status) throws SQLException {
+    public boolean updateAccountStatus(String accountNumber, AccountStatus status) throws SQLException {
         String sql = "UPDATE accounts SET status = ? WHERE account_number = ?";
         
         try (Connection conn = dbManager.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
-            pstmt.setString(1, status);
+            pstmt.setInt(1, status.getCode());
             pstmt.setString(2, accountNumber);
             
+            Account previous = findCurrentByNumber(conn, accountNumber);
             int affectedRows = pstmt.executeUpdate();
             LOGGER.info("Account status updated to " + status + ". Rows affected: " + affectedRows);
+            if (affectedRows > 0 && previous != null) {
+                statistics.accountStatusChanged(previous.getStatus(), status);
+                refreshCached(conn, previous.getAccountId());
+            }
             return affectedRows > 0;
         }
     }
@@ -238,15 +424,20 @@ public class AccountDAO {
      * Close account
      */
     public boolean closeAccount(String accountNumber) throws SQLException {
-        String sql = "UPDATE accounts SET status = 'CLOSED' WHERE account_number = ?";
+        String sql = "UPDATE accounts SET status = " + AccountStatus.CLOSED.getCode() + " WHERE account_number = ?";
         
         try (Connection conn = dbManager.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setString(1, accountNumber);
             
+            Account previous = findCurrentByNumber(conn, accountNumber);
             int affectedRows = pstmt.executeUpdate();
             LOGGER.info("Account closed. Rows affected: " + affectedRows);
+            if (affectedRows > 0 && previous != null) {
+                statistics.accountStatusChanged(previous.getStatus(), AccountStatus.CLOSED);
+                refreshCached(conn, previous.getAccountId());
+            }
             return affectedRows > 0;
         }
     }
@@ -264,10 +455,102 @@ public class AccountDAO {
             
             int affectedRows = pstmt.executeUpdate();
             LOGGER.info("Account deleted. Rows affected: " + affectedRows);
+            if (affectedRows > 0) {
+                statistics.invalidate();
+                CACHE.invalidate(accountId);
+            }
             return affectedRows > 0;
         }
     }
     
+    /**
+     * Get account statistics in a single aggregate query
+     */
+    public AccountStatistics getAccountStatistics() throws SQLException {
+        String sql = """
+            SELECT
+                COUNT(*) as total_accounts,
+                SUM(CASE WHEN status = %d THEN 1 ELSE 0 END) as active_accounts,
+                SUM(CASE WHEN account_type = %d THEN 1 ELSE 0 END) as savings_accounts,
+                SUM(CASE WHEN account_type = %d THEN 1 ELSE 0 END) as checking_accounts,
+                SUM(CASE WHEN account_type = %d THEN 1 ELSE 0 END) as fixed_deposit_accounts,
+                SUM(balance) as total_balance
+            FROM accounts
+        """.formatted(AccountStatus.ACTIVE.getCode(), AccountType.SAVINGS.getCode(), AccountType.CHECKING.getCode(),
+                      AccountType.FIXED_DEPOSIT.getCode());
+        
+        try (Connection conn = dbManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+            
+            if (rs.next()) {
+                return new AccountStatistics(
+                    rs.getLong("total_accounts"),
+                    rs.getLong("active_accounts"),
+                    rs.getLong("savings_accounts"),
+                    rs.getLong("checking_accounts"),
+                    rs.getLong("fixed_deposit_accounts"),
+                    rs.getLong("total_balance")
+                );
+            }
+            
+            return new AccountStatistics(0, 0, 0, 0, 0, 0);
+        }
+    }
+    
+    /**
+     * Bring the cached copy of an account up to date after a committed change. Call it
+     * before releasing the write connection, so cache updates land in commit order.
+     * Never throws: the change is already committed, so a failed read just drops the entry.
+     */
+    public void refreshCached(Connection conn, int accountId) {
+        if (!CACHE.contains(accountId)) {
+            // Still fences off any load that read the old row
+            CACHE.invalidate(accountId);
+            return;
+        }
+        try {
+            Account current = findCurrent(conn, accountId);
+            if (current != null) {
+                CACHE.putIfPresent(current);
+            } else {
+                CACHE.invalidate(accountId);
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Could not refresh cached account " + accountId, e);
+            CACHE.invalidate(accountId);
+        }
+    }
+    
+    public static EntityCache.CacheStatistics getCacheStatistics() {
+        return CACHE.getStatistics();
+    }
+    
+    public static List<String> getNegativeCacheSummaries() {
+        return List.of(MISSING_NUMBERS.toString());
+    }
+    
+    /**
+     * Read the stored row on the write connection, so statistics can be adjusted by the difference
+     */
+    private Account findCurrent(Connection conn, int accountId) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT * FROM accounts WHERE account_id = ?")) {
+            pstmt.setInt(1, accountId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? mapResultSetToAccount(rs) : null;
+            }
+        }
+    }
+    
+    private Account findCurrentByNumber(Connection conn, String accountNumber) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT * FROM accounts WHERE account_number = ?")) {
+            pstmt.setString(1, accountNumber);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? mapResultSetToAccount(rs) : null;
+            }
+        }
+    }
+    
     /**
      * Map ResultSet to Account object
      */
@@ -276,15 +559,45 @@ public class AccountDAO {
         account.setAccountId(rs.getInt("account_id"));
         account.setCustomerId(rs.getInt("customer_id"));
         account.setAccountNumber(rs.getString("account_number"));
-        account.setAccountType(rs.getString("account_type"));
-        account.setBalance(rs.getDouble("balance"));
+        account.setAccountType(AccountType.fromCode(rs.getInt("account_type")));
+        account.setBalance(rs.getLong("balance"));
         account.setInterestRate(rs.getDouble("interest_rate"));
         account.setOpeningDate(rs.getTimestamp("opening_date").toLocalDateTime());
         account.setLastTransactionDate(rs.getTimestamp("last_transaction_date").toLocalDateTime());
-        account.setStatus(rs.getString("status"));
-        account.setMinimumBalance(rs.getDouble("minimum_balance"));
-        account.setDailyWithdrawalLimit(rs.getDouble("daily_withdrawal_limit"));
-        account.setMonthlyWithdrawalLimit(rs.getDouble("monthly_withdrawal_limit"));
+        account.setStatus(AccountStatus.fromCode(rs.getInt("status")));
+        account.setMinimumBalance(rs.getLong("minimum_balance"));
+        account.setDailyWithdrawalLimit(rs.getLong("daily_withdrawal_limit"));
+        account.setMonthlyWithdrawalLimit(rs.getLong("monthly_withdrawal_limit"));
         return account;
     }
+    
+    /**
+     * Inner class for account statistics
+     */
+    public static class AccountStatistics {
+        private final long totalAccounts;
+        private final long activeAccounts;
+        private final long savingsAccounts;
+        private final long checkingAccounts;
+        private final long fixedDepositAccounts;
+        private final long totalBalance;
+        
+        public AccountStatistics(long totalAccounts, long activeAccounts, long savingsAccounts,
+                                 long checkingAccounts, long fixedDepositAccounts, long totalBalance) {
+            this.totalAccounts = totalAccounts;
+            this.activeAccounts = activeAccounts;
+            this.savingsAccounts = savingsAccounts;
+            this.checkingAccounts = checkingAccounts;
+            this.fixedDepositAccounts = fixedDepositAccounts;
+            this.totalBalance = totalBalance;
+        }
+        
+        // Getters
+        public long getTotalAccounts() { return totalAccounts; }
+        public long getActiveAccounts() { return activeAccounts; }
+        public long getSavingsAccounts() { return savingsAccounts; }
+        public long getCheckingAccounts() { return checkingAccounts; }
+        public long getFixedDepositAccounts() { return fixedDepositAccounts; }
+        public long getTotalBalance() { return totalBalance; }
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,164 @@
+package com.waribank.dao;
+
+import com.waribank.database.DatabaseManager;
+
+import java.sql.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Hands out unique account numbers from blocks reserved in the sequences table.
+ *
+ * One UPDATE ... RETURNING reserves a whole block, after which numbers are taken
+ * from memory with a single atomic increment; only the thread that finds the
+ * block exhausted goes back to the database. Numbers left in a block when the
+ * process exits are simply skipped.
+ *
+ * Account numbers are "WB", a nine-digit body and a Luhn check digit, so a
+ * mistyped digit or swapped neighbours can be rejected without a query.
+ *
+ * @author Albert Fekadu Wari
+ */
+public class AccountNumberAllocator {
+    private static final Logger LOGGER = Logger.getLogger(AccountNumberAllocator.class.getName());
+    private static final String SEQUENCE_NAME = "account_number";
+    private static final String PREFIX = "WB";
+    private static final int BODY_DIGITS = 9;
+    private static final long MAX_BODY = 999_999_999L;
+    private static final int DEFAULT_BLOCK_SIZE = 1_000;
+
+    private static final String RESERVE_SQL =
+        "UPDATE sequences SET next_value = next_value + ? WHERE name = ? RETURNING next_value";
+
+    private static AccountNumberAllocator instance;
+
+    private final DatabaseManager dbManager;
+    private final int blockSize;
+    private volatile Block current = new Block(0, 0);
+
+    private AccountNumberAllocator(int blockSize) {
+        this.dbManager = DatabaseManager.getInstance();
+        this.blockSize = blockSize;
+    }
+
+    public static synchronized AccountNumberAllocator getInstance() {
+        if (instance == null) {
+            instance = new AccountNumberAllocator(
+                Integer.getInteger("waribank.accountNumber.blockSize", DEFAULT_BLOCK_SIZE));
+        }
+        return instance;
+    }
+
+    /**
+     * Allocate the next account number. Must not be called while holding the write connection.
+     */
+    public String nextAccountNumber() throws SQLException {
+        while (true) {
+            Block block = current;
+            long value = block.next.getAndIncrement();
+            if (value < block.end) {
+                return format(value);
+            }
+            synchronized (this) {
+                if (current == block) {
+                    current = reserveBlock();
+                }
+            }
+        }
+    }
+
+    private Block reserveBlock() throws SQLException {
+        try (Connection conn = dbManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(RESERVE_SQL)) {
+
+            pstmt.setInt(1, blockSize);
+            pstmt.setString(2, SEQUENCE_NAME);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) {
+                    throw new SQLException("Sequence '" + SEQUENCE_NAME + "' is missing");
+                }
+                long end = rs.getLong(1);
+                if (end - 1 > MAX_BODY) {
+                    throw new SQLException("Account number sequence exhausted");
+                }
+                LOGGER.fine("Reserved account numbers " + (end - blockSize) + "-" + (end - 1));
+                return new Block(end - blockSize, end);
+            }
+        }
+    }
+
+    /**
+     * Render a sequence value as a full account number
+     */
+    public static String format(long body) {
+        char[] digits = new char[BODY_DIGITS];
+        long value = body;
+        for (int i = BODY_DIGITS - 1; i >= 0; i--) {
+            digits[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        String payload = new String(digits);
+        return PREFIX + payload + luhnCheckDigit(payload);
+    }
+
+    /**
+     * Cheap pre-check for lookups. Numbers in the current format must carry a valid
+     * check digit; anything else (legacy numbers) is left for the database to decide.
+     */
+    public static boolean isPlausible(String accountNumber) {
+        if (accountNumber == null || accountNumber.isEmpty()) {
+            return false;
+        }
+        if (!isCurrentFormat(accountNumber)) {
+            return true;
+        }
+        String digits = accountNumber.substring(PREFIX.length(), accountNumber.length() - 1);
+        return luhnCheckDigit(digits) == accountNumber.charAt(accountNumber.length() - 1);
+    }
+
+    private static boolean isCurrentFormat(String accountNumber) {
+        if (accountNumber.length() != PREFIX.length() + BODY_DIGITS + 1 || !accountNumber.startsWith(PREFIX)) {
+            return false;
+        }
+        for (int i = PREFIX.length(); i < accountNumber.length(); i++) {
+            if (!Character.isDigit(accountNumber.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Luhn (mod 10) check digit for a string of digits
+     */
+    static char luhnCheckDigit(String digits) {
+        int sum = 0;
+        boolean doubleIt = true; // rightmost payload digit is doubled once the check digit is appended
+        for (int i = digits.length() - 1; i >= 0; i--) {
+            int d = digits.charAt(i) - '0';
+            if (doubleIt) {
+                d *= 2;
+                if (d > 9) {
+                    d -= 9;
+                }
+            }
+            sum += d;
+            doubleIt = !doubleIt;
+        }
+        return (char) ('0' + (10 - sum % 10) % 10);
+    }
+
+    /**
+     * A reserved range [start, end) with its own cursor
+     */
+    private static final class Block {
+        private final AtomicLong next;
+        private final long end;
+
+        Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
@@ -1,27 +1,52 @@
 package com.waribank.dao;
 
+import com.waribank.cache.EntityCache;
+import com.waribank.cache.NegativeCache;
 import com.waribank.database.DatabaseManager;
 import com.waribank.model.Customer;
+import com.waribank.model.CustomerStatus;
 import com.waribank.exception.CustomerNotFoundException;
 
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 
 /**
  * Data Access Object for Customer entity
  * 
+ * Lookups by id, email and national ID go through a cache shared by every
+ * instance; every write here updates or invalidates the cached copy.
+ * 
+ * The lookup* methods return an empty Optional for a missing customer, for
+ * existence checks. Emails and national IDs that were recently looked up and
+ * not found are remembered for a few seconds.
+ * 
  * @author Albert Fekadu Wari
  */
 public class CustomerDAO {
     private static final Logger LOGGER = Logger.getLogger(CustomerDAO.class.getName());
+    private static final int EMAIL_KEY = 0;
+    private static final int NATIONAL_ID_KEY = 1;
+    private static final EntityCache<Customer> CACHE = new EntityCache<>("customers",
+        Integer.getInteger("waribank.cache.customers", 10_000), Customer::getCustomerId, Customer::new,
+        Customer::getEmail, Customer::getNationalId);
+    private static final NegativeCache<String> MISSING_EMAILS = new NegativeCache<>("customer emails",
+        10_000, Long.getLong("waribank.cache.missing.ttl", 5_000), TimeUnit.MILLISECONDS);
+    private static final NegativeCache<String> MISSING_NATIONAL_IDS = new NegativeCache<>("customer national IDs",
+        10_000, Long.getLong("waribank.cache.missing.ttl", 5_000), TimeUnit.MILLISECONDS);
     private final DatabaseManager dbManager;
+    private final StatisticsRegistry statistics;
     
     public CustomerDAO() {
         this.dbManager = DatabaseManager.getInstance();
+        this.statistics = StatisticsRegistry.getInstance();
     }
     
     /**
@@ -41,7 +66,7 @@ public class CustomerDAO {
             pstmt.setString(5, customer.getAddress());
             pstmt.setString(6, customer.getNationalId());
             pstmt.setTimestamp(7, Timestamp.valueOf(customer.getRegistrationDate()));
-            pstmt.setString(8, customer.getStatus());
+            pstmt.setInt(8, customer.getStatus().getCode());
             pstmt.setDouble(9, customer.getCreditScore());
             
             int affectedRows = pstmt.executeUpdate();
@@ -52,6 +77,9 @@ public class CustomerDAO {
             try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
                 if (generatedKeys.next()) {
                     customer.setCustomerId(generatedKeys.getInt(1));
+                    statistics.customerAdded(customer.getStatus(), customer.getCreditScore());
+                    CACHE.put(customer);
+                    forgetMisses(customer);
                     LOGGER.info("Customer created with ID: " + customer.getCustomerId());
                     return customer;
                 } else {
@@ -65,61 +93,116 @@ public class CustomerDAO {
      * Find customer by ID
      */
     public Customer findById(int customerId) throws SQLException, CustomerNotFoundException {
+        return lookupById(customerId)
+            .orElseThrow(() -> CustomerNotFoundException.stackless("Customer not found", customerId));
+    }
+    
+    /**
+     * Find customer by email
+     */
+    public Customer findByEmail(String email) throws SQLException, CustomerNotFoundException {
+        return lookupByEmail(email)
+            .orElseThrow(() -> CustomerNotFoundException.stacklessByEmail("Customer not found", email));
+    }
+    
+    /**
+     * Find customer by national ID
+     */
+    public Customer findByNationalId(String nationalId) throws SQLException, CustomerNotFoundException {
+        return lookupByNationalId(nationalId)
+            .orElseThrow(() -> CustomerNotFoundException.stackless("Customer not found", nationalId));
+    }
+    
+    /**
+     * Look up a customer by ID; empty if there is none
+     */
+    public Optional<Customer> lookupById(int customerId) throws SQLException {
         String sql = "SELECT * FROM customers WHERE customer_id = ?";
         
-        try (Connection conn = dbManager.getConnection();
+        Customer cached = CACHE.get(customerId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        
+        long stamp = CACHE.beginLoad();
+        try (Connection conn = dbManager.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setInt(1, customerId);
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapResultSetToCustomer(rs);
-                } else {
-                    throw new CustomerNotFoundException("Customer not found", customerId);
+                    Customer customer = mapResultSetToCustomer(rs);
+                    CACHE.completeLoad(customer, stamp);
+                    return Optional.of(customer);
                 }
+                return Optional.empty();
             }
         }
     }
     
     /**
-     * Find customer by email
+     * Look up a customer by email; empty if there is none
      */
-    public Customer findByEmail(String email) throws SQLException, CustomerNotFoundException {
+    public Optional<Customer> lookupByEmail(String email) throws SQLException {
         String sql = "SELECT * FROM customers WHERE email = ?";
         
-        try (Connection conn = dbManager.getConnection();
+        Customer cached = CACHE.getByKey(EMAIL_KEY, email);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        if (MISSING_EMAILS.isKnownMissing(email)) {
+            return Optional.empty();
+        }
+        
+        long stamp = CACHE.beginLoad();
+        long missStamp = MISSING_EMAILS.beginLoad();
+        try (Connection conn = dbManager.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setString(1, email);
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapResultSetToCustomer(rs);
-                } else {
-                    throw new CustomerNotFoundException("Customer not found", email, true);
+                    Customer customer = mapResultSetToCustomer(rs);
+                    CACHE.completeLoad(customer, stamp);
+                    return Optional.of(customer);
                 }
+                MISSING_EMAILS.completeMiss(email, missStamp);
+                return Optional.empty();
             }
         }
     }
     
     /**
-     * Find customer by national ID
+     * Look up a customer by national ID; empty if there is none
      */
-    public Customer findByNationalId(String nationalId) throws SQLException, CustomerNotFoundException {
+    public Optional<Customer> lookupByNationalId(String nationalId) throws SQLException {
         String sql = "SELECT * FROM customers WHERE national_id = ?";
         
-        try (Connection conn = dbManager.getConnection();
+        Customer cached = CACHE.getByKey(NATIONAL_ID_KEY, nationalId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        if (MISSING_NATIONAL_IDS.isKnownMissing(nationalId)) {
+            return Optional.empty();
+        }
+        
+        long stamp = CACHE.beginLoad();
+        long missStamp = MISSING_NATIONAL_IDS.beginLoad();
+        try (Connection conn = dbManager.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setString(1, nationalId);
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapResultSetToCustomer(rs);
-                } else {
-                    throw new CustomerNotFoundException("Customer not found", nationalId);
+                    Customer customer = mapResultSetToCustomer(rs);
+                    CACHE.completeLoad(customer, stamp);
+                    return Optional.of(customer);
                 }
+                MISSING_NATIONAL_IDS.completeMiss(nationalId, missStamp);
+                return Optional.empty();
             }
         }
     }
@@ -131,7 +214,7 @@ public class CustomerDAO {
         String sql = "SELECT * FROM customers ORDER BY customer_id";
         List<Customer> customers = new ArrayList<>();
         
-        try (Connection conn = dbManager.getConnection();
+        try (Connection conn = dbManager.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql);
              ResultSet rs = pstmt.executeQuery()) {
             
@@ -143,14 +226,33 @@ public class CustomerDAO {
         return customers;
     }
     
+    /**
+     * Stream all customers in customer_id order, mapping rows lazily as they are consumed.
+     * The stream holds a read connection until it is closed.
+     */
+    public Stream<Customer> streamAll(int fetchSize) throws SQLException {
+        return ResultSetStream.open(dbManager, "SELECT * FROM customers ORDER BY customer_id", fetchSize, this::mapResultSetToCustomer);
+    }
+    
+    public Stream<Customer> streamAll() throws SQLException {
+        return streamAll(ResultSetStream.DEFAULT_FETCH_SIZE);
+    }
+    
+    /**
+     * Pass every customer to a callback in customer_id order; returns the number of rows read
+     */
+    public long forEach(int fetchSize, Consumer<? super Customer> action) throws SQLException {
+        return ResultSetStream.forEach(dbManager, "SELECT * FROM customers ORDER BY customer_id", fetchSize, this::mapResultSetToCustomer, action);
+    }
+    
     /**
      * Get active customers
      */
     public List<Customer> findActiveCustomers() throws SQLException {
-        String sql = "SELECT * FROM customers WHERE status = 'ACTIVE' ORDER BY customer_id";
+        String sql = "SELECT * FROM customers WHERE status = " + CustomerStatus.ACTIVE.getCode() + " ORDER BY customer_id";
         List<Customer> customers = new ArrayList<>();
         
-        try (Connection conn = dbManager.getConnection();
+        try (Connection conn = dbManager.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql);
              ResultSet rs = pstmt.executeQuery()) {
             
@@ -178,12 +280,21 @@ public class CustomerDAO {
             pstmt.setString(4, customer.getPhoneNumber());
             pstmt.setString(5, customer.getAddress());
             pstmt.setString(6, customer.getNationalId());
-            pstmt.setString(7, customer.getStatus());
+            pstmt.setInt(7, customer.getStatus().getCode());
             pstmt.setDouble(8, customer.getCreditScore());
             pstmt.setInt(9, customer.getCustomerId());
             
+            Customer previous = findCurrent(conn, customer.getCustomerId());
             int affectedRows = pstmt.executeUpdate();
             LOGGER.info("Customer updated. Rows affected: " + affectedRows);
+            if (affectedRows > 0 && previous != null) {
+                statistics.customerChanged(previous.getStatus(), customer.getStatus(),
+                                           customer.getCreditScore() - previous.getCreditScore());
+            }
+            refreshCached(conn, customer.getCustomerId());
+            if (affectedRows > 0) {
+                forgetMisses(customer);
+            }
             return affectedRows > 0;
         }
     }
@@ -201,6 +312,10 @@ public class CustomerDAO {
             
             int affectedRows = pstmt.executeUpdate();
             LOGGER.info("Customer deleted. Rows affected: " + affectedRows);
+            if (affectedRows > 0) {
+                statistics.invalidate();
+                CACHE.invalidate(customerId);
+            }
             return affectedRows > 0;
         }
     }
@@ -208,17 +323,22 @@ public class CustomerDAO {
     /**
      * Update customer status
      */
-    public boolean updateCustomerStatus(int customerId, String status) throws SQLException {
+    public boolean updateCustomerStatus(int customerId, CustomerStatus status) throws SQLException {
         String sql = "UPDATE customers SET status = ? WHERE customer_id = ?";
         
         try (Connection conn = dbManager.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
-            pstmt.setString(1, status);
+            pstmt.setInt(1, status.getCode());
             pstmt.setInt(2, customerId);
             
+            Customer previous = findCurrent(conn, customerId);
             int affectedRows = pstmt.executeUpdate();
             LOGGER.info("Customer status updated to " + status + ". Rows affected: " + affectedRows);
+            if (affectedRows > 0 && previous != null) {
+                statistics.customerChanged(previous.getStatus(), status, 0.0);
+            }
+            refreshCached(conn, customerId);
             return affectedRows > 0;
         }
     }
@@ -235,12 +355,102 @@ public class CustomerDAO {
             pstmt.setDouble(1, creditScore);
             pstmt.setInt(2, customerId);
             
+            Customer previous = findCurrent(conn, customerId);
             int affectedRows = pstmt.executeUpdate();
             LOGGER.info("Customer credit score updated to " + creditScore + ". Rows affected: " + affectedRows);
+            if (affectedRows > 0 && previous != null) {
+                statistics.customerChanged(previous.getStatus(), previous.getStatus(),
+                                           creditScore - previous.getCreditScore());
+            }
+            refreshCached(conn, customerId);
             return affectedRows > 0;
         }
     }
     
+    /**
+     * Get customer statistics in a single aggregate query
+     */
+    public CustomerStatistics getCustomerStatistics() throws SQLException {
+        String sql = """
+            SELECT
+                COUNT(*) as total_customers,
+                SUM(CASE WHEN status = %d THEN 1 ELSE 0 END) as active_customers,
+                SUM(CASE WHEN status = %d THEN 1 ELSE 0 END) as suspended_customers,
+                SUM(CASE WHEN status = %d THEN 1 ELSE 0 END) as inactive_customers,
+                AVG(credit_score) as average_credit_score
+            FROM customers
+        """.formatted(CustomerStatus.ACTIVE.getCode(), CustomerStatus.SUSPENDED.getCode(),
+                      CustomerStatus.INACTIVE.getCode());
+        
+        try (Connection conn = dbManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+            
+            if (rs.next()) {
+                return new CustomerStatistics(
+                    rs.getLong("total_customers"),
+                    rs.getLong("active_customers"),
+                    rs.getLong("suspended_customers"),
+                    rs.getLong("inactive_customers"),
+                    rs.getDouble("average_credit_score")
+                );
+            }
+            
+            return new CustomerStatistics(0, 0, 0, 0, 0.0);
+        }
+    }
+    
+    public static EntityCache.CacheStatistics getCacheStatistics() {
+        return CACHE.getStatistics();
+    }
+    
+    public static List<String> getNegativeCacheSummaries() {
+        return List.of(MISSING_EMAILS.toString(), MISSING_NATIONAL_IDS.toString());
+    }
+    
+    /**
+     * The customer's email and national ID now exist, whatever earlier lookups found
+     */
+    private void forgetMisses(Customer customer) {
+        MISSING_EMAILS.invalidate(customer.getEmail());
+        MISSING_NATIONAL_IDS.invalidate(customer.getNationalId());
+    }
+    
+    /**
+     * Replace the cached copy with the row as just written, still on the write connection.
+     * The update has already committed, so a failed read just drops the entry.
+     */
+    private void refreshCached(Connection conn, int customerId) {
+        if (!CACHE.contains(customerId)) {
+            // Still fences off any load that read the old row
+            CACHE.invalidate(customerId);
+            return;
+        }
+        try {
+            Customer current = findCurrent(conn, customerId);
+            if (current != null) {
+                CACHE.putIfPresent(current);
+            } else {
+                CACHE.invalidate(customerId);
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Could not refresh cached customer " + customerId, e);
+            CACHE.invalidate(customerId);
+        }
+    }
+    
+    /**
+     * Read the stored row on the write connection, so statistics can be adjusted by the difference
+     */
+    private Customer findCurrent(Connection conn, int customerId) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT * FROM customers WHERE customer_id = ?")) {
+            pstmt.setInt(1, customerId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? mapResultSetToCustomer(rs) : null;
+            }
+        }
+    }
+    
     /**
      * Map ResultSet to Customer object
      */
@@ -254,8 +464,35 @@ public class CustomerDAO {
         customer.setAddress(rs.getString("address"));
         customer.setNationalId(rs.getString("national_id"));
         customer.setRegistrationDate(rs.getTimestamp("registration_date").toLocalDateTime());
-        customer.setStatus(rs.getString("status"));
+        customer.setStatus(CustomerStatus.fromCode(rs.getInt("status")));
         customer.setCreditScore(rs.getDouble("credit_score"));
         return customer;
     }
+    
+    /**
+     * Inner class for customer statistics
+     */
+    public static class CustomerStatistics {
+        private final long totalCustomers;
+        private final long activeCustomers;
+        private final long suspendedCustomers;
+        private final long inactiveCustomers;
+        private final double averageCreditScore;
+        
+        public CustomerStatistics(long totalCustomers, long activeCustomers, long suspendedCustomers,
+                                  long inactiveCustomers, double averageCreditScore) {
+            this.totalCustomers = totalCustomers;
+            this.activeCustomers = activeCustomers;
+            this.suspendedCustomers = suspendedCustomers;
+            this.inactiveCustomers = inactiveCustomers;
+            this.averageCreditScore = averageCreditScore;
+        }
+        
+        // Getters
+        public long getTotalCustomers() { return totalCustomers; }
+        public long getActiveCustomers() { return activeCustomers; }
+        public long getSuspendedCustomers() { return suspendedCustomers; }
+        public long getInactiveCustomers() { return inactiveCustomers; }
+        public double getAverageCreditScore() { return averageCreditScore; }
+    }
 } 
\ No newline at end of file
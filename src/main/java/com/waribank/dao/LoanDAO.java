@@ -2,6 +2,8 @@ package com.waribank.dao;
 
 import com.waribank.database.DatabaseManager;
 import com.waribank.model.Loan;
+import com.waribank.model.LoanStatus;
+import com.waribank.model.LoanType;
 import com.waribank.exception.CustomerNotFoundException;
 import com.waribank.exception.AccountNotFoundException;
 
@@ -9,6 +11,8 @@ import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 
@@ -20,9 +24,11 @@ import java.util.logging.Level;
 public class LoanDAO {
     private static final Logger LOGGER = Logger.getLogger(LoanDAO.class.getName());
     private final DatabaseManager dbManager;
+    private final StatisticsRegistry statistics;
     
     public LoanDAO() {
         this.dbManager = DatabaseManager.getInstance();
+        this.statistics = StatisticsRegistry.getInstance();
     }
     
     /**
@@ -38,15 +44,15 @@ public class LoanDAO {
             
             pstmt.setInt(1, loan.getCustomerId());
             pstmt.setInt(2, loan.getAccountId());
-            pstmt.setDouble(3, loan.getLoanAmount());
+            pstmt.setLong(3, loan.getLoanAmount());
             pstmt.setDouble(4, loan.getInterestRate());
             pstmt.setInt(5, loan.getTermInMonths());
-            pstmt.setString(6, loan.getLoanType());
+            pstmt.setInt(6, loan.getLoanType().getCode());
             pstmt.setString(7, loan.getPurpose());
             pstmt.setTimestamp(8, Timestamp.valueOf(loan.getApplicationDate()));
-            pstmt.setString(9, loan.getStatus());
-            pstmt.setDouble(10, loan.getMonthlyPayment());
-            pstmt.setDouble(11, loan.getRemainingBalance());
+            pstmt.setInt(9, loan.getStatus().getCode());
+            pstmt.setLong(10, loan.getMonthlyPayment());
+            pstmt.setLong(11, loan.getRemainingBalance());
             
             int affectedRows = pstmt.executeUpdate();
             if (affectedRows == 0) {
@@ -56,6 +62,7 @@ public class LoanDAO {
             try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
                 if (generatedKeys.next()) {
                     loan.setLoanId(generatedKeys.getInt(1));
+                    statistics.loanAdded(loan.getStatus(), loan.getLoanAmount(), loan.getRemainingBalance());
                     LOGGER.info("Loan created with ID: " + loan.getLoanId());
                     return loan;
                 } else {
@@ -71,7 +78,7 @@ public class LoanDAO {
     public Loan findById(int loanId) throws SQLException {
         String sql = "SELECT * FROM loans WHERE loan_id = ?";
         
-        try (Connection conn = dbManager.getConnection();
+        try (Connection conn = dbManager.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setInt(1, loanId);
@@ -93,7 +100,7 @@ public class LoanDAO {
         String sql = "SELECT * FROM loans WHERE customer_id = ? ORDER BY application_date DESC";
         List<Loan> loans = new ArrayList<>();
         
-        try (Connection conn = dbManager.getConnection();
+        try (Connection conn = dbManager.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setInt(1, customerId);
@@ -115,7 +122,7 @@ public class LoanDAO {
         String sql = "SELECT * FROM loans WHERE account_id = ? ORDER BY application_date DESC";
         List<Loan> loans = new ArrayList<>();
         
-        try (Connection conn = dbManager.getConnection();
+        try (Connection conn = dbManager.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setInt(1, accountId);
@@ -137,7 +144,7 @@ public class LoanDAO {
         String sql = "SELECT * FROM loans ORDER BY application_date DESC";
         List<Loan> loans = new ArrayList<>();
         
-        try (Connection conn = dbManager.getConnection();
+        try (Connection conn = dbManager.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql);
              ResultSet rs = pstmt.executeQuery()) {
             
@@ -149,14 +156,33 @@ public class LoanDAO {
         return loans;
     }
     
+    /**
+     * Stream all loans in loan_id order, mapping rows lazily as they are consumed.
+     * The stream holds a read connection until it is closed.
+     */
+    public Stream<Loan> streamAll(int fetchSize) throws SQLException {
+        return ResultSetStream.open(dbManager, "SELECT * FROM loans ORDER BY loan_id", fetchSize, this::mapResultSetToLoan);
+    }
+    
+    public Stream<Loan> streamAll() throws SQLException {
+        return streamAll(ResultSetStream.DEFAULT_FETCH_SIZE);
+    }
+    
+    /**
+     * Pass every loan to a callback in loan_id order; returns the number of rows read
+     */
+    public long forEach(int fetchSize, Consumer<? super Loan> action) throws SQLException {
+        return ResultSetStream.forEach(dbManager, "SELECT * FROM loans ORDER BY loan_id", fetchSize, this::mapResultSetToLoan, action);
+    }
+    
     /**
      * Get pending loans
      */
     public List<Loan> findPendingLoans() throws SQLException {
-        String sql = "SELECT * FROM loans WHERE status = 'PENDING' ORDER BY application_date DESC";
+        String sql = "SELECT * FROM loans WHERE status = " + LoanStatus.PENDING.getCode() + " ORDER BY application_date DESC";
         List<Loan> loans = new ArrayList<>();
         
-        try (Connection conn = dbManager.getConnection();
+        try (Connection conn = dbManager.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql);
              ResultSet rs = pstmt.executeQuery()) {
             
@@ -172,10 +198,10 @@ public class LoanDAO {
      * Get approved loans
      */
     public List<Loan> findApprovedLoans() throws SQLException {
-        String sql = "SELECT * FROM loans WHERE status = 'APPROVED' ORDER BY application_date DESC";
+        String sql = "SELECT * FROM loans WHERE status = " + LoanStatus.APPROVED.getCode() + " ORDER BY application_date DESC";
         List<Loan> loans = new ArrayList<>();
         
-        try (Connection conn = dbManager.getConnection();
+        try (Connection conn = dbManager.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql);
              ResultSet rs = pstmt.executeQuery()) {
             
@@ -191,10 +217,10 @@ public class LoanDAO {
      * Get active loans
      */
     public List<Loan> findActiveLoans() throws SQLException {
-        String sql = "SELECT * FROM loans WHERE status = 'ACTIVE' ORDER BY application_date DESC";
+        String sql = "SELECT * FROM loans WHERE status = " + LoanStatus.ACTIVE.getCode() + " ORDER BY application_date DESC";
         List<Loan> loans = new ArrayList<>();
         
-        try (Connection conn = dbManager.getConnection();
+        try (Connection conn = dbManager.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql);
              ResultSet rs = pstmt.executeQuery()) {
             
@@ -221,10 +247,10 @@ public class LoanDAO {
             
             pstmt.setInt(1, loan.getCustomerId());
             pstmt.setInt(2, loan.getAccountId());
-            pstmt.setDouble(3, loan.getLoanAmount());
+            pstmt.setLong(3, loan.getLoanAmount());
             pstmt.setDouble(4, loan.getInterestRate());
             pstmt.setInt(5, loan.getTermInMonths());
-            pstmt.setString(6, loan.getLoanType());
+            pstmt.setInt(6, loan.getLoanType().getCode());
             pstmt.setString(7, loan.getPurpose());
             pstmt.setTimestamp(8, Timestamp.valueOf(loan.getApplicationDate()));
             
@@ -246,15 +272,21 @@ public class LoanDAO {
                 pstmt.setNull(11, Types.TIMESTAMP);
             }
             
-            pstmt.setString(12, loan.getStatus());
-            pstmt.setDouble(13, loan.getMonthlyPayment());
-            pstmt.setDouble(14, loan.getRemainingBalance());
+            pstmt.setInt(12, loan.getStatus().getCode());
+            pstmt.setLong(13, loan.getMonthlyPayment());
+            pstmt.setLong(14, loan.getRemainingBalance());
             pstmt.setString(15, loan.getApprovedBy());
             pstmt.setString(16, loan.getRejectionReason());
             pstmt.setInt(17, loan.getLoanId());
             
+            Loan previous = findCurrent(conn, loan.getLoanId());
             int affectedRows = pstmt.executeUpdate();
             LOGGER.info("Loan updated. Rows affected: " + affectedRows);
+            if (affectedRows > 0 && previous != null) {
+                statistics.loanChanged(previous.getStatus(), loan.getStatus(),
+                                       loan.getLoanAmount() - previous.getLoanAmount(),
+                                       loan.getRemainingBalance() - previous.getRemainingBalance());
+            }
             return affectedRows > 0;
         }
     }
@@ -272,6 +304,9 @@ public class LoanDAO {
             
             int affectedRows = pstmt.executeUpdate();
             LOGGER.info("Loan deleted. Rows affected: " + affectedRows);
+            if (affectedRows > 0) {
+                statistics.invalidate();
+            }
             return affectedRows > 0;
         }
     }
@@ -283,16 +318,17 @@ public class LoanDAO {
         String sql = """
             SELECT 
                 COUNT(*) as total_loans,
-                SUM(CASE WHEN status = 'PENDING' THEN 1 ELSE 0 END) as pending_loans,
-                SUM(CASE WHEN status = 'APPROVED' THEN 1 ELSE 0 END) as approved_loans,
-                SUM(CASE WHEN status = 'ACTIVE' THEN 1 ELSE 0 END) as active_loans,
-                SUM(CASE WHEN status = 'COMPLETED' THEN 1 ELSE 0 END) as completed_loans,
+                SUM(CASE WHEN status = %d THEN 1 ELSE 0 END) as pending_loans,
+                SUM(CASE WHEN status = %d THEN 1 ELSE 0 END) as approved_loans,
+                SUM(CASE WHEN status = %d THEN 1 ELSE 0 END) as active_loans,
+                SUM(CASE WHEN status = %d THEN 1 ELSE 0 END) as completed_loans,
                 SUM(loan_amount) as total_loan_amount,
                 SUM(remaining_balance) as total_remaining_balance
             FROM loans
-        """;
+        """.formatted(LoanStatus.PENDING.getCode(), LoanStatus.APPROVED.getCode(), LoanStatus.ACTIVE.getCode(),
+                      LoanStatus.COMPLETED.getCode());
         
-        try (Connection conn = dbManager.getConnection();
+        try (Connection conn = dbManager.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql);
              ResultSet rs = pstmt.executeQuery()) {
             
@@ -303,12 +339,24 @@ public class LoanDAO {
                     rs.getLong("approved_loans"),
                     rs.getLong("active_loans"),
                     rs.getLong("completed_loans"),
-                    rs.getDouble("total_loan_amount"),
-                    rs.getDouble("total_remaining_balance")
+                    rs.getLong("total_loan_amount"),
+                    rs.getLong("total_remaining_balance")
                 );
             }
             
-            return new LoanStatistics(0, 0, 0, 0, 0, 0.0, 0.0);
+            return new LoanStatistics(0, 0, 0, 0, 0, 0, 0);
+        }
+    }
+    
+    /**
+     * Read the stored row on the write connection, so statistics can be adjusted by the difference
+     */
+    private Loan findCurrent(Connection conn, int loanId) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT * FROM loans WHERE loan_id = ?")) {
+            pstmt.setInt(1, loanId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? mapResultSetToLoan(rs) : null;
+            }
         }
     }
     
@@ -320,10 +368,10 @@ public class LoanDAO {
         loan.setLoanId(rs.getInt("loan_id"));
         loan.setCustomerId(rs.getInt("customer_id"));
         loan.setAccountId(rs.getInt("account_id"));
-        loan.setLoanAmount(rs.getDouble("loan_amount"));
+        loan.setLoanAmount(rs.getLong("loan_amount"));
         loan.setInterestRate(rs.getDouble("interest_rate"));
         loan.setTermInMonths(rs.getInt("term_in_months"));
-        loan.setLoanType(rs.getString("loan_type"));
+        loan.setLoanType(LoanType.fromCode(rs.getInt("loan_type")));
         loan.setPurpose(rs.getString("purpose"));
         loan.setApplicationDate(rs.getTimestamp("application_date").toLocalDateTime());
         
@@ -342,9 +390,9 @@ public class LoanDAO {
             loan.setDueDate(dueDate.toLocalDateTime());
         }
         
-        loan.setStatus(rs.getString("status"));
-        loan.setMonthlyPayment(rs.getDouble("monthly_payment"));
-        loan.setRemainingBalance(rs.getDouble("remaining_balance"));
+        loan.setStatus(LoanStatus.fromCode(rs.getInt("status")));
+        loan.setMonthlyPayment(rs.getLong("monthly_payment"));
+        loan.setRemainingBalance(rs.getLong("remaining_balance"));
         loan.setApprovedBy(rs.getString("approved_by"));
         loan.setRejectionReason(rs.getString("rejection_reason"));
         
@@ -360,12 +408,12 @@ public class LoanDAO {
         private final long approvedLoans;
         private final long activeLoans;
         private final long completedLoans;
-        private final double totalLoanAmount;
-        private final double totalRemainingBalance;
+        private final long totalLoanAmount;
+        private final long totalRemainingBalance;
         
         public LoanStatistics(long totalLoans, long pendingLoans, long approvedLoans, 
-                            long activeLoans, long completedLoans, double totalLoanAmount, 
-                            double totalRemainingBalance) {
+                            long activeLoans, long completedLoans, long totalLoanAmount, 
+                            long totalRemainingBalance) {
             this.totalLoans = totalLoans;
             this.pendingLoans = pendingLoans;
             this.approvedLoans = approvedLoans;
@@ -381,7 +429,7 @@ public class LoanDAO {
         public long getApprovedLoans() { return approvedLoans; }
         public long getActiveLoans() { return activeLoans; }
         public long getCompletedLoans() { return completedLoans; }
-        public double getTotalLoanAmount() { return totalLoanAmount; }
-        public double getTotalRemainingBalance() { return totalRemainingBalance; }
+        public long getTotalLoanAmount() { return totalLoanAmount; }
+        public long getTotalRemainingBalance() { return totalRemainingBalance; }
     }
 } 
\ No newline at end of file
@@ -0,0 +1,256 @@
+package com.waribank.dao;
+
+import com.waribank.model.Transaction;
+import com.waribank.exception.AccountNotFoundException;
+import com.waribank.exception.InsufficientBalanceException;
+import com.waribank.exception.InvalidTransactionException;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Logger;
+import java.util.logging.Level;
+
+/**
+ * Group-commit stage in front of TransactionDAO for deposits and withdrawals.
+ *
+ * Callers enqueue postings and wait on a future. A single writer thread drains
+ * the queue into batches, bounded by size and by how long the first posting in
+ * the batch may wait, and commits each batch as one database transaction via
+ * {@link TransactionDAO#createTransactions}. Concurrent callers therefore share
+ * one commit instead of paying for one each.
+ *
+ * Shutdown stops new postings under a lock, so nothing can be enqueued after
+ * the writer has seen the queue empty. Anything still queued when the writer
+ * stops is failed rather than left waiting.
+ *
+ * @author Albert Fekadu Wari
+ */
+public class PostingPipeline {
+    private static final Logger LOGGER = Logger.getLogger(PostingPipeline.class.getName());
+    private static final int DEFAULT_MAX_BATCH_SIZE = 256;
+    private static final long DEFAULT_MAX_WAIT_MICROS = 2_000;
+    private static final int QUEUE_CAPACITY = 10_000;
+    private static final long IDLE_POLL_MS = 100;
+    private static final long POST_TIMEOUT_SECONDS = 30;
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
+
+    private final TransactionDAO transactionDAO;
+    private final int maxBatchSize;
+    private final long maxWaitMicros;
+    private final BlockingQueue<PendingPosting> queue = new LinkedBlockingQueue<>(QUEUE_CAPACITY);
+    private final Thread writer;
+    private final ReadWriteLock stateLock = new ReentrantReadWriteLock();
+    private volatile boolean running = true;
+
+    // Metrics
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong postings = new AtomicLong();
+    private final AtomicLong largestBatch = new AtomicLong();
+
+    public PostingPipeline(TransactionDAO transactionDAO) {
+        this(transactionDAO, DEFAULT_MAX_BATCH_SIZE, DEFAULT_MAX_WAIT_MICROS);
+    }
+
+    public PostingPipeline(TransactionDAO transactionDAO, int maxBatchSize, long maxWaitMicros) {
+        this.transactionDAO = transactionDAO;
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitMicros = maxWaitMicros;
+        this.writer = new Thread(this::runWriter, "waribank-posting-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Enqueue a posting; the future completes when its batch commits
+     */
+    public CompletableFuture<Transaction> submit(String accountNumber, Transaction transaction) {
+        PendingPosting pending = new PendingPosting(new TransactionDAO.PostingRequest(accountNumber, transaction));
+        // Shared lock: submitters run concurrently, but never across shutdown's check of running
+        stateLock.readLock().lock();
+        try {
+            if (!running) {
+                pending.future.completeExceptionally(new SQLException("Posting pipeline has been shut down"));
+            } else if (!queue.offer(pending)) {
+                pending.future.completeExceptionally(new SQLException("Posting queue is full"));
+            }
+        } finally {
+            stateLock.readLock().unlock();
+        }
+        return pending.future;
+    }
+
+    /**
+     * Enqueue a posting and wait for it to commit. On timeout the posting may
+     * still commit later; the caller should check the account before retrying.
+     */
+    public Transaction post(String accountNumber, Transaction transaction)
+            throws SQLException, AccountNotFoundException, InsufficientBalanceException, InvalidTransactionException {
+        try {
+            return submit(accountNumber, transaction).get(POST_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            throw new SQLException("Timed out after " + POST_TIMEOUT_SECONDS + " s waiting for posting to commit", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for posting to commit", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof AccountNotFoundException) {
+                throw (AccountNotFoundException) cause;
+            } else if (cause instanceof InsufficientBalanceException) {
+                throw (InsufficientBalanceException) cause;
+            } else if (cause instanceof InvalidTransactionException) {
+                throw (InvalidTransactionException) cause;
+            } else if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            }
+            throw new SQLException("Posting failed", cause);
+        }
+    }
+
+    private void runWriter() {
+        List<PendingPosting> batch = new ArrayList<>(maxBatchSize);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingPosting first = queue.poll(IDLE_POLL_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                long deadline = System.nanoTime() + TimeUnit.MICROSECONDS.toNanos(maxWaitMicros);
+                while (batch.size() < maxBatchSize) {
+                    if (queue.drainTo(batch, maxBatchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    PendingPosting next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                commit(batch);
+            } catch (InterruptedException e) {
+                stopAccepting();
+                fail(batch, new SQLException("Posting writer was interrupted"));
+            } finally {
+                batch.clear();
+            }
+        }
+
+        failQueued("Posting pipeline stopped before the posting was committed");
+    }
+
+    private void commit(List<PendingPosting> batch) {
+        List<TransactionDAO.PostingRequest> requests = new ArrayList<>(batch.size());
+        for (PendingPosting pending : batch) {
+            requests.add(pending.request);
+        }
+
+        try {
+            TransactionDAO.BatchResult result = transactionDAO.createTransactions(requests);
+            for (int i = 0; i < batch.size(); i++) {
+                if (result.isSuccess(i)) {
+                    batch.get(i).future.complete(result.getTransaction(i));
+                } else {
+                    batch.get(i).future.completeExceptionally(result.getError(i));
+                }
+            }
+        } catch (SQLException | RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Group commit of " + batch.size() + " postings failed", e);
+            fail(batch, e);
+        }
+
+        batches.incrementAndGet();
+        postings.addAndGet(batch.size());
+        largestBatch.accumulateAndGet(batch.size(), Math::max);
+    }
+
+    /**
+     * Stop accepting postings, commit what is queued and stop the writer thread
+     */
+    public void shutdown() {
+        stopAccepting();
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(SHUTDOWN_TIMEOUT_SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            // The writer keeps the batch it is committing; whatever it has not taken yet is failed here
+            LOGGER.warning("Posting writer did not stop within " + SHUTDOWN_TIMEOUT_SECONDS + " s");
+            failQueued("Posting pipeline shut down before the posting was committed");
+        }
+    }
+
+    private void stopAccepting() {
+        stateLock.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            stateLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Fail every posting still queued; drainTo removes them, so the writer cannot also commit them
+     */
+    private void failQueued(String message) {
+        List<PendingPosting> leftover = new ArrayList<>();
+        queue.drainTo(leftover);
+        if (!leftover.isEmpty()) {
+            LOGGER.warning(leftover.size() + " queued postings were not committed");
+            fail(leftover, new SQLException(message));
+        }
+    }
+
+    private static void fail(List<PendingPosting> postings, Exception e) {
+        for (PendingPosting pending : postings) {
+            pending.future.completeExceptionally(e);
+        }
+    }
+
+    public long getBatchCount() {
+        return batches.get();
+    }
+
+    public long getPostingCount() {
+        return postings.get();
+    }
+
+    public long getLargestBatch() {
+        return largestBatch.get();
+    }
+
+    public double getAverageBatchSize() {
+        long count = batches.get();
+        return count == 0 ? 0.0 : (double) postings.get() / count;
+    }
+
+    /**
+     * A queued posting and the future its caller waits on
+     */
+    private static class PendingPosting {
+        private final TransactionDAO.PostingRequest request;
+        private final CompletableFuture<Transaction> future = new CompletableFuture<>();
+
+        PendingPosting(TransactionDAO.PostingRequest request) {
+            this.request = request;
+        }
+    }
+}
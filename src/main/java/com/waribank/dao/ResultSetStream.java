@@ -0,0 +1,117 @@
+package com.waribank.dao;
+
+import com.waribank.database.DatabaseManager;
+import com.waribank.exception.DataAccessException;
+
+import java.sql.*;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.logging.Logger;
+import java.util.logging.Level;
+
+/**
+ * Cursor-backed full-table scans for the DAOs.
+ *
+ * Rows are mapped one at a time as the caller pulls them, so a scan holds only
+ * the driver's fetch window in memory no matter how large the table is. A
+ * stream owns a read connection until it is closed and must therefore be used
+ * in a try-with-resources block; the callback variant closes everything itself.
+ *
+ * @author Albert Fekadu Wari
+ */
+public final class ResultSetStream {
+    private static final Logger LOGGER = Logger.getLogger(ResultSetStream.class.getName());
+
+    public static final int DEFAULT_FETCH_SIZE = 500;
+
+    /**
+     * Maps the current row of a result set to an object
+     */
+    @FunctionalInterface
+    public interface RowMapper<T> {
+        T map(ResultSet rs) throws SQLException;
+    }
+
+    private ResultSetStream() {
+    }
+
+    /**
+     * Open a lazy stream over a query. Closing the stream closes the result set,
+     * the statement and the connection.
+     */
+    public static <T> Stream<T> open(DatabaseManager dbManager, String sql, int fetchSize,
+                                     RowMapper<T> mapper) throws SQLException {
+        Connection conn = dbManager.getReadConnection();
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        try {
+            pstmt = conn.prepareStatement(sql);
+            pstmt.setFetchSize(fetchSize);
+            rs = pstmt.executeQuery();
+        } catch (SQLException e) {
+            closeQuietly(rs, pstmt, conn);
+            throw e;
+        }
+
+        final ResultSet cursor = rs;
+        final PreparedStatement statement = pstmt;
+        Spliterator<T> rows = new Spliterators.AbstractSpliterator<T>(
+                Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            private boolean exhausted;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                if (exhausted) {
+                    return false;
+                }
+                try {
+                    if (!cursor.next()) {
+                        exhausted = true;
+                        return false;
+                    }
+                    action.accept(mapper.map(cursor));
+                    return true;
+                } catch (SQLException e) {
+                    throw new DataAccessException("Failed to read row", e);
+                }
+            }
+        };
+        return StreamSupport.stream(rows, false).onClose(() -> closeQuietly(cursor, statement, conn));
+    }
+
+    /**
+     * Push every row of a query to a callback without materializing the result
+     */
+    public static <T> long forEach(DatabaseManager dbManager, String sql, int fetchSize,
+                                   RowMapper<T> mapper, Consumer<? super T> action) throws SQLException {
+        long rows = 0;
+        try (Connection conn = dbManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setFetchSize(fetchSize);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    action.accept(mapper.map(rs));
+                    rows++;
+                }
+            }
+        }
+        return rows;
+    }
+
+    private static void closeQuietly(AutoCloseable... resources) {
+        for (AutoCloseable resource : resources) {
+            if (resource == null) {
+                continue;
+            }
+            try {
+                resource.close();
+            } catch (Exception e) {
+                LOGGER.log(Level.WARNING, "Failed to close streaming resource", e);
+            }
+        }
+    }
+}
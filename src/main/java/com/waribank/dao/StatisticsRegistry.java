@@ -0,0 +1,309 @@
+package com.waribank.dao;
+
+import com.waribank.database.DatabaseManager;
+import com.waribank.model.AccountStatus;
+import com.waribank.model.AccountType;
+import com.waribank.model.Coded;
+import com.waribank.model.CustomerStatus;
+import com.waribank.model.LoanStatus;
+import com.waribank.model.TransactionStatus;
+import com.waribank.model.TransactionType;
+
+import java.sql.*;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * In-memory running totals behind the statistics screens.
+ *
+ * Counts by status and type and the money totals are seeded from the database
+ * once, then adjusted by the DAO write paths right after they commit, so reading
+ * them is a handful of LongAdder and DoubleAdder sums instead of a table scan.
+ * Money totals are LongAdders of minor units, so they never drift. Counts are
+ * arrays of adders indexed by the enum's stored code, the same value the
+ * seeding queries group by.
+ *
+ * Write paths report while they still hold the single write connection, and
+ * seeding takes that connection as well, so a reseed can neither miss nor double
+ * count a concurrent write. Reports that arrive before the first seed are simply
+ * dropped, since the seed will read them from the tables. Rare edits that would
+ * need the previous row to adjust precisely (full-row updates, deletes) just
+ * invalidate the registry and the next read reseeds it.
+ *
+ * @author Albert Fekadu Wari
+ */
+public class StatisticsRegistry {
+    private static final Logger LOGGER = Logger.getLogger(StatisticsRegistry.class.getName());
+
+    private static StatisticsRegistry instance;
+
+    private final DatabaseManager dbManager;
+    private volatile Tallies tallies = new Tallies();
+    private volatile boolean seeded;
+
+    private StatisticsRegistry() {
+        this.dbManager = DatabaseManager.getInstance();
+    }
+
+    public static synchronized StatisticsRegistry getInstance() {
+        if (instance == null) {
+            instance = new StatisticsRegistry();
+        }
+        return instance;
+    }
+
+    // ==================== WRITE PATH REPORTS ====================
+
+    public void customerAdded(CustomerStatus status, double creditScore) {
+        if (seeded) {
+            Tallies t = tallies;
+            t.customersByStatus.add(status, 1);
+            t.customerCreditScore.add(creditScore);
+        }
+    }
+
+    public void customerChanged(CustomerStatus fromStatus, CustomerStatus toStatus, double creditScoreDelta) {
+        if (seeded) {
+            Tallies t = tallies;
+            t.customersByStatus.move(fromStatus, toStatus);
+            t.customerCreditScore.add(creditScoreDelta);
+        }
+    }
+
+    public void accountAdded(AccountStatus status, AccountType accountType, long balance) {
+        if (seeded) {
+            Tallies t = tallies;
+            t.accountsByStatus.add(status, 1);
+            t.accountsByType.add(accountType, 1);
+            t.totalBalance.add(balance);
+        }
+    }
+
+    public void accountStatusChanged(AccountStatus from, AccountStatus to) {
+        if (seeded) {
+            tallies.accountsByStatus.move(from, to);
+        }
+    }
+
+    /**
+     * Net change to the sum of all account balances
+     */
+    public void balanceChanged(long delta) {
+        if (seeded && delta != 0) {
+            tallies.totalBalance.add(delta);
+        }
+    }
+
+    public void transactionRecorded(TransactionType transactionType, TransactionStatus status, long amount) {
+        if (seeded) {
+            Tallies t = tallies;
+            t.transactionsByStatus.add(status, 1);
+            t.transactionsByType.add(transactionType, 1);
+            t.transactionAmount.add(amount);
+        }
+    }
+
+    public void loanAdded(LoanStatus status, long loanAmount, long remainingBalance) {
+        if (seeded) {
+            Tallies t = tallies;
+            t.loansByStatus.add(status, 1);
+            t.loanAmount.add(loanAmount);
+            t.loanRemainingBalance.add(remainingBalance);
+        }
+    }
+
+    public void loanChanged(LoanStatus fromStatus, LoanStatus toStatus, long loanAmountDelta, long remainingBalanceDelta) {
+        if (seeded) {
+            Tallies t = tallies;
+            t.loansByStatus.move(fromStatus, toStatus);
+            t.loanAmount.add(loanAmountDelta);
+            t.loanRemainingBalance.add(remainingBalanceDelta);
+        }
+    }
+
+    /**
+     * Drop the current totals; the next read reseeds them from the database
+     */
+    public void invalidate() {
+        seeded = false;
+    }
+
+    public boolean isSeeded() {
+        return seeded;
+    }
+
+    // ==================== READS ====================
+
+    public CustomerDAO.CustomerStatistics getCustomerStatistics() throws SQLException {
+        Tallies t = current();
+        long total = t.customersByStatus.sum();
+        return new CustomerDAO.CustomerStatistics(total,
+            t.customersByStatus.count(CustomerStatus.ACTIVE),
+            t.customersByStatus.count(CustomerStatus.SUSPENDED),
+            t.customersByStatus.count(CustomerStatus.INACTIVE),
+            total > 0 ? t.customerCreditScore.sum() / total : 0.0);
+    }
+
+    public AccountDAO.AccountStatistics getAccountStatistics() throws SQLException {
+        Tallies t = current();
+        return new AccountDAO.AccountStatistics(t.accountsByStatus.sum(),
+            t.accountsByStatus.count(AccountStatus.ACTIVE),
+            t.accountsByType.count(AccountType.SAVINGS),
+            t.accountsByType.count(AccountType.CHECKING),
+            t.accountsByType.count(AccountType.FIXED_DEPOSIT),
+            t.totalBalance.sum());
+    }
+
+    public TransactionDAO.TransactionStatistics getTransactionStatistics() throws SQLException {
+        Tallies t = current();
+        return new TransactionDAO.TransactionStatistics(t.transactionsByStatus.sum(),
+            t.transactionsByStatus.count(TransactionStatus.COMPLETED),
+            t.transactionsByStatus.count(TransactionStatus.PENDING),
+            t.transactionsByStatus.count(TransactionStatus.FAILED),
+            t.transactionAmount.sum());
+    }
+
+    public LoanDAO.LoanStatistics getLoanStatistics() throws SQLException {
+        Tallies t = current();
+        return new LoanDAO.LoanStatistics(t.loansByStatus.sum(),
+            t.loansByStatus.count(LoanStatus.PENDING),
+            t.loansByStatus.count(LoanStatus.APPROVED),
+            t.loansByStatus.count(LoanStatus.ACTIVE),
+            t.loansByStatus.count(LoanStatus.COMPLETED),
+            t.loanAmount.sum(),
+            t.loanRemainingBalance.sum());
+    }
+
+    public long getTransactionCount(TransactionType transactionType) throws SQLException {
+        return current().transactionsByType.count(transactionType);
+    }
+
+    /**
+     * Rebuild every total from the tables. Holds the write connection for the
+     * duration, so it must not be called from inside a write path.
+     */
+    public void reload() throws SQLException {
+        Tallies fresh = new Tallies();
+        long start = System.nanoTime();
+
+        try (Connection conn = dbManager.getConnection();
+             Statement stmt = conn.createStatement()) {
+
+            try (ResultSet rs = stmt.executeQuery(
+                    "SELECT status, COUNT(*), SUM(credit_score) FROM customers GROUP BY status")) {
+                while (rs.next()) {
+                    fresh.customersByStatus.addCode(rs.getInt(1), rs.getLong(2));
+                    fresh.customerCreditScore.add(rs.getDouble(3));
+                }
+            }
+
+            try (ResultSet rs = stmt.executeQuery(
+                    "SELECT status, account_type, COUNT(*), SUM(balance) FROM accounts GROUP BY status, account_type")) {
+                while (rs.next()) {
+                    fresh.accountsByStatus.addCode(rs.getInt(1), rs.getLong(3));
+                    fresh.accountsByType.addCode(rs.getInt(2), rs.getLong(3));
+                    fresh.totalBalance.add(rs.getLong(4));
+                }
+            }
+
+            try (ResultSet rs = stmt.executeQuery(
+                    "SELECT status, transaction_type, COUNT(*), SUM(amount) FROM transactions " +
+                    "GROUP BY status, transaction_type")) {
+                while (rs.next()) {
+                    fresh.transactionsByStatus.addCode(rs.getInt(1), rs.getLong(3));
+                    fresh.transactionsByType.addCode(rs.getInt(2), rs.getLong(3));
+                    fresh.transactionAmount.add(rs.getLong(4));
+                }
+            }
+
+            try (ResultSet rs = stmt.executeQuery(
+                    "SELECT status, COUNT(*), SUM(loan_amount), SUM(remaining_balance) FROM loans GROUP BY status")) {
+                while (rs.next()) {
+                    fresh.loansByStatus.addCode(rs.getInt(1), rs.getLong(2));
+                    fresh.loanAmount.add(rs.getLong(3));
+                    fresh.loanRemainingBalance.add(rs.getLong(4));
+                }
+            }
+
+            // Publish while still holding the writer so no report can slip in between
+            tallies = fresh;
+            seeded = true;
+        }
+
+        LOGGER.info(String.format("Statistics registry seeded in %.1f ms", (System.nanoTime() - start) / 1e6));
+    }
+
+    private Tallies current() throws SQLException {
+        if (!seeded) {
+            synchronized (this) {
+                if (!seeded) {
+                    reload();
+                }
+            }
+        }
+        return tallies;
+    }
+
+    /**
+     * Row counts by enum code; slot 0 collects NULLs and codes this build does not know
+     */
+    private static final class Counts {
+        private final LongAdder[] adders;
+
+        Counts(Coded[] values) {
+            int max = 0;
+            for (Coded value : values) {
+                max = Math.max(max, value.getCode());
+            }
+            adders = new LongAdder[max + 1];
+            for (int i = 0; i < adders.length; i++) {
+                adders[i] = new LongAdder();
+            }
+        }
+
+        void add(Coded key, long by) {
+            addCode(key == null ? 0 : key.getCode(), by);
+        }
+
+        void addCode(int code, long by) {
+            adders[code > 0 && code < adders.length ? code : 0].add(by);
+        }
+
+        void move(Coded from, Coded to) {
+            if (from != to) {
+                add(from, -1);
+                add(to, 1);
+            }
+        }
+
+        long count(Coded key) {
+            return adders[key.getCode()].sum();
+        }
+
+        long sum() {
+            long total = 0;
+            for (LongAdder adder : adders) {
+                total += adder.sum();
+            }
+            return total;
+        }
+    }
+
+    /**
+     * One generation of totals; a reseed swaps in a new instance
+     */
+    private static final class Tallies {
+        private final Counts customersByStatus = new Counts(CustomerStatus.values());
+        private final DoubleAdder customerCreditScore = new DoubleAdder();
+        private final Counts accountsByStatus = new Counts(AccountStatus.values());
+        private final Counts accountsByType = new Counts(AccountType.values());
+        private final LongAdder totalBalance = new LongAdder();
+        private final Counts transactionsByStatus = new Counts(TransactionStatus.values());
+        private final Counts transactionsByType = new Counts(TransactionType.values());
+        private final LongAdder transactionAmount = new LongAdder();
+        private final Counts loansByStatus = new Counts(LoanStatus.values());
+        private final LongAdder loanAmount = new LongAdder();
+        private final LongAdder loanRemainingBalance = new LongAdder();
+    }
+}
@@ -3,140 +3,339 @@ package com.waribank.dao;
 import com.waribank.database.DatabaseManager;
 import com.waribank.model.Transaction;
 import com.waribank.model.Account;
+import com.waribank.model.AccountStatus;
+import com.waribank.model.Money;
+import com.waribank.model.TransactionStatus;
+import com.waribank.model.TransactionType;
 import com.waribank.exception.AccountNotFoundException;
+import com.waribank.exception.DataAccessException;
 import com.waribank.exception.InsufficientBalanceException;
 import com.waribank.exception.InvalidTransactionException;
 
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.OptionalLong;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 
 public class TransactionDAO {
     private static final Logger LOGGER = Logger.getLogger(TransactionDAO.class.getName());
+    private static final int BATCH_CHUNK_SIZE = 500;
+    private static final int MAX_PAGE_SIZE = 1_000;
+    private static final String INSERT_SQL = 
+        "INSERT INTO transactions (account_id, transaction_type, amount, description, " +
+        "transaction_date, status, reference_number, to_account_id, balance_after_transaction) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
     private final DatabaseManager dbManager;
     private final AccountDAO accountDAO;
+    private final TransferEngine transferEngine;
+    private final WithdrawalLimitTracker limitTracker;
+    private final StatisticsRegistry statistics;
     
     public TransactionDAO() {
         this.dbManager = DatabaseManager.getInstance();
         this.accountDAO = new AccountDAO();
+        this.transferEngine = new TransferEngine(accountDAO);
+        this.limitTracker = WithdrawalLimitTracker.getInstance();
+        this.statistics = StatisticsRegistry.getInstance();
     }
     
     public Transaction createTransaction(String accountNumber, Transaction transaction) throws SQLException, AccountNotFoundException, InsufficientBalanceException, InvalidTransactionException {
         Account account = accountDAO.findByAccountNumber(accountNumber);
         transaction.setAccountId(account.getAccountId());
         
-        // Validate transaction based on type
+        // Validate transaction based on type, then hold its share of the withdrawal limits
         validateTransaction(account, transaction);
+        limitTracker.reserve(account.getAccountId(), transaction,
+                             account.getDailyWithdrawalLimit(), account.getMonthlyWithdrawalLimit());
         
-        // Update account balance
-        updateAccountBalance(account, transaction);
+        // Post the balance change and the record in one transaction
+        boolean committed = false;
+        try (Connection conn = dbManager.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                updateAccountBalance(conn, account, transaction);
+                insertTransaction(conn, transaction);
+                conn.commit();
+                committed = true;
+                statistics.transactionRecorded(transaction.getTransactionType(), TransactionStatus.COMPLETED, transaction.getAmount());
+                statistics.balanceChanged(signedAmount(transaction));
+                accountDAO.refreshCached(conn, account.getAccountId());
+            } catch (SQLException | InsufficientBalanceException | InvalidTransactionException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            }
+        } finally {
+            if (!committed) {
+                limitTracker.release(account.getAccountId(), transaction);
+            }
+        }
         
-        // Save transaction
-        String sql = "INSERT INTO transactions (account_id, transaction_type, amount, description, " +
-                    "transaction_date, status, reference_number, to_account_id, balance_after_transaction) " +
-                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        transaction.markCompleted();
+        LOGGER.info("Transaction created with ID: " + transaction.getTransactionId());
+        return transaction;
+    }
+    
+    public Transaction createTransfer(String fromAccountNumber, String toAccountNumber, Transaction transaction) 
+            throws SQLException, AccountNotFoundException, InsufficientBalanceException, InvalidTransactionException {
+        return transferEngine.transfer(fromAccountNumber, toAccountNumber, transaction);
+    }
+    
+    public TransferEngine.TransferStatistics getTransferStatistics() {
+        return transferEngine.getStatistics();
+    }
+    
+    /**
+     * Post many deposits/withdrawals at once. Account numbers are resolved in bulk,
+     * balance deltas are netted per account, and rows are written with JDBC batches,
+     * committing once per chunk. Items fail individually; the result reports each one.
+     * If writing a chunk fails, it is rolled back and its items are posted one at a
+     * time, so a bad row fails only itself and not the rest of its chunk. Balance and
+     * limit rejections in the rolled-back chunk are retried too, since they counted
+     * earlier items that never committed.
+     */
+    public BatchResult createTransactions(List<PostingRequest> postings) throws SQLException {
+        BatchResult result = new BatchResult(postings);
+        ChunkLog log = new ChunkLog();
         
-        try (Connection conn = dbManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+        try (Connection conn = dbManager.getConnection()) {
+            conn.setAutoCommit(false);
             
-            pstmt.setInt(1, transaction.getAccountId());
-            pstmt.setString(2, transaction.getTransactionType());
-            pstmt.setDouble(3, transaction.getAmount());
-            pstmt.setString(4, transaction.getDescription());
-            pstmt.setTimestamp(5, Timestamp.valueOf(transaction.getTransactionDate()));
-            pstmt.setString(6, transaction.getStatus());
-            pstmt.setString(7, transaction.getReferenceNumber());
-            pstmt.setObject(8, transaction.getToAccountId());
-            pstmt.setDouble(9, transaction.getBalanceAfterTransaction());
-            
-            int affectedRows = pstmt.executeUpdate();
-            if (affectedRows == 0) {
-                throw new SQLException("Creating transaction failed, no rows affected.");
-            }
-            
-            try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
-                if (generatedKeys.next()) {
-                    transaction.setTransactionId(generatedKeys.getInt(1));
-                    transaction.markCompleted();
-                    LOGGER.info("Transaction created with ID: " + transaction.getTransactionId());
-                    return transaction;
-                } else {
-                    throw new SQLException("Creating transaction failed, no ID obtained.");
+            for (int from = 0; from < postings.size(); from += BATCH_CHUNK_SIZE) {
+                int to = Math.min(from + BATCH_CHUNK_SIZE, postings.size());
+                try {
+                    commitChunk(conn, postings, from, to, result, log);
+                } catch (SQLException e) {
+                    rollBackChunk(conn, log);
+                    if (to - from == 1) {
+                        result.fail(from, e);
+                        continue;
+                    }
+                    LOGGER.log(Level.WARNING, "Batch chunk " + from + "-" + to + " rolled back, posting its items singly", e);
+                    Set<Integer> contingent = new HashSet<>(log.contingent);
+                    for (int i = from; i < to; i++) {
+                        if (contingent.contains(i)) {
+                            result.clear(i);
+                        } else if (!result.isSuccess(i)) {
+                            continue;
+                        }
+                        try {
+                            commitChunk(conn, postings, i, i + 1, result, log);
+                        } catch (SQLException itemError) {
+                            rollBackChunk(conn, log);
+                            result.fail(i, itemError);
+                        }
+                    }
                 }
             }
         }
+        
+        for (int i = 0; i < postings.size(); i++) {
+            if (result.isSuccess(i)) {
+                postings.get(i).getTransaction().markCompleted();
+            }
+        }
+        LOGGER.info("Batch posted: " + result.getSucceeded() + " succeeded, " + result.getFailed() + " failed");
+        return result;
     }
     
-    public Transaction createTransfer(String fromAccountNumber, String toAccountNumber, Transaction transaction) 
-            throws SQLException, AccountNotFoundException, InsufficientBalanceException, InvalidTransactionException {
+    private void commitChunk(Connection conn, List<PostingRequest> postings, int from, int to, BatchResult result,
+                             ChunkLog log) throws SQLException {
+        log.clear();
+        long netDelta = postChunk(conn, postings, from, to, result, log);
+        conn.commit();
+        log.clear();
+        recordPosted(postings, from, to, result, netDelta);
+        refreshPostedAccounts(conn, postings, from, to, result);
+    }
+    
+    /**
+     * Undo a chunk that did not commit and release the limit reservations it made
+     */
+    private void rollBackChunk(Connection conn, ChunkLog log) throws SQLException {
+        conn.rollback();
+        for (Transaction transaction : log.reserved) {
+            limitTracker.release(transaction.getAccountId(), transaction);
+        }
+        log.reserved.clear();
+    }
+    
+    /**
+     * Validate and write one chunk; returns its net change to account balances
+     */
+    private long postChunk(Connection conn, List<PostingRequest> postings, int from, int to, BatchResult result,
+                           ChunkLog log) throws SQLException {
+        Map<String, BalanceState> accounts = resolveAccounts(conn, postings, from, to);
+        Map<Integer, BalanceState> touched = new LinkedHashMap<>();
+        List<Transaction> accepted = new ArrayList<>();
         
-        Account fromAccount = accountDAO.findByAccountNumber(fromAccountNumber);
-        Account toAccount = accountDAO.findByAccountNumber(toAccountNumber);
+        // Validate against running balances so later items see earlier ones in the chunk
+        for (int i = from; i < to; i++) {
+            PostingRequest posting = postings.get(i);
+            Transaction transaction = posting.getTransaction();
+            boolean againstChunk = false;
+            try {
+                BalanceState state = accounts.get(posting.getAccountNumber());
+                if (state == null) {
+                    throw AccountNotFoundException.stackless("Account not found", posting.getAccountNumber());
+                }
+                if (!state.active) {
+                    throw new InvalidTransactionException("Account is not active", transaction.getTransactionType(), transaction.getAmount());
+                }
+                if (transaction.getAmount() <= 0) {
+                    throw new InvalidTransactionException("Transaction amount must be greater than zero", 
+                                                       transaction.getTransactionType(), transaction.getAmount());
+                }
+                // From here on the outcome depends on the items before this one in the chunk
+                againstChunk = true;
+                long delta = signedAmount(transaction);
+                if (delta < 0 && state.balance + delta < 0) {
+                    throw new InsufficientBalanceException("Insufficient balance", transaction.getAmount(), state.balance);
+                }
+                limitTracker.reserve(state.accountId, transaction, state.dailyLimit, state.monthlyLimit);
+                log.reserved.add(transaction);
+                
+                state.balance = Money.add(state.balance, delta);
+                state.netDelta = Money.add(state.netDelta, delta);
+                touched.put(state.accountId, state);
+                
+                transaction.setAccountId(state.accountId);
+                transaction.setBalanceAfterTransaction(state.balance);
+                accepted.add(transaction);
+            } catch (AccountNotFoundException | InvalidTransactionException | InsufficientBalanceException e) {
+                result.fail(i, e);
+                if (againstChunk) {
+                    log.contingent.add(i);
+                }
+            }
+        }
         
-        transaction.setAccountId(fromAccount.getAccountId());
-        transaction.setToAccountId(toAccount.getAccountId());
+        if (accepted.isEmpty()) {
+            return 0;
+        }
         
-        // Validate transfer
-        if (!fromAccount.isActive() || !toAccount.isActive()) {
-            throw new InvalidTransactionException("One or both accounts are not active");
+        String updateSql = "UPDATE accounts SET balance = balance + ?, last_transaction_date = ? WHERE account_id = ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(updateSql)) {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            for (BalanceState state : touched.values()) {
+                pstmt.setLong(1, state.netDelta);
+                pstmt.setTimestamp(2, now);
+                pstmt.setInt(3, state.accountId);
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
         }
         
-        if (!fromAccount.hasSufficientBalance(transaction.getAmount())) {
-            throw new InsufficientBalanceException("Insufficient balance for transfer", 
-                                                 transaction.getAmount(), fromAccount.getBalance());
+        try (PreparedStatement pstmt = conn.prepareStatement(INSERT_SQL)) {
+            for (Transaction transaction : accepted) {
+                bindInsert(pstmt, transaction);
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
         }
         
-        // Update both account balances
-        fromAccount.withdraw(transaction.getAmount());
-        toAccount.deposit(transaction.getAmount());
+        // The chunk holds the write lock, so its AUTOINCREMENT ids are contiguous
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT last_insert_rowid()")) {
+            rs.next();
+            int id = rs.getInt(1) - accepted.size() + 1;
+            for (Transaction transaction : accepted) {
+                transaction.setTransactionId(id++);
+            }
+        }
         
-        accountDAO.updateAccount(fromAccount);
-        accountDAO.updateAccount(toAccount);
+        long netDelta = 0;
+        for (BalanceState state : touched.values()) {
+            netDelta = Money.add(netDelta, state.netDelta);
+        }
+        return netDelta;
+    }
+    
+    /**
+     * Report a committed chunk to the statistics registry
+     */
+    private void recordPosted(List<PostingRequest> postings, int from, int to, BatchResult result, long netDelta) {
+        for (int i = from; i < to; i++) {
+            if (result.isSuccess(i)) {
+                Transaction transaction = postings.get(i).getTransaction();
+                statistics.transactionRecorded(transaction.getTransactionType(), TransactionStatus.COMPLETED, transaction.getAmount());
+            }
+        }
+        statistics.balanceChanged(netDelta);
+    }
+    
+    /**
+     * Bring cached copies of the accounts a committed chunk touched up to date
+     */
+    private void refreshPostedAccounts(Connection conn, List<PostingRequest> postings, int from, int to, 
+                                       BatchResult result) {
+        Set<Integer> accountIds = new LinkedHashSet<>();
+        for (int i = from; i < to; i++) {
+            if (result.isSuccess(i)) {
+                accountIds.add(postings.get(i).getTransaction().getAccountId());
+            }
+        }
+        for (int accountId : accountIds) {
+            accountDAO.refreshCached(conn, accountId);
+        }
+    }
+    
+    private Map<String, BalanceState> resolveAccounts(Connection conn, List<PostingRequest> postings, int from, int to) 
+            throws SQLException {
+        Set<String> numbers = new LinkedHashSet<>();
+        for (int i = from; i < to; i++) {
+            String number = postings.get(i).getAccountNumber();
+            // Numbers failing their check digit can't exist; they surface as not found
+            if (AccountNumberAllocator.isPlausible(number)) {
+                numbers.add(number);
+            }
+        }
+        Map<String, BalanceState> accounts = new HashMap<>();
+        if (numbers.isEmpty()) {
+            return accounts;
+        }
         
-        // Save transaction
-        String sql = "INSERT INTO transactions (account_id, transaction_type, amount, description, " +
-                    "transaction_date, status, reference_number, to_account_id, balance_after_transaction) " +
-                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        String placeholders = String.join(", ", Collections.nCopies(numbers.size(), "?"));
+        String sql = "SELECT account_id, account_number, status, balance, daily_withdrawal_limit, " +
+                    "monthly_withdrawal_limit FROM accounts " +
+                    "WHERE account_number IN (" + placeholders + ")";
         
-        try (Connection conn = dbManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            
-            pstmt.setInt(1, transaction.getAccountId());
-            pstmt.setString(2, transaction.getTransactionType());
-            pstmt.setDouble(3, transaction.getAmount());
-            pstmt.setString(4, transaction.getDescription());
-            pstmt.setTimestamp(5, Timestamp.valueOf(transaction.getTransactionDate()));
-            pstmt.setString(6, transaction.getStatus());
-            pstmt.setString(7, transaction.getReferenceNumber());
-            pstmt.setInt(8, transaction.getToAccountId());
-            pstmt.setDouble(9, fromAccount.getBalance());
-            
-            int affectedRows = pstmt.executeUpdate();
-            if (affectedRows == 0) {
-                throw new SQLException("Creating transfer transaction failed, no rows affected.");
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            int index = 1;
+            for (String number : numbers) {
+                pstmt.setString(index++, number);
             }
             
-            try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
-                if (generatedKeys.next()) {
-                    transaction.setTransactionId(generatedKeys.getInt(1));
-                    transaction.setBalanceAfterTransaction(fromAccount.getBalance());
-                    transaction.markCompleted();
-                    LOGGER.info("Transfer transaction created with ID: " + transaction.getTransactionId());
-                    return transaction;
-                } else {
-                    throw new SQLException("Creating transfer transaction failed, no ID obtained.");
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    accounts.put(rs.getString("account_number"), new BalanceState(
+                        rs.getInt("account_id"), rs.getInt("status") == AccountStatus.ACTIVE.getCode(), rs.getLong("balance"),
+                        rs.getLong("daily_withdrawal_limit"), rs.getLong("monthly_withdrawal_limit")));
                 }
             }
         }
+        
+        return accounts;
     }
     
     public Transaction findById(int transactionId) throws SQLException {
         String sql = "SELECT * FROM transactions WHERE transaction_id = ?";
         
-        try (Connection conn = dbManager.getConnection();
+        try (Connection conn = dbManager.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setInt(1, transactionId);
@@ -160,7 +359,7 @@ public class TransactionDAO {
         String sql = "SELECT * FROM transactions WHERE account_id = ? ORDER BY transaction_date DESC";
         List<Transaction> transactions = new ArrayList<>();
         
-        try (Connection conn = dbManager.getConnection();
+        try (Connection conn = dbManager.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setInt(1, accountId);
@@ -175,11 +374,99 @@ public class TransactionDAO {
         return transactions;
     }
     
+    /**
+     * One page of an account's history, newest first, starting after the cursor
+     * (or at the newest transaction when the cursor is null). Seeks through the
+     * (account_id, transaction_date) index, so the cost does not grow with depth.
+     */
+    public TransactionPage findPageByAccountId(int accountId, PageCursor after, int pageSize) throws SQLException {
+        if (pageSize <= 0 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        String sql = after == null
+            ? "SELECT * FROM transactions WHERE account_id = ? " +
+              "ORDER BY transaction_date DESC, transaction_id DESC LIMIT ?"
+            : "SELECT * FROM transactions WHERE account_id = ? AND (transaction_date, transaction_id) < (?, ?) " +
+              "ORDER BY transaction_date DESC, transaction_id DESC LIMIT ?";
+        List<Transaction> transactions = new ArrayList<>(pageSize);
+        
+        try (Connection conn = dbManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            int index = 1;
+            pstmt.setInt(index++, accountId);
+            if (after != null) {
+                pstmt.setTimestamp(index++, Timestamp.valueOf(after.getTransactionDate()));
+                pstmt.setInt(index++, after.getTransactionId());
+            }
+            // One extra row tells us whether another page exists
+            pstmt.setInt(index, pageSize + 1);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    transactions.add(mapResultSetToTransaction(rs));
+                }
+            }
+        }
+        
+        PageCursor next = null;
+        if (transactions.size() > pageSize) {
+            transactions.remove(pageSize);
+            Transaction last = transactions.get(pageSize - 1);
+            next = new PageCursor(last.getTransactionDate(), last.getTransactionId());
+        }
+        return new TransactionPage(transactions, next);
+    }
+    
+    public TransactionPage findPageByAccountNumber(String accountNumber, PageCursor after, int pageSize) 
+            throws SQLException, AccountNotFoundException {
+        Account account = accountDAO.findByAccountNumber(accountNumber);
+        return findPageByAccountId(account.getAccountId(), after, pageSize);
+    }
+    
+    /**
+     * Lazily stream an account's whole history, newest first, fetching one keyset page at a time.
+     * No connection is held between pages. SQL errors surface as DataAccessException.
+     */
+    public Stream<Transaction> streamByAccountId(int accountId, int pageSize) {
+        Spliterator<Transaction> pages = new Spliterators.AbstractSpliterator<Transaction>(
+                Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            private List<Transaction> page = Collections.emptyList();
+            private int position;
+            private PageCursor cursor;
+            private boolean exhausted;
+            
+            @Override
+            public boolean tryAdvance(Consumer<? super Transaction> action) {
+                if (position == page.size()) {
+                    if (exhausted) {
+                        return false;
+                    }
+                    try {
+                        TransactionPage next = findPageByAccountId(accountId, cursor, pageSize);
+                        page = next.getTransactions();
+                        position = 0;
+                        cursor = next.getNextCursor();
+                        exhausted = cursor == null;
+                    } catch (SQLException e) {
+                        throw new DataAccessException("Failed to read transaction history", e);
+                    }
+                    if (page.isEmpty()) {
+                        return false;
+                    }
+                }
+                action.accept(page.get(position++));
+                return true;
+            }
+        };
+        return StreamSupport.stream(pages, false);
+    }
+    
     public List<Transaction> findAll() throws SQLException {
         String sql = "SELECT * FROM transactions ORDER BY transaction_date DESC";
         List<Transaction> transactions = new ArrayList<>();
         
-        try (Connection conn = dbManager.getConnection();
+        try (Connection conn = dbManager.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql);
              ResultSet rs = pstmt.executeQuery()) {
             
@@ -191,11 +478,30 @@ public class TransactionDAO {
         return transactions;
     }
     
+    /**
+     * Stream all transactions in transaction_id order, mapping rows lazily as they are consumed.
+     * The stream holds a read connection until it is closed.
+     */
+    public Stream<Transaction> streamAll(int fetchSize) throws SQLException {
+        return ResultSetStream.open(dbManager, "SELECT * FROM transactions ORDER BY transaction_id", fetchSize, this::mapResultSetToTransaction);
+    }
+    
+    public Stream<Transaction> streamAll() throws SQLException {
+        return streamAll(ResultSetStream.DEFAULT_FETCH_SIZE);
+    }
+    
+    /**
+     * Pass every transaction to a callback in transaction_id order; returns the number of rows read
+     */
+    public long forEach(int fetchSize, Consumer<? super Transaction> action) throws SQLException {
+        return ResultSetStream.forEach(dbManager, "SELECT * FROM transactions ORDER BY transaction_id", fetchSize, this::mapResultSetToTransaction, action);
+    }
+    
     public List<Transaction> findCompletedTransactions() throws SQLException {
-        String sql = "SELECT * FROM transactions WHERE status = 'COMPLETED' ORDER BY transaction_date DESC";
+        String sql = "SELECT * FROM transactions WHERE status = " + TransactionStatus.COMPLETED.getCode() + " ORDER BY transaction_date DESC";
         List<Transaction> transactions = new ArrayList<>();
         
-        try (Connection conn = dbManager.getConnection();
+        try (Connection conn = dbManager.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql);
              ResultSet rs = pstmt.executeQuery()) {
             
@@ -217,18 +523,21 @@ public class TransactionDAO {
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setInt(1, transaction.getAccountId());
-            pstmt.setString(2, transaction.getTransactionType());
-            pstmt.setDouble(3, transaction.getAmount());
+            pstmt.setInt(2, transaction.getTransactionType().getCode());
+            pstmt.setLong(3, transaction.getAmount());
             pstmt.setString(4, transaction.getDescription());
             pstmt.setTimestamp(5, Timestamp.valueOf(transaction.getTransactionDate()));
-            pstmt.setString(6, transaction.getStatus());
+            pstmt.setInt(6, transaction.getStatus().getCode());
             pstmt.setString(7, transaction.getReferenceNumber());
             pstmt.setObject(8, transaction.getToAccountId());
-            pstmt.setDouble(9, transaction.getBalanceAfterTransaction());
+            pstmt.setLong(9, transaction.getBalanceAfterTransaction());
             pstmt.setInt(10, transaction.getTransactionId());
             
             int affectedRows = pstmt.executeUpdate();
             LOGGER.info("Transaction updated. Rows affected: " + affectedRows);
+            if (affectedRows > 0) {
+                statistics.invalidate();
+            }
             return affectedRows > 0;
         }
     }
@@ -243,6 +552,9 @@ public class TransactionDAO {
             
             int affectedRows = pstmt.executeUpdate();
             LOGGER.info("Transaction deleted. Rows affected: " + affectedRows);
+            if (affectedRows > 0) {
+                statistics.invalidate();
+            }
             return affectedRows > 0;
         }
     }
@@ -252,7 +564,8 @@ public class TransactionDAO {
             throw new InvalidTransactionException("Account is not active", transaction.getTransactionType(), transaction.getAmount());
         }
         
-        if ("WITHDRAWAL".equals(transaction.getTransactionType()) || "TRANSFER".equals(transaction.getTransactionType())) {
+        if (transaction.getTransactionType() == TransactionType.WITHDRAWAL ||
+            transaction.getTransactionType() == TransactionType.TRANSFER) {
             if (!account.hasSufficientBalance(transaction.getAmount())) {
                 throw new InsufficientBalanceException("Insufficient balance", transaction.getAmount(), account.getBalance());
             }
@@ -264,42 +577,115 @@ public class TransactionDAO {
         }
     }
     
-    private void updateAccountBalance(Account account, Transaction transaction) throws SQLException, InvalidTransactionException {
-        double newBalance = account.getBalance();
+    private void updateAccountBalance(Connection conn, Account account, Transaction transaction) 
+            throws SQLException, InsufficientBalanceException, InvalidTransactionException {
+        long delta = signedAmount(transaction);
+        
+        OptionalLong newBalance = delta < 0
+            ? accountDAO.applyDelta(conn, account.getAccountId(), delta, 0)
+            : accountDAO.applyDelta(conn, account.getAccountId(), delta);
         
+        if (newBalance.isEmpty()) {
+            if (delta < 0) {
+                throw new InsufficientBalanceException("Insufficient balance", transaction.getAmount(), account.getBalance());
+            }
+            throw new InvalidTransactionException("Account is not active", transaction.getTransactionType(), transaction.getAmount());
+        }
+        
+        account.setBalance(newBalance.getAsLong());
+        account.setLastTransactionDate(LocalDateTime.now());
+        transaction.setBalanceAfterTransaction(newBalance.getAsLong());
+    }
+    
+    /**
+     * Balance effect of a single-account transaction: credits are positive, debits negative
+     */
+    private long signedAmount(Transaction transaction) throws InvalidTransactionException {
         switch (transaction.getTransactionType()) {
-            case "DEPOSIT":
-                newBalance += transaction.getAmount();
-                break;
-            case "WITHDRAWAL":
-                newBalance -= transaction.getAmount();
-                break;
-            case "LOAN_DISBURSEMENT":
-                newBalance += transaction.getAmount();
-                break;
-            case "LOAN_REPAYMENT":
-                newBalance -= transaction.getAmount();
-                break;
+            case DEPOSIT:
+            case LOAN_DISBURSEMENT:
+                return transaction.getAmount();
+            case WITHDRAWAL:
+            case LOAN_REPAYMENT:
+                return -transaction.getAmount();
             default:
                 throw new InvalidTransactionException("Invalid transaction type: " + transaction.getTransactionType());
         }
+    }
+    
+    private void insertTransaction(Connection conn, Transaction transaction) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+            bindInsert(pstmt, transaction);
+            
+            int affectedRows = pstmt.executeUpdate();
+            if (affectedRows == 0) {
+                throw new SQLException("Creating transaction failed, no rows affected.");
+            }
+            
+            try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                if (generatedKeys.next()) {
+                    transaction.setTransactionId(generatedKeys.getInt(1));
+                } else {
+                    throw new SQLException("Creating transaction failed, no ID obtained.");
+                }
+            }
+        }
+    }
+    
+    /**
+     * Get transaction statistics in a single aggregate query
+     */
+    public TransactionStatistics getTransactionStatistics() throws SQLException {
+        String sql = """
+            SELECT
+                COUNT(*) as total_transactions,
+                SUM(CASE WHEN status = %d THEN 1 ELSE 0 END) as completed_transactions,
+                SUM(CASE WHEN status = %d THEN 1 ELSE 0 END) as pending_transactions,
+                SUM(CASE WHEN status = %d THEN 1 ELSE 0 END) as failed_transactions,
+                SUM(amount) as total_amount
+            FROM transactions
+        """.formatted(TransactionStatus.COMPLETED.getCode(), TransactionStatus.PENDING.getCode(),
+                      TransactionStatus.FAILED.getCode());
         
-        account.setBalance(newBalance);
-        account.setLastTransactionDate(LocalDateTime.now());
-        accountDAO.updateAccount(account);
-        
-        transaction.setBalanceAfterTransaction(newBalance);
+        try (Connection conn = dbManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+            
+            if (rs.next()) {
+                return new TransactionStatistics(
+                    rs.getLong("total_transactions"),
+                    rs.getLong("completed_transactions"),
+                    rs.getLong("pending_transactions"),
+                    rs.getLong("failed_transactions"),
+                    rs.getLong("total_amount")
+                );
+            }
+            
+            return new TransactionStatistics(0, 0, 0, 0, 0);
+        }
+    }
+    
+    private void bindInsert(PreparedStatement pstmt, Transaction transaction) throws SQLException {
+        pstmt.setInt(1, transaction.getAccountId());
+        pstmt.setInt(2, transaction.getTransactionType().getCode());
+        pstmt.setLong(3, transaction.getAmount());
+        pstmt.setString(4, transaction.getDescription());
+        pstmt.setTimestamp(5, Timestamp.valueOf(transaction.getTransactionDate()));
+        pstmt.setInt(6, TransactionStatus.COMPLETED.getCode());
+        pstmt.setString(7, transaction.getReferenceNumber());
+        pstmt.setObject(8, transaction.getToAccountId());
+        pstmt.setLong(9, transaction.getBalanceAfterTransaction());
     }
     
     private Transaction mapResultSetToTransaction(ResultSet rs) throws SQLException {
         Transaction transaction = new Transaction();
         transaction.setTransactionId(rs.getInt("transaction_id"));
         transaction.setAccountId(rs.getInt("account_id"));
-        transaction.setTransactionType(rs.getString("transaction_type"));
-        transaction.setAmount(rs.getDouble("amount"));
+        transaction.setTransactionType(TransactionType.fromCode(rs.getInt("transaction_type")));
+        transaction.setAmount(rs.getLong("amount"));
         transaction.setDescription(rs.getString("description"));
         transaction.setTransactionDate(rs.getTimestamp("transaction_date").toLocalDateTime());
-        transaction.setStatus(rs.getString("status"));
+        transaction.setStatus(TransactionStatus.fromCode(rs.getInt("status")));
         transaction.setReferenceNumber(rs.getString("reference_number"));
         
         int toAccountId = rs.getInt("to_account_id");
@@ -309,7 +695,153 @@ public class TransactionDAO {
             transaction.setToAccountId(toAccountId);
         }
         
-        transaction.setBalanceAfterTransaction(rs.getDouble("balance_after_transaction"));
+        transaction.setBalanceAfterTransaction(rs.getLong("balance_after_transaction"));
         return transaction;
     }
+    
+    /**
+     * What an uncommitted chunk did: limit reservations to release if it rolls back,
+     * and the items it rejected on running balances or limits, to retry if it does
+     */
+    private static class ChunkLog {
+        private final List<Transaction> reserved = new ArrayList<>();
+        private final List<Integer> contingent = new ArrayList<>();
+        
+        void clear() {
+            reserved.clear();
+            contingent.clear();
+        }
+    }
+    
+    /**
+     * Running balance of one account while a batch chunk is validated
+     */
+    private static class BalanceState {
+        private final int accountId;
+        private final boolean active;
+        private final long dailyLimit;
+        private final long monthlyLimit;
+        private long balance;
+        private long netDelta;
+        
+        BalanceState(int accountId, boolean active, long balance, long dailyLimit, long monthlyLimit) {
+            this.accountId = accountId;
+            this.active = active;
+            this.balance = balance;
+            this.dailyLimit = dailyLimit;
+            this.monthlyLimit = monthlyLimit;
+        }
+    }
+    
+    /**
+     * Position after the last row of a page: its date and, to break ties, its id
+     */
+    public static class PageCursor {
+        private final LocalDateTime transactionDate;
+        private final int transactionId;
+        
+        public PageCursor(LocalDateTime transactionDate, int transactionId) {
+            this.transactionDate = transactionDate;
+            this.transactionId = transactionId;
+        }
+        
+        public LocalDateTime getTransactionDate() { return transactionDate; }
+        public int getTransactionId() { return transactionId; }
+    }
+    
+    /**
+     * Inner class for one page of transaction history
+     */
+    public static class TransactionPage {
+        private final List<Transaction> transactions;
+        private final PageCursor nextCursor;
+        
+        public TransactionPage(List<Transaction> transactions, PageCursor nextCursor) {
+            this.transactions = transactions;
+            this.nextCursor = nextCursor;
+        }
+        
+        public List<Transaction> getTransactions() { return transactions; }
+        public PageCursor getNextCursor() { return nextCursor; }
+        public boolean hasNext() { return nextCursor != null; }
+    }
+    
+    /**
+     * Inner class for one deposit/withdrawal submitted in a batch
+     */
+    public static class PostingRequest {
+        private final String accountNumber;
+        private final Transaction transaction;
+        
+        public PostingRequest(String accountNumber, Transaction transaction) {
+            this.accountNumber = accountNumber;
+            this.transaction = transaction;
+        }
+        
+        // Getters
+        public String getAccountNumber() { return accountNumber; }
+        public Transaction getTransaction() { return transaction; }
+    }
+    
+    /**
+     * Inner class for per-item batch outcomes
+     */
+    public static class BatchResult {
+        private final List<PostingRequest> postings;
+        private final Exception[] errors;
+        private int failed;
+        
+        public BatchResult(List<PostingRequest> postings) {
+            this.postings = postings;
+            this.errors = new Exception[postings.size()];
+        }
+        
+        void fail(int index, Exception error) {
+            if (errors[index] == null) {
+                errors[index] = error;
+                failed++;
+            }
+        }
+        
+        void clear(int index) {
+            if (errors[index] != null) {
+                errors[index] = null;
+                failed--;
+            }
+        }
+        
+        public int size() { return errors.length; }
+        public boolean isSuccess(int index) { return errors[index] == null; }
+        public Exception getError(int index) { return errors[index]; }
+        public Transaction getTransaction(int index) { return postings.get(index).getTransaction(); }
+        public int getSucceeded() { return errors.length - failed; }
+        public int getFailed() { return failed; }
+    }
+    
+    /**
+     * Inner class for transaction statistics
+     */
+    public static class TransactionStatistics {
+        private final long totalTransactions;
+        private final long completedTransactions;
+        private final long pendingTransactions;
+        private final long failedTransactions;
+        private final long totalAmount;
+        
+        public TransactionStatistics(long totalTransactions, long completedTransactions,
+                                     long pendingTransactions, long failedTransactions, long totalAmount) {
+            this.totalTransactions = totalTransactions;
+            this.completedTransactions = completedTransactions;
+            this.pendingTransactions = pendingTransactions;
+            this.failedTransactions = failedTransactions;
+            this.totalAmount = totalAmount;
+        }
+        
+        // Getters
+        public long getTotalTransactions() { return totalTransactions; }
+        public long getCompletedTransactions() { return completedTransactions; }
+        public long getPendingTransactions() { return pendingTransactions; }
+        public long getFailedTransactions() { return failedTransactions; }
+        public long getTotalAmount() { return totalAmount; }
+    }
 } 
\ No newline at end of file
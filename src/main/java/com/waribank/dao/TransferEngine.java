@@ -0,0 +1,283 @@
+package com.waribank.dao;
+
+import com.waribank.database.DatabaseManager;
+import com.waribank.model.AccountStatus;
+import com.waribank.model.Transaction;
+import com.waribank.model.TransactionStatus;
+import com.waribank.exception.AccountNotFoundException;
+import com.waribank.exception.InsufficientBalanceException;
+import com.waribank.exception.InvalidTransactionException;
+
+import java.sql.*;
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Executes account-to-account transfers atomically.
+ *
+ * The debit, the credit and the transaction record are written on one
+ * connection inside one JDBC transaction, so a transfer costs a single commit
+ * and either fully happens or not at all. Balances are changed with guarded
+ * delta updates ({@link AccountDAO#applyDelta}) rather than read-modify-write,
+ * and the whole unit is retried when SQLite reports the database as busy.
+ *
+ * @author Albert Fekadu Wari
+ */
+public class TransferEngine {
+    private static final Logger LOGGER = Logger.getLogger(TransferEngine.class.getName());
+    private static final int MAX_ATTEMPTS = 5;
+    private static final long BACKOFF_BASE_MS = 10;
+
+    // SQLite primary result codes for lock contention
+    private static final int SQLITE_BUSY = 5;
+    private static final int SQLITE_LOCKED = 6;
+
+    private static final String FIND_ACCOUNTS_SQL =
+        "SELECT account_id, account_number, status, balance, daily_withdrawal_limit, monthly_withdrawal_limit " +
+        "FROM accounts WHERE account_number IN (?, ?)";
+    private static final String INSERT_SQL =
+        "INSERT INTO transactions (account_id, transaction_type, amount, description, " +
+        "transaction_date, status, reference_number, to_account_id, balance_after_transaction) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final DatabaseManager dbManager;
+    private final AccountDAO accountDAO;
+    private final WithdrawalLimitTracker limitTracker;
+    private final StatisticsRegistry statistics;
+
+    // Metrics
+    private final AtomicLong attempted = new AtomicLong();
+    private final AtomicLong committed = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong contentionEvents = new AtomicLong();
+    private final AtomicLong insufficientFunds = new AtomicLong();
+    private final AtomicLong limitBreaches = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public TransferEngine(AccountDAO accountDAO) {
+        this.dbManager = DatabaseManager.getInstance();
+        this.accountDAO = accountDAO;
+        this.limitTracker = WithdrawalLimitTracker.getInstance();
+        this.statistics = StatisticsRegistry.getInstance();
+    }
+
+    /**
+     * Move the transaction amount between two accounts in a single database transaction
+     */
+    public Transaction transfer(String fromAccountNumber, String toAccountNumber, Transaction transaction)
+            throws SQLException, AccountNotFoundException, InsufficientBalanceException, InvalidTransactionException {
+
+        if (transaction.getAmount() <= 0) {
+            rejected.incrementAndGet();
+            throw new InvalidTransactionException("Transfer amount must be greater than zero",
+                                                  transaction.getTransactionType(), transaction.getAmount());
+        }
+        if (fromAccountNumber.equals(toAccountNumber)) {
+            rejected.incrementAndGet();
+            throw new InvalidTransactionException("Cannot transfer to the same account");
+        }
+        if (!AccountNumberAllocator.isPlausible(fromAccountNumber)) {
+            throw AccountNotFoundException.stackless("Invalid account number", fromAccountNumber);
+        }
+        if (!AccountNumberAllocator.isPlausible(toAccountNumber)) {
+            throw AccountNotFoundException.stackless("Invalid account number", toAccountNumber);
+        }
+
+        attempted.incrementAndGet();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                Transaction result = attemptTransfer(fromAccountNumber, toAccountNumber, transaction);
+                committed.incrementAndGet();
+                return result;
+            } catch (SQLException e) {
+                if (!isContention(e) || attempt >= MAX_ATTEMPTS) {
+                    throw e;
+                }
+                contentionEvents.incrementAndGet();
+                retries.incrementAndGet();
+                LOGGER.fine("Transfer hit lock contention, retrying (attempt " + attempt + ")");
+                backoff(attempt);
+            }
+        }
+    }
+
+    private Transaction attemptTransfer(String fromAccountNumber, String toAccountNumber, Transaction transaction)
+            throws SQLException, AccountNotFoundException, InsufficientBalanceException, InvalidTransactionException {
+
+        int fromAccountId = 0;
+        boolean reserved = false;
+        boolean committed = false;
+
+        try (Connection conn = dbManager.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                int toAccountId = 0;
+                long fromBalance = 0;
+                long dailyLimit = 0;
+                long monthlyLimit = 0;
+
+                try (PreparedStatement pstmt = conn.prepareStatement(FIND_ACCOUNTS_SQL)) {
+                    pstmt.setString(1, fromAccountNumber);
+                    pstmt.setString(2, toAccountNumber);
+
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            boolean active = rs.getInt("status") == AccountStatus.ACTIVE.getCode();
+                            if (fromAccountNumber.equals(rs.getString("account_number"))) {
+                                fromAccountId = rs.getInt("account_id");
+                                fromBalance = rs.getLong("balance");
+                                dailyLimit = rs.getLong("daily_withdrawal_limit");
+                                monthlyLimit = rs.getLong("monthly_withdrawal_limit");
+                            } else {
+                                toAccountId = rs.getInt("account_id");
+                            }
+                            if (!active) {
+                                rejected.incrementAndGet();
+                                throw new InvalidTransactionException("One or both accounts are not active");
+                            }
+                        }
+                    }
+                }
+
+                if (fromAccountId == 0) {
+                    throw AccountNotFoundException.stackless("Account not found", fromAccountNumber);
+                }
+                if (toAccountId == 0) {
+                    throw AccountNotFoundException.stackless("Account not found", toAccountNumber);
+                }
+
+                long amount = transaction.getAmount();
+
+                try {
+                    limitTracker.reserve(fromAccountId, transaction, dailyLimit, monthlyLimit);
+                    reserved = true;
+                } catch (InvalidTransactionException e) {
+                    limitBreaches.incrementAndGet();
+                    throw e;
+                }
+
+                OptionalLong debited = accountDAO.applyDelta(conn, fromAccountId, -amount, 0);
+                if (debited.isEmpty()) {
+                    insufficientFunds.incrementAndGet();
+                    throw new InsufficientBalanceException("Insufficient balance for transfer", amount, fromBalance);
+                }
+                long balanceAfter = debited.getAsLong();
+
+                if (accountDAO.applyDelta(conn, toAccountId, amount).isEmpty()) {
+                    rejected.incrementAndGet();
+                    throw new InvalidTransactionException("One or both accounts are not active");
+                }
+
+                int transactionId;
+                try (PreparedStatement insert = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                    insert.setInt(1, fromAccountId);
+                    insert.setInt(2, transaction.getTransactionType().getCode());
+                    insert.setLong(3, amount);
+                    insert.setString(4, transaction.getDescription());
+                    insert.setTimestamp(5, Timestamp.valueOf(transaction.getTransactionDate()));
+                    insert.setInt(6, TransactionStatus.COMPLETED.getCode());
+                    insert.setString(7, transaction.getReferenceNumber());
+                    insert.setInt(8, toAccountId);
+                    insert.setLong(9, balanceAfter);
+
+                    if (insert.executeUpdate() == 0) {
+                        throw new SQLException("Creating transfer transaction failed, no rows affected.");
+                    }
+                    try (ResultSet generatedKeys = insert.getGeneratedKeys()) {
+                        if (!generatedKeys.next()) {
+                            throw new SQLException("Creating transfer transaction failed, no ID obtained.");
+                        }
+                        transactionId = generatedKeys.getInt(1);
+                    }
+                }
+
+                conn.commit();
+                committed = true;
+
+                transaction.setAccountId(fromAccountId);
+                transaction.setToAccountId(toAccountId);
+                transaction.setTransactionId(transactionId);
+                transaction.setBalanceAfterTransaction(balanceAfter);
+                transaction.markCompleted();
+
+                statistics.transactionRecorded(transaction.getTransactionType(), TransactionStatus.COMPLETED, amount);
+                accountDAO.refreshCached(conn, fromAccountId);
+                accountDAO.refreshCached(conn, toAccountId);
+                LOGGER.info("Transfer transaction created with ID: " + transactionId);
+                return transaction;
+
+            } catch (SQLException | AccountNotFoundException | InsufficientBalanceException
+                     | InvalidTransactionException | RuntimeException e) {
+                // Once committed the transfer stands, and so does its share of the limits
+                if (!committed) {
+                    conn.rollback();
+                    if (reserved) {
+                        limitTracker.release(fromAccountId, transaction);
+                    }
+                }
+                throw e;
+            }
+        }
+    }
+
+    private static boolean isContention(SQLException e) {
+        int code = e.getErrorCode() & 0xFF;
+        if (code == SQLITE_BUSY || code == SQLITE_LOCKED) {
+            return true;
+        }
+        String message = e.getMessage();
+        return message != null && (message.contains("SQLITE_BUSY") || message.contains("database is locked"));
+    }
+
+    private static void backoff(int attempt) throws SQLException {
+        try {
+            Thread.sleep(BACKOFF_BASE_MS * attempt);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while retrying transfer", e);
+        }
+    }
+
+    /**
+     * Get transfer engine metrics
+     */
+    public TransferStatistics getStatistics() {
+        return new TransferStatistics(attempted.get(), committed.get(), retries.get(),
+                                      contentionEvents.get(), insufficientFunds.get(), limitBreaches.get(),
+                                      rejected.get());
+    }
+
+    /**
+     * Inner class for transfer statistics
+     */
+    public static class TransferStatistics {
+        private final long attempted;
+        private final long committed;
+        private final long retries;
+        private final long contentionEvents;
+        private final long insufficientFunds;
+        private final long limitBreaches;
+        private final long rejected;
+
+        public TransferStatistics(long attempted, long committed, long retries, long contentionEvents,
+                                  long insufficientFunds, long limitBreaches, long rejected) {
+            this.attempted = attempted;
+            this.committed = committed;
+            this.retries = retries;
+            this.contentionEvents = contentionEvents;
+            this.insufficientFunds = insufficientFunds;
+            this.limitBreaches = limitBreaches;
+            this.rejected = rejected;
+        }
+
+        // Getters
+        public long getAttempted() { return attempted; }
+        public long getCommitted() { return committed; }
+        public long getRetries() { return retries; }
+        public long getContentionEvents() { return contentionEvents; }
+        public long getInsufficientFunds() { return insufficientFunds; }
+        public long getLimitBreaches() { return limitBreaches; }
+        public long getRejected() { return rejected; }
+    }
+}
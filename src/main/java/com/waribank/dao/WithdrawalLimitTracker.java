@@ -0,0 +1,244 @@
+package com.waribank.dao;
+
+import com.waribank.database.DatabaseManager;
+import com.waribank.model.Money;
+import com.waribank.model.Transaction;
+import com.waribank.model.TransactionStatus;
+import com.waribank.model.TransactionType;
+import com.waribank.exception.InvalidTransactionException;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.logging.Logger;
+
+/**
+ * Enforces per-account daily and monthly withdrawal limits in memory.
+ *
+ * Withdrawals and outgoing transfers are tallied per account in flat primitive
+ * arrays indexed by account id, one slot for the current calendar day and one
+ * for the current calendar month. A window rolls over by itself the first time
+ * an account is touched in a new day or month. Checking a limit is therefore a
+ * few array reads instead of a SUM over the transactions table. Amounts are
+ * exact minor units, so a withdrawal of exactly the remaining limit is allowed.
+ *
+ * The tallies are rebuilt from completed transactions at startup, or on first
+ * use if nothing loaded them, as in the benchmarks. After that callers reserve
+ * an amount before writing it and release the reservation if their database
+ * transaction rolls back, so concurrent withdrawals cannot both slip under a
+ * limit.
+ *
+ * @author Albert Fekadu Wari
+ */
+public class WithdrawalLimitTracker {
+    private static final Logger LOGGER = Logger.getLogger(WithdrawalLimitTracker.class.getName());
+    private static final int INITIAL_CAPACITY = 1024;
+
+    public static final int OK = 0;
+    public static final int DAILY_LIMIT_EXCEEDED = 1;
+    public static final int MONTHLY_LIMIT_EXCEEDED = 2;
+
+    /** Limit value for an account with no withdrawal limit */
+    public static final long UNLIMITED = -1;
+
+    private static final String LOAD_SQL =
+        "SELECT account_id, SUM(amount), SUM(CASE WHEN transaction_date >= ? THEN amount ELSE 0 END) " +
+        "FROM transactions WHERE transaction_type IN (" + TransactionType.WITHDRAWAL.getCode() + ", " +
+        TransactionType.TRANSFER.getCode() + ") AND status = " + TransactionStatus.COMPLETED.getCode() + " " +
+        "AND transaction_date >= ? GROUP BY account_id";
+
+    private static WithdrawalLimitTracker instance;
+
+    private final DatabaseManager dbManager;
+    private volatile boolean loaded;
+
+    // Indexed by account id
+    private int[] dayKeys = new int[INITIAL_CAPACITY];       // epoch day of the daily window
+    private long[] dayTotals = new long[INITIAL_CAPACITY];
+    private int[] monthKeys = new int[INITIAL_CAPACITY];     // year * 12 + month of the monthly window
+    private long[] monthTotals = new long[INITIAL_CAPACITY];
+
+    private WithdrawalLimitTracker() {
+        this.dbManager = DatabaseManager.getInstance();
+    }
+
+    public static synchronized WithdrawalLimitTracker getInstance() {
+        if (instance == null) {
+            instance = new WithdrawalLimitTracker();
+        }
+        return instance;
+    }
+
+    /**
+     * Whether a transaction type counts towards withdrawal limits
+     */
+    public static boolean isLimited(TransactionType transactionType) {
+        return transactionType == TransactionType.WITHDRAWAL || transactionType == TransactionType.TRANSFER;
+    }
+
+    /**
+     * Reserve a withdrawal against the account's limits, or explain which limit it breaks
+     */
+    public void reserve(int accountId, Transaction transaction, long dailyLimit, long monthlyLimit)
+            throws SQLException, InvalidTransactionException {
+        if (!isLimited(transaction.getTransactionType())) {
+            return;
+        }
+        ensureLoaded();
+
+        long amount = transaction.getAmount();
+        LocalDate date = transaction.getTransactionDate().toLocalDate();
+        int outcome = tryReserve(accountId, amount, date, dailyLimit, monthlyLimit);
+
+        if (outcome == DAILY_LIMIT_EXCEEDED) {
+            throw new InvalidTransactionException("Daily withdrawal limit exceeded", transaction.getTransactionType(), amount,
+                String.format("Daily limit exceeded: %s already withdrawn today, limit is %s",
+                              Money.format(getDailyTotal(accountId, date)), Money.format(dailyLimit)));
+        } else if (outcome == MONTHLY_LIMIT_EXCEEDED) {
+            throw new InvalidTransactionException("Monthly withdrawal limit exceeded", transaction.getTransactionType(), amount,
+                String.format("Monthly limit exceeded: %s already withdrawn this month, limit is %s",
+                              Money.format(getMonthlyTotal(accountId, date)), Money.format(monthlyLimit)));
+        }
+    }
+
+    /**
+     * Undo a reservation whose database transaction did not commit
+     */
+    public void release(int accountId, Transaction transaction) {
+        if (isLimited(transaction.getTransactionType())) {
+            release(accountId, transaction.getAmount(), transaction.getTransactionDate().toLocalDate());
+        }
+    }
+
+    /**
+     * Check and record in one step. A limit of zero allows no withdrawals at all;
+     * a negative limit ({@link #UNLIMITED}) means no limit.
+     * Amounts dated before an account's current windows are neither checked nor counted.
+     */
+    public synchronized int tryReserve(int accountId, long amount, LocalDate date,
+                                       long dailyLimit, long monthlyLimit) {
+        ensureCapacity(accountId);
+        int day = (int) date.toEpochDay();
+        int month = monthKey(date);
+
+        boolean inDay = rollDay(accountId, day);
+        boolean inMonth = rollMonth(accountId, month);
+
+        if (inDay && dailyLimit >= 0 && dayTotals[accountId] + amount > dailyLimit) {
+            return DAILY_LIMIT_EXCEEDED;
+        }
+        if (inMonth && monthlyLimit >= 0 && monthTotals[accountId] + amount > monthlyLimit) {
+            return MONTHLY_LIMIT_EXCEEDED;
+        }
+
+        if (inDay) {
+            dayTotals[accountId] += amount;
+        }
+        if (inMonth) {
+            monthTotals[accountId] += amount;
+        }
+        return OK;
+    }
+
+    public synchronized void release(int accountId, long amount, LocalDate date) {
+        if (accountId >= dayKeys.length) {
+            return;
+        }
+        if (dayKeys[accountId] == (int) date.toEpochDay()) {
+            dayTotals[accountId] = Math.max(0, dayTotals[accountId] - amount);
+        }
+        if (monthKeys[accountId] == monthKey(date)) {
+            monthTotals[accountId] = Math.max(0, monthTotals[accountId] - amount);
+        }
+    }
+
+    public synchronized long getDailyTotal(int accountId, LocalDate date) {
+        return accountId < dayKeys.length && dayKeys[accountId] == (int) date.toEpochDay() ? dayTotals[accountId] : 0;
+    }
+
+    public synchronized long getMonthlyTotal(int accountId, LocalDate date) {
+        return accountId < monthKeys.length && monthKeys[accountId] == monthKey(date) ? monthTotals[accountId] : 0;
+    }
+
+    /**
+     * Rebuild the tallies for the current day and month from the transactions table
+     */
+    public synchronized void reload() throws SQLException {
+        LocalDate today = LocalDate.now();
+        LocalDate monthStart = today.withDayOfMonth(1);
+        int day = (int) today.toEpochDay();
+        int month = monthKey(today);
+
+        Arrays.fill(dayKeys, 0);
+        Arrays.fill(dayTotals, 0);
+        Arrays.fill(monthKeys, 0);
+        Arrays.fill(monthTotals, 0);
+
+        int accounts = 0;
+        try (Connection conn = dbManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(LOAD_SQL)) {
+
+            pstmt.setTimestamp(1, Timestamp.valueOf(today.atStartOfDay()));
+            pstmt.setTimestamp(2, Timestamp.valueOf(monthStart.atStartOfDay()));
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    int accountId = rs.getInt(1);
+                    ensureCapacity(accountId);
+                    monthKeys[accountId] = month;
+                    monthTotals[accountId] = rs.getLong(2);
+                    dayKeys[accountId] = day;
+                    dayTotals[accountId] = rs.getLong(3);
+                    accounts++;
+                }
+            }
+        }
+
+        loaded = true;
+        LOGGER.info("Withdrawal limit tallies rebuilt for " + accounts + " accounts");
+    }
+
+    private void ensureLoaded() throws SQLException {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    reload();
+                }
+            }
+        }
+    }
+
+    /**
+     * Move the daily window forward if needed; false if the date is older than the window
+     */
+    private boolean rollDay(int accountId, int day) {
+        if (dayKeys[accountId] < day) {
+            dayKeys[accountId] = day;
+            dayTotals[accountId] = 0;
+        }
+        return dayKeys[accountId] == day;
+    }
+
+    private boolean rollMonth(int accountId, int month) {
+        if (monthKeys[accountId] < month) {
+            monthKeys[accountId] = month;
+            monthTotals[accountId] = 0;
+        }
+        return monthKeys[accountId] == month;
+    }
+
+    private void ensureCapacity(int accountId) {
+        if (accountId < dayKeys.length) {
+            return;
+        }
+        int capacity = Math.max(dayKeys.length * 2, Integer.highestOneBit(accountId) << 1);
+        dayKeys = Arrays.copyOf(dayKeys, capacity);
+        dayTotals = Arrays.copyOf(dayTotals, capacity);
+        monthKeys = Arrays.copyOf(monthKeys, capacity);
+        monthTotals = Arrays.copyOf(monthTotals, capacity);
+    }
+
+    private static int monthKey(LocalDate date) {
+        return date.getYear() * 12 + date.getMonthValue() - 1;
+    }
+}
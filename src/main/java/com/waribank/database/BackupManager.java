@@ -0,0 +1,300 @@
+package com.waribank.database;
+
+import org.sqlite.SQLiteConnection;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import java.util.logging.Level;
+import java.util.stream.Stream;
+
+/**
+ * Online backups of the live database through SQLite's backup API.
+ *
+ * Pages are copied a few hundred at a time from a read-only pooled connection
+ * that holds one WAL read snapshot for the whole copy. Readers never block the
+ * writer under WAL, so postings keep committing while the backup runs, and the
+ * copy is a consistent image of the moment it started. Backups are written to a
+ * temporary file and renamed into place, so a partial file never looks valid.
+ *
+ * @author Albert Fekadu Wari
+ */
+public class BackupManager {
+    private static final Logger LOGGER = Logger.getLogger(BackupManager.class.getName());
+    private static final DateTimeFormatter FILE_STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final String FILE_PREFIX = "waribank-";
+    private static final String FILE_SUFFIX = ".db";
+
+    private static final int DEFAULT_PAGES_PER_STEP = 256;
+    private static final int BUSY_SLEEP_MS = 50;
+    private static final int BUSY_RETRY_LIMIT = 100;
+
+    private final DatabaseManager dbManager;
+    private final Path backupDirectory;
+    private final int retention;
+    private final int pagesPerStep;
+
+    private ScheduledExecutorService scheduler;
+    private ScheduledFuture<?> schedule;
+    private volatile BackupResult lastResult;
+
+    public BackupManager(Path backupDirectory, int retention) {
+        this(backupDirectory, retention, DEFAULT_PAGES_PER_STEP);
+    }
+
+    public BackupManager(Path backupDirectory, int retention, int pagesPerStep) {
+        if (retention <= 0) {
+            throw new IllegalArgumentException("Backup retention must be at least one");
+        }
+        this.dbManager = DatabaseManager.getInstance();
+        this.backupDirectory = backupDirectory;
+        this.retention = retention;
+        this.pagesPerStep = pagesPerStep;
+    }
+
+    /**
+     * Back up into a new timestamped file in the backup directory and prune old backups
+     */
+    public BackupResult backupNow(ProgressListener listener) throws SQLException {
+        try {
+            Files.createDirectories(backupDirectory);
+        } catch (IOException e) {
+            throw new SQLException("Cannot create backup directory " + backupDirectory, e);
+        }
+        Path target = backupDirectory.resolve(FILE_PREFIX + LocalDateTime.now().format(FILE_STAMP) + FILE_SUFFIX);
+        BackupResult result = backup(target, listener);
+        pruneOldBackups();
+        return result;
+    }
+
+    /**
+     * Copy the live database to the given file without blocking writers
+     */
+    public BackupResult backup(Path target, ProgressListener listener) throws SQLException {
+        Path temp = target.resolveSibling(target.getFileName() + ".part");
+        try {
+            Files.deleteIfExists(temp);
+        } catch (IOException e) {
+            throw new SQLException("Cannot clear stale backup file " + temp, e);
+        }
+
+        ProgressTracker tracker = new ProgressTracker(listener);
+        long start = System.nanoTime();
+
+        try (Connection conn = dbManager.getReadConnection()) {
+            // Pin a WAL read snapshot for the whole copy so concurrent commits don't restart it
+            conn.setAutoCommit(false);
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM sqlite_master")) {
+                rs.next();
+            }
+
+            SQLiteConnection sqlite = conn.unwrap(SQLiteConnection.class);
+            int rc = sqlite.getDatabase().backup("main", temp.toString(), tracker,
+                                                 BUSY_SLEEP_MS, BUSY_RETRY_LIMIT, pagesPerStep);
+            if (rc != 0) {
+                throw new SQLException("Backup failed with SQLite result code " + rc);
+            }
+        } catch (SQLException e) {
+            deleteQuietly(temp);
+            throw e;
+        }
+
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            deleteQuietly(temp);
+            throw new SQLException("Cannot move backup into place at " + target, e);
+        }
+
+        long bytes;
+        try {
+            bytes = Files.size(target);
+        } catch (IOException e) {
+            bytes = 0;
+        }
+
+        BackupResult result = new BackupResult(target, tracker.totalPages, bytes, tracker.restarts,
+                                               System.nanoTime() - start);
+        lastResult = result;
+        LOGGER.info("Database backed up to " + target + " (" + result + ")");
+        return result;
+    }
+
+    /**
+     * Delete all but the newest backups, keeping as many as the retention allows
+     */
+    public List<Path> pruneOldBackups() throws SQLException {
+        List<Path> backups = listBackups();
+        List<Path> removed = new ArrayList<>();
+        for (int i = retention; i < backups.size(); i++) {
+            Path old = backups.get(i);
+            try {
+                Files.deleteIfExists(old);
+                removed.add(old);
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Could not delete old backup " + old, e);
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * List existing backups, newest first
+     */
+    public List<Path> listBackups() throws SQLException {
+        if (!Files.isDirectory(backupDirectory)) {
+            return new ArrayList<>();
+        }
+        try (Stream<Path> files = Files.list(backupDirectory)) {
+            List<Path> backups = new ArrayList<>();
+            files.filter(p -> {
+                     String name = p.getFileName().toString();
+                     return name.startsWith(FILE_PREFIX) && name.endsWith(FILE_SUFFIX);
+                 })
+                 .forEach(backups::add);
+            // Timestamped names sort chronologically
+            backups.sort((a, b) -> b.getFileName().toString().compareTo(a.getFileName().toString()));
+            return backups;
+        } catch (IOException e) {
+            throw new SQLException("Cannot list backups in " + backupDirectory, e);
+        }
+    }
+
+    /**
+     * Run a rotating backup every interval until stopped
+     */
+    public synchronized void startSchedule(long interval, TimeUnit unit) {
+        stopSchedule();
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "waribank-backup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        schedule = scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                backupNow(null);
+            } catch (SQLException | RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Scheduled backup failed", e);
+            }
+        }, interval, interval, unit);
+        LOGGER.info("Scheduled backups every " + interval + " " + unit.toString().toLowerCase());
+    }
+
+    /**
+     * Stop scheduled backups; a backup already running is allowed to finish
+     */
+    public synchronized void stopSchedule() {
+        if (scheduler != null) {
+            schedule.cancel(false);
+            scheduler.shutdown();
+            scheduler = null;
+            schedule = null;
+        }
+    }
+
+    public synchronized boolean isScheduled() {
+        return schedule != null;
+    }
+
+    public BackupResult getLastResult() {
+        return lastResult;
+    }
+
+    public Path getBackupDirectory() {
+        return backupDirectory;
+    }
+
+    public int getRetention() {
+        return retention;
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Could not delete " + path, e);
+        }
+    }
+
+    /**
+     * Receives (pages copied, total pages) after every backup step
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        void onProgress(int pagesCopied, int totalPages);
+    }
+
+    /**
+     * Adapts SQLite's (remaining, total) callbacks and counts restarts
+     */
+    private static final class ProgressTracker implements org.sqlite.core.DB.ProgressObserver {
+        private final ProgressListener listener;
+        private int totalPages;
+        private int lastRemaining = Integer.MAX_VALUE;
+        private int restarts;
+
+        ProgressTracker(ProgressListener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void progress(int remaining, int pageCount) {
+            // Remaining only grows when a concurrent write forced the copy to start over
+            if (remaining > lastRemaining) {
+                restarts++;
+            }
+            lastRemaining = remaining;
+            totalPages = pageCount;
+            if (listener != null) {
+                listener.onProgress(pageCount - remaining, pageCount);
+            }
+        }
+    }
+
+    /**
+     * Inner class for the outcome of one backup
+     */
+    public static class BackupResult {
+        private final Path file;
+        private final int pages;
+        private final long bytes;
+        private final int restarts;
+        private final long elapsedNanos;
+
+        public BackupResult(Path file, int pages, long bytes, int restarts, long elapsedNanos) {
+            this.file = file;
+            this.pages = pages;
+            this.bytes = bytes;
+            this.restarts = restarts;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        // Getters
+        public Path getFile() { return file; }
+        public int getPages() { return pages; }
+        public long getBytes() { return bytes; }
+        public int getRestarts() { return restarts; }
+        public double getElapsedMillis() { return elapsedNanos / 1_000_000.0; }
+
+        public double getThroughputMBps() {
+            return elapsedNanos == 0 ? 0.0 : (bytes / (1024.0 * 1024.0)) / (elapsedNanos / 1_000_000_000.0);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d pages, %.1f MB in %.0f ms, %.1f MB/s, %d restarts",
+                                 pages, bytes / (1024.0 * 1024.0), getElapsedMillis(),
+                                 getThroughputMBps(), restarts);
+        }
+    }
+}
@@ -0,0 +1,417 @@
+package com.waribank.database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+import java.util.Iterator;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+import java.util.logging.Level;
+
+/**
+ * Bounded pool of reusable JDBC connections.
+ *
+ * Connections handed out by the pool are proxies: calling close() returns the
+ * underlying connection to the pool instead of closing it, so DAO code can keep
+ * using try-with-resources unchanged. Each physical connection also carries a
+ * {@link StatementCache}, so prepareStatement on a leased connection reuses an
+ * already compiled statement for SQL it has seen before.
+ *
+ * @author Albert Fekadu Wari
+ */
+public class ConnectionPool {
+    private static final Logger LOGGER = Logger.getLogger(ConnectionPool.class.getName());
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final String url;
+    private final int maxSize;
+    private final int minIdle;
+    private final long acquireTimeoutMillis;
+    private final long idleTimeoutMillis;
+    private final long validationIntervalMillis;
+    private final int statementCacheSize;
+
+    private final BlockingDeque<PooledEntry> idle = new LinkedBlockingDeque<>();
+    private final Semaphore permits;
+    private final ScheduledExecutorService evictor;
+    private volatile boolean closed;
+
+    // Metrics
+    private final AtomicInteger openConnections = new AtomicInteger();
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong destroyed = new AtomicLong();
+    private final AtomicLong borrowed = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong validationFailures = new AtomicLong();
+    private final AtomicLong evicted = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final StatementCache.Counters statementCounters = new StatementCache.Counters();
+
+    public ConnectionPool(String url, int maxSize, int minIdle, long acquireTimeoutMillis,
+                          long idleTimeoutMillis, long validationIntervalMillis, int statementCacheSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Pool size must be greater than zero");
+        }
+        this.url = url;
+        this.maxSize = maxSize;
+        this.minIdle = Math.min(minIdle, maxSize);
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.validationIntervalMillis = validationIntervalMillis;
+        this.statementCacheSize = statementCacheSize;
+        this.permits = new Semaphore(maxSize, true);
+
+        this.evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "waribank-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1000, idleTimeoutMillis / 2);
+        evictor.scheduleWithFixedDelay(this::evictIdleConnections, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrow a connection, waiting up to the acquire timeout for one to become free
+     */
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool has been shut down");
+        }
+
+        long waitStart = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                timeouts.incrementAndGet();
+                throw new SQLException("Timed out after " + acquireTimeoutMillis +
+                                       "ms waiting for a database connection (pool size " + maxSize + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+        totalWaitNanos.addAndGet(System.nanoTime() - waitStart);
+
+        try {
+            PooledEntry entry = takeValidEntry();
+            borrowed.incrementAndGet();
+            return entry.lease();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private PooledEntry takeValidEntry() throws SQLException {
+        PooledEntry entry;
+        while ((entry = idle.pollFirst()) != null) {
+            if (isUsable(entry)) {
+                return entry;
+            }
+            validationFailures.incrementAndGet();
+            destroy(entry);
+        }
+        return new PooledEntry(createPhysicalConnection());
+    }
+
+    private boolean isUsable(PooledEntry entry) {
+        if (System.currentTimeMillis() - entry.lastUsed < validationIntervalMillis) {
+            return true;
+        }
+        try {
+            return entry.physical.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Open a new physical connection
+     */
+    private Connection createPhysicalConnection() throws SQLException {
+        Connection conn = DriverManager.getConnection(url);
+        try {
+            initializeConnection(conn);
+        } catch (SQLException e) {
+            closeQuietly(conn);
+            throw e;
+        }
+        openConnections.incrementAndGet();
+        created.incrementAndGet();
+        return conn;
+    }
+
+    /**
+     * Per-connection setup applied once when a physical connection is opened
+     */
+    protected void initializeConnection(Connection conn) throws SQLException {
+        // No setup by default
+    }
+
+    private void release(PooledEntry entry) {
+        boolean healthy = true;
+        if (entry.statements != null) {
+            entry.statements.releaseAll();
+        }
+        try {
+            if (!entry.physical.getAutoCommit()) {
+                entry.physical.rollback();
+                entry.physical.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Discarding connection that could not be reset", e);
+            healthy = false;
+        }
+
+        if (closed || !healthy) {
+            destroy(entry);
+        } else {
+            entry.lastUsed = System.currentTimeMillis();
+            idle.offerFirst(entry);
+        }
+        permits.release();
+    }
+
+    private void destroy(PooledEntry entry) {
+        if (entry.statements != null) {
+            entry.statements.closeAll();
+        }
+        closeQuietly(entry.physical);
+        openConnections.decrementAndGet();
+        destroyed.incrementAndGet();
+    }
+
+    /**
+     * Close connections that have sat idle longer than the idle timeout, keeping minIdle warm
+     */
+    private void evictIdleConnections() {
+        long cutoff = System.currentTimeMillis() - idleTimeoutMillis;
+        Iterator<PooledEntry> oldestFirst = idle.descendingIterator();
+        while (oldestFirst.hasNext() && idle.size() > minIdle) {
+            PooledEntry entry = oldestFirst.next();
+            if (entry.lastUsed < cutoff && idle.remove(entry)) {
+                evicted.incrementAndGet();
+                destroy(entry);
+            }
+        }
+    }
+
+    /**
+     * Shut down the pool and close all idle connections. Leased connections are
+     * closed as they are returned.
+     */
+    public void close() {
+        closed = true;
+        evictor.shutdownNow();
+        PooledEntry entry;
+        while ((entry = idle.pollFirst()) != null) {
+            destroy(entry);
+        }
+        LOGGER.info("Connection pool shut down");
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * Get a snapshot of the pool metrics
+     */
+    public PoolStatistics getStatistics() {
+        return new PoolStatistics(
+            maxSize,
+            openConnections.get(),
+            idle.size(),
+            maxSize - permits.availablePermits(),
+            permits.getQueueLength(),
+            created.get(),
+            destroyed.get(),
+            borrowed.get(),
+            timeouts.get(),
+            validationFailures.get(),
+            evicted.get(),
+            totalWaitNanos.get(),
+            statementCounters.getHits(),
+            statementCounters.getMisses(),
+            statementCounters.getEvictions()
+        );
+    }
+
+    private static void closeQuietly(Connection conn) {
+        try {
+            conn.close();
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Error closing database connection", e);
+        }
+    }
+
+    /**
+     * A physical connection owned by the pool
+     */
+    private final class PooledEntry {
+        private final Connection physical;
+        private final StatementCache statements;
+        private volatile long lastUsed;
+
+        PooledEntry(Connection physical) {
+            this.physical = physical;
+            this.statements = statementCacheSize > 0
+                ? new StatementCache(physical, statementCacheSize, statementCounters)
+                : null;
+            this.lastUsed = System.currentTimeMillis();
+        }
+
+        Connection lease() {
+            return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class },
+                new LeaseHandler(this));
+        }
+    }
+
+    /**
+     * Routes calls to the physical connection until the lease is closed
+     */
+    private final class LeaseHandler implements InvocationHandler {
+        private final PooledEntry entry;
+        private boolean returned;
+
+        LeaseHandler(PooledEntry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        release(entry);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || entry.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + entry.physical + "]";
+                default:
+                    if (returned) {
+                        throw new SQLException("Connection has already been returned to the pool");
+                    }
+                    if (entry.statements != null && isCacheablePrepare(method)) {
+                        int keys = args.length == 2 ? (Integer) args[1] : Statement.NO_GENERATED_KEYS;
+                        return entry.statements.prepare((Connection) proxy, (String) args[0], keys);
+                    }
+                    try {
+                        return method.invoke(entry.physical, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+            }
+        }
+
+        /**
+         * prepareStatement(String) and prepareStatement(String, int autoGeneratedKeys)
+         */
+        private boolean isCacheablePrepare(Method method) {
+            if (!"prepareStatement".equals(method.getName())) {
+                return false;
+            }
+            Class<?>[] params = method.getParameterTypes();
+            return params.length == 1 || (params.length == 2 && params[1] == int.class);
+        }
+    }
+
+    /**
+     * Inner class for pool statistics
+     */
+    public static class PoolStatistics {
+        private final int maxSize;
+        private final int openConnections;
+        private final int idleConnections;
+        private final int activeConnections;
+        private final int waitingThreads;
+        private final long createdConnections;
+        private final long destroyedConnections;
+        private final long borrowCount;
+        private final long timeoutCount;
+        private final long validationFailures;
+        private final long evictedConnections;
+        private final long totalWaitNanos;
+        private final long statementCacheHits;
+        private final long statementCacheMisses;
+        private final long statementCacheEvictions;
+
+        public PoolStatistics(int maxSize, int openConnections, int idleConnections, int activeConnections,
+                              int waitingThreads, long createdConnections, long destroyedConnections,
+                              long borrowCount, long timeoutCount, long validationFailures,
+                              long evictedConnections, long totalWaitNanos, long statementCacheHits,
+                              long statementCacheMisses, long statementCacheEvictions) {
+            this.maxSize = maxSize;
+            this.openConnections = openConnections;
+            this.idleConnections = idleConnections;
+            this.activeConnections = activeConnections;
+            this.waitingThreads = waitingThreads;
+            this.createdConnections = createdConnections;
+            this.destroyedConnections = destroyedConnections;
+            this.borrowCount = borrowCount;
+            this.timeoutCount = timeoutCount;
+            this.validationFailures = validationFailures;
+            this.evictedConnections = evictedConnections;
+            this.totalWaitNanos = totalWaitNanos;
+            this.statementCacheHits = statementCacheHits;
+            this.statementCacheMisses = statementCacheMisses;
+            this.statementCacheEvictions = statementCacheEvictions;
+        }
+
+        // Getters
+        public int getMaxSize() { return maxSize; }
+        public int getOpenConnections() { return openConnections; }
+        public int getIdleConnections() { return idleConnections; }
+        public int getActiveConnections() { return activeConnections; }
+        public int getWaitingThreads() { return waitingThreads; }
+        public long getCreatedConnections() { return createdConnections; }
+        public long getDestroyedConnections() { return destroyedConnections; }
+        public long getBorrowCount() { return borrowCount; }
+        public long getTimeoutCount() { return timeoutCount; }
+        public long getValidationFailures() { return validationFailures; }
+        public long getEvictedConnections() { return evictedConnections; }
+        public long getStatementCacheHits() { return statementCacheHits; }
+        public long getStatementCacheMisses() { return statementCacheMisses; }
+        public long getStatementCacheEvictions() { return statementCacheEvictions; }
+
+        public double getStatementCacheHitRatio() {
+            long lookups = statementCacheHits + statementCacheMisses;
+            return lookups == 0 ? 0.0 : (double) statementCacheHits / lookups;
+        }
+
+        public double getAverageWaitMillis() {
+            return borrowCount == 0 ? 0.0 : totalWaitNanos / 1_000_000.0 / borrowCount;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Pool{open=%d/%d, active=%d, idle=%d, waiting=%d, borrowed=%d, " +
+                               "created=%d, destroyed=%d, evicted=%d, timeouts=%d, avgWait=%.3fms, " +
+                               "stmtCache=%d/%d hit/miss}",
+                               openConnections, maxSize, activeConnections, idleConnections, waitingThreads,
+                               borrowCount, createdConnections, destroyedConnections, evictedConnections,
+                               timeoutCount, getAverageWaitMillis(), statementCacheHits, statementCacheMisses);
+        }
+    }
+}
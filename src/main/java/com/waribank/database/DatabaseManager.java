@@ -1,24 +1,63 @@
 package com.waribank.database;
 
 import java.sql.*;
+import java.util.Map;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 
 /**
  * Database manager singleton for handling SQLite database operations
  * 
+ * SQLite admits one writer at a time, so writes go through a single dedicated
+ * connection whose lease is handed out in FIFO order, while reads are served by
+ * a separate pool of read-only connections that run in parallel under WAL.
+ * 
  * @author Albert Fekadu Wari
  */
 public class DatabaseManager {
     private static DatabaseManager instance;
-    private static final String DB_URL = "jdbc:sqlite:waribank.db";
+    private static final String DB_PATH = System.getProperty("waribank.db.path", "waribank.db");
+    private static final String DB_URL = "jdbc:sqlite:" + DB_PATH;
     private static final Logger LOGGER = Logger.getLogger(DatabaseManager.class.getName());
     
+    // Pool settings
+    private static final int WRITE_POOL_SIZE = 1;
+    private static final long WRITE_ACQUIRE_TIMEOUT_MS = 30_000;
+    private static final int READ_POOL_MAX_SIZE = 8;
+    private static final int POOL_MIN_IDLE = 1;
+    private static final long READ_ACQUIRE_TIMEOUT_MS = 5_000;
+    private static final long POOL_IDLE_TIMEOUT_MS = 60_000;
+    private static final long POOL_VALIDATION_INTERVAL_MS = 30_000;
+    private static final int STATEMENT_CACHE_SIZE = Integer.getInteger("waribank.db.statementCacheSize", 64);
+    
+    private final PerformanceProfile profile;
+    private final ConnectionPool writePool;
+    private final ConnectionPool readPool;
+    private final SchemaMigrator migrator = new SchemaMigrator();
+    
     private DatabaseManager() {
         // Private constructor for singleton pattern
+        this.profile = PerformanceProfile.fromName(System.getProperty("waribank.db.profile"));
+        this.writePool = new ConnectionPool(DB_URL, WRITE_POOL_SIZE, WRITE_POOL_SIZE, WRITE_ACQUIRE_TIMEOUT_MS,
+                                            POOL_IDLE_TIMEOUT_MS, POOL_VALIDATION_INTERVAL_MS, STATEMENT_CACHE_SIZE) {
+            @Override
+            protected void initializeConnection(Connection conn) throws SQLException {
+                profile.applyTo(conn);
+            }
+        };
+        this.readPool = new ConnectionPool(DB_URL, READ_POOL_MAX_SIZE, POOL_MIN_IDLE, READ_ACQUIRE_TIMEOUT_MS,
+                                           POOL_IDLE_TIMEOUT_MS, POOL_VALIDATION_INTERVAL_MS, STATEMENT_CACHE_SIZE) {
+            @Override
+            protected void initializeConnection(Connection conn) throws SQLException {
+                profile.applyTo(conn);
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("PRAGMA query_only = 1");
+                }
+            }
+        };
     }
     
-    public static DatabaseManager getInstance() {
+    public static synchronized DatabaseManager getInstance() {
         if (instance == null) {
             instance = new DatabaseManager();
         }
@@ -26,125 +65,89 @@ public class DatabaseManager {
     }
     
     /**
-     * Initialize the database and create tables if they don't exist
+     * Initialize the database and bring the schema up to the latest version
      */
     public void initializeDatabase() {
         try (Connection conn = getConnection()) {
-            createTables(conn);
+            migrator.migrate(conn);
             LOGGER.info("Database initialized successfully");
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Failed to initialize database", e);
-            throw new RuntimeException("Database initialization failed", e);
+            Throwable cause = e;
+            while (cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            // The innermost message says what to repair, e.g. rows a migration could not convert
+            throw new RuntimeException("Database initialization failed: " + cause.getMessage(), e);
         }
     }
     
     /**
-     * Get database connection
+     * Get the write connection, waiting in line behind other writers. Closing it
+     * hands it to the next writer. Do not request it again while holding it.
      */
     public Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(DB_URL);
+        return writePool.getConnection();
     }
     
     /**
-     * Create all necessary tables
+     * Get a read-only pooled connection for queries. Closing it returns it to the pool.
      */
-    private void createTables(Connection conn) throws SQLException {
-        createCustomersTable(conn);
-        createAccountsTable(conn);
-        createTransactionsTable(conn);
-        createLoansTable(conn);
+    public Connection getReadConnection() throws SQLException {
+        return readPool.getConnection();
     }
     
-    private void createCustomersTable(Connection conn) throws SQLException {
-        String sql = "CREATE TABLE IF NOT EXISTS customers (" +
-                    "customer_id INTEGER PRIMARY KEY AUTOINCREMENT," +
-                    "first_name TEXT NOT NULL," +
-                    "last_name TEXT NOT NULL," +
-                    "email TEXT UNIQUE NOT NULL," +
-                    "phone_number TEXT," +
-                    "address TEXT," +
-                    "national_id TEXT UNIQUE NOT NULL," +
-                    "registration_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP," +
-                    "status TEXT DEFAULT 'ACTIVE'," +
-                    "credit_score REAL DEFAULT 0.0" +
-                    ")";
-        
-        try (Statement stmt = conn.createStatement()) {
-            stmt.execute(sql);
-        }
+    /**
+     * Get write connection metrics
+     */
+    public ConnectionPool.PoolStatistics getPoolStatistics() {
+        return writePool.getStatistics();
     }
     
-    private void createAccountsTable(Connection conn) throws SQLException {
-        String sql = "CREATE TABLE IF NOT EXISTS accounts (" +
-                    "account_id INTEGER PRIMARY KEY AUTOINCREMENT," +
-                    "customer_id INTEGER NOT NULL," +
-                    "account_number TEXT UNIQUE NOT NULL," +
-                    "account_type TEXT NOT NULL," +
-                    "balance REAL DEFAULT 0.0," +
-                    "interest_rate REAL DEFAULT 0.0," +
-                    "opening_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP," +
-                    "last_transaction_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP," +
-                    "status TEXT DEFAULT 'ACTIVE'," +
-                    "minimum_balance REAL DEFAULT 0.0," +
-                    "daily_withdrawal_limit REAL DEFAULT 10000.0," +
-                    "monthly_withdrawal_limit REAL DEFAULT 100000.0," +
-                    "FOREIGN KEY (customer_id) REFERENCES customers (customer_id)" +
-                    ")";
-        
-        try (Statement stmt = conn.createStatement()) {
-            stmt.execute(sql);
-        }
+    /**
+     * Get read pool metrics
+     */
+    public ConnectionPool.PoolStatistics getReadPoolStatistics() {
+        return readPool.getStatistics();
     }
     
-    private void createTransactionsTable(Connection conn) throws SQLException {
-        String sql = "CREATE TABLE IF NOT EXISTS transactions (" +
-                    "transaction_id INTEGER PRIMARY KEY AUTOINCREMENT," +
-                    "account_id INTEGER NOT NULL," +
-                    "transaction_type TEXT NOT NULL," +
-                    "amount REAL NOT NULL," +
-                    "description TEXT," +
-                    "transaction_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP," +
-                    "status TEXT DEFAULT 'PENDING'," +
-                    "reference_number TEXT UNIQUE NOT NULL," +
-                    "to_account_id INTEGER," +
-                    "balance_after_transaction REAL," +
-                    "FOREIGN KEY (account_id) REFERENCES accounts (account_id)," +
-                    "FOREIGN KEY (to_account_id) REFERENCES accounts (account_id)" +
-                    ")";
-        
-        try (Statement stmt = conn.createStatement()) {
-            stmt.execute(sql);
+    /**
+     * Get the performance profile applied to new connections
+     */
+    public PerformanceProfile getPerformanceProfile() {
+        return profile;
+    }
+    
+    /**
+     * Read the SQLite settings in effect on a pooled connection
+     */
+    public Map<String, String> getActiveSettings() throws SQLException {
+        try (Connection conn = getReadConnection()) {
+            return PerformanceProfile.readSettings(conn);
         }
     }
     
-    private void createLoansTable(Connection conn) throws SQLException {
-        String sql = "CREATE TABLE IF NOT EXISTS loans (" +
-                    "loan_id INTEGER PRIMARY KEY AUTOINCREMENT," +
-                    "customer_id INTEGER NOT NULL," +
-                    "account_id INTEGER NOT NULL," +
-                    "loan_amount REAL NOT NULL," +
-                    "interest_rate REAL NOT NULL," +
-                    "term_in_months INTEGER NOT NULL," +
-                    "loan_type TEXT NOT NULL," +
-                    "purpose TEXT," +
-                    "application_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP," +
-                    "approval_date TIMESTAMP," +
-                    "disbursement_date TIMESTAMP," +
-                    "due_date TIMESTAMP," +
-                    "status TEXT DEFAULT 'PENDING'," +
-                    "monthly_payment REAL DEFAULT 0.0," +
-                    "remaining_balance REAL DEFAULT 0.0," +
-                    "approved_by TEXT," +
-                    "rejection_reason TEXT," +
-                    "FOREIGN KEY (customer_id) REFERENCES customers (customer_id)," +
-                    "FOREIGN KEY (account_id) REFERENCES accounts (account_id)" +
-                    ")";
-        
-        try (Statement stmt = conn.createStatement()) {
-            stmt.execute(sql);
+    public String getDatabasePath() {
+        return DB_PATH;
+    }
+    
+    /**
+     * Get the schema version recorded in the database
+     */
+    public int getSchemaVersion() throws SQLException {
+        try (Connection conn = getReadConnection()) {
+            return migrator.getCurrentVersion(conn);
         }
     }
     
+    /**
+     * Close all pooled connections
+     */
+    public void shutdown() {
+        readPool.close();
+        writePool.close();
+    }
+    
     /**
      * Close database connection
      */
@@ -162,7 +165,7 @@ public class DatabaseManager {
      * Test database connection
      */
     public boolean testConnection() {
-        try (Connection conn = getConnection()) {
+        try (Connection conn = getReadConnection()) {
             return conn != null && !conn.isClosed();
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Database connection test failed", e);
@@ -0,0 +1,122 @@
+package com.waribank.database;
+
+import java.sql.*;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * SQLite tuning applied to every pooled connection when it is opened.
+ *
+ * All presets use WAL so readers and the writer no longer block each other;
+ * they differ in how much durability they trade for commit latency.
+ * Select one with -Dwaribank.db.profile=durable|balanced|simulation.
+ *
+ * @author Albert Fekadu Wari
+ */
+public class PerformanceProfile {
+
+    /** Every commit is fsynced; survives power loss. */
+    public static final PerformanceProfile DURABLE =
+        new PerformanceProfile("durable", "WAL", "FULL", -16_384, 64L << 20, "DEFAULT", 10_000, 4096);
+
+    /** WAL with NORMAL sync: durable across application crashes, may lose the last commits on power loss. */
+    public static final PerformanceProfile BALANCED =
+        new PerformanceProfile("balanced", "WAL", "NORMAL", -32_768, 256L << 20, "MEMORY", 5_000, 4096);
+
+    /** No fsync at all; for simulations and load tests where the data is disposable. */
+    public static final PerformanceProfile SIMULATION =
+        new PerformanceProfile("simulation", "WAL", "OFF", -131_072, 1L << 30, "MEMORY", 5_000, 8192);
+
+    private final String name;
+    private final String journalMode;
+    private final String synchronous;
+    private final int cacheSize;        // pages if positive, KiB if negative (SQLite convention)
+    private final long mmapSize;        // bytes
+    private final String tempStore;
+    private final int busyTimeoutMillis;
+    private final int pageSize;         // only takes effect on a brand-new database
+
+    public PerformanceProfile(String name, String journalMode, String synchronous, int cacheSize,
+                              long mmapSize, String tempStore, int busyTimeoutMillis, int pageSize) {
+        this.name = name;
+        this.journalMode = journalMode;
+        this.synchronous = synchronous;
+        this.cacheSize = cacheSize;
+        this.mmapSize = mmapSize;
+        this.tempStore = tempStore;
+        this.busyTimeoutMillis = busyTimeoutMillis;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Look up a preset by name; BALANCED when no name is given
+     *
+     * @throws IllegalArgumentException for a name that is not a preset, rather than
+     *         quietly running with different durability than was asked for
+     */
+    public static PerformanceProfile fromName(String name) {
+        if (name == null || name.isBlank()) {
+            return BALANCED;
+        }
+        switch (name.trim().toLowerCase()) {
+            case "durable":
+                return DURABLE;
+            case "balanced":
+                return BALANCED;
+            case "simulation":
+                return SIMULATION;
+            default:
+                throw new IllegalArgumentException("Unknown database profile '" + name +
+                                                   "'; expected durable, balanced or simulation");
+        }
+    }
+
+    /**
+     * Apply the profile to a freshly opened connection
+     */
+    public void applyTo(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            // page_size must precede journal_mode: switching to WAL writes the header of a new file
+            stmt.execute("PRAGMA page_size = " + pageSize);
+            stmt.execute("PRAGMA busy_timeout = " + busyTimeoutMillis);
+            stmt.execute("PRAGMA journal_mode = " + journalMode);
+            stmt.execute("PRAGMA synchronous = " + synchronous);
+            stmt.execute("PRAGMA cache_size = " + cacheSize);
+            stmt.execute("PRAGMA mmap_size = " + mmapSize);
+            stmt.execute("PRAGMA temp_store = " + tempStore);
+        }
+    }
+
+    /**
+     * Read back the settings actually in effect on a connection
+     */
+    public static Map<String, String> readSettings(Connection conn) throws SQLException {
+        String[] pragmas = { "journal_mode", "synchronous", "cache_size", "mmap_size",
+                             "temp_store", "busy_timeout", "page_size" };
+        Map<String, String> settings = new LinkedHashMap<>();
+
+        try (Statement stmt = conn.createStatement()) {
+            for (String pragma : pragmas) {
+                try (ResultSet rs = stmt.executeQuery("PRAGMA " + pragma)) {
+                    settings.put(pragma, rs.next() ? rs.getString(1) : "");
+                }
+            }
+        }
+        return settings;
+    }
+
+    // Getters
+    public String getName() { return name; }
+    public String getJournalMode() { return journalMode; }
+    public String getSynchronous() { return synchronous; }
+    public int getCacheSize() { return cacheSize; }
+    public long getMmapSize() { return mmapSize; }
+    public String getTempStore() { return tempStore; }
+    public int getBusyTimeoutMillis() { return busyTimeoutMillis; }
+    public int getPageSize() { return pageSize; }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
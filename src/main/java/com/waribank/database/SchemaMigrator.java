@@ -0,0 +1,417 @@
+package com.waribank.database;
+
+import com.waribank.model.AccountStatus;
+import com.waribank.model.AccountType;
+import com.waribank.model.Coded;
+import com.waribank.model.CustomerStatus;
+import com.waribank.model.LoanStatus;
+import com.waribank.model.LoanType;
+import com.waribank.model.TransactionStatus;
+import com.waribank.model.TransactionType;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Logger;
+
+/**
+ * Versioned schema migrations tracked with PRAGMA user_version.
+ *
+ * Each migration runs in its own transaction together with the version bump,
+ * so a database is always at exactly one known version. Databases created
+ * before migrations existed report version 0; the first migration only uses
+ * CREATE ... IF NOT EXISTS and adopts them in place.
+ *
+ * @author Albert Fekadu Wari
+ */
+public class SchemaMigrator {
+    private static final Logger LOGGER = Logger.getLogger(SchemaMigrator.class.getName());
+    
+    private final List<Migration> migrations = new ArrayList<>();
+    
+    public SchemaMigrator() {
+        migrations.add(new Migration(1, "Base tables", this::createTables));
+        migrations.add(new Migration(2, "Secondary indexes for hot-path queries", this::createHotPathIndexes));
+        migrations.add(new Migration(3, "Persistent number sequences", this::createSequencesTable));
+        migrations.add(new Migration(4, "Incoming transfer index for statements", this::createStatementIndexes));
+        migrations.add(new Migration(5, "Money columns in integer minor units", this::convertMoneyToMinorUnits));
+        migrations.add(new Migration(6, "Status and type columns as integer codes", this::convertEnumsToCodes));
+    }
+    
+    /**
+     * Apply every migration newer than the database's current version
+     */
+    public void migrate(Connection conn) throws SQLException {
+        migrate(conn, getLatestVersion());
+    }
+    
+    /**
+     * Apply migrations up to and including the target version
+     */
+    public void migrate(Connection conn, int targetVersion) throws SQLException {
+        int currentVersion = getCurrentVersion(conn);
+        boolean autoCommit = conn.getAutoCommit();
+        
+        try {
+            conn.setAutoCommit(false);
+            for (Migration migration : migrations) {
+                if (migration.getVersion() <= currentVersion || migration.getVersion() > targetVersion) {
+                    continue;
+                }
+                
+                try {
+                    migration.getStep().apply(conn);
+                    try (Statement stmt = conn.createStatement()) {
+                        stmt.execute("PRAGMA user_version = " + migration.getVersion());
+                    }
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw new SQLException("Migration to version " + migration.getVersion() + 
+                                           " (" + migration.getDescription() + ") failed", e);
+                }
+                LOGGER.info("Schema migrated to version " + migration.getVersion() + ": " + migration.getDescription());
+            }
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+    
+    /**
+     * Read the schema version recorded in the database
+     */
+    public int getCurrentVersion(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA user_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+    
+    public int getLatestVersion() {
+        return migrations.get(migrations.size() - 1).getVersion();
+    }
+    
+    public List<Migration> getMigrations() {
+        return Collections.unmodifiableList(migrations);
+    }
+    
+    /**
+     * Version 1: the original tables
+     */
+    private void createTables(Connection conn) throws SQLException {
+        createCustomersTable(conn);
+        createAccountsTable(conn);
+        createTransactionsTable(conn);
+        createLoansTable(conn);
+    }
+    
+    private void createCustomersTable(Connection conn) throws SQLException {
+        String sql = "CREATE TABLE IF NOT EXISTS customers (" +
+                    "customer_id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                    "first_name TEXT NOT NULL," +
+                    "last_name TEXT NOT NULL," +
+                    "email TEXT UNIQUE NOT NULL," +
+                    "phone_number TEXT," +
+                    "address TEXT," +
+                    "national_id TEXT UNIQUE NOT NULL," +
+                    "registration_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP," +
+                    "status TEXT DEFAULT 'ACTIVE'," +
+                    "credit_score REAL DEFAULT 0.0" +
+                    ")";
+        
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(sql);
+        }
+    }
+    
+    private void createAccountsTable(Connection conn) throws SQLException {
+        String sql = "CREATE TABLE IF NOT EXISTS accounts (" +
+                    "account_id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                    "customer_id INTEGER NOT NULL," +
+                    "account_number TEXT UNIQUE NOT NULL," +
+                    "account_type TEXT NOT NULL," +
+                    "balance REAL DEFAULT 0.0," +
+                    "interest_rate REAL DEFAULT 0.0," +
+                    "opening_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP," +
+                    "last_transaction_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP," +
+                    "status TEXT DEFAULT 'ACTIVE'," +
+                    "minimum_balance REAL DEFAULT 0.0," +
+                    "daily_withdrawal_limit REAL DEFAULT 10000.0," +
+                    "monthly_withdrawal_limit REAL DEFAULT 100000.0," +
+                    "FOREIGN KEY (customer_id) REFERENCES customers (customer_id)" +
+                    ")";
+        
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(sql);
+        }
+    }
+    
+    private void createTransactionsTable(Connection conn) throws SQLException {
+        String sql = "CREATE TABLE IF NOT EXISTS transactions (" +
+                    "transaction_id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                    "account_id INTEGER NOT NULL," +
+                    "transaction_type TEXT NOT NULL," +
+                    "amount REAL NOT NULL," +
+                    "description TEXT," +
+                    "transaction_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP," +
+                    "status TEXT DEFAULT 'PENDING'," +
+                    "reference_number TEXT UNIQUE NOT NULL," +
+                    "to_account_id INTEGER," +
+                    "balance_after_transaction REAL," +
+                    "FOREIGN KEY (account_id) REFERENCES accounts (account_id)," +
+                    "FOREIGN KEY (to_account_id) REFERENCES accounts (account_id)" +
+                    ")";
+        
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(sql);
+        }
+    }
+    
+    private void createLoansTable(Connection conn) throws SQLException {
+        String sql = "CREATE TABLE IF NOT EXISTS loans (" +
+                    "loan_id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                    "customer_id INTEGER NOT NULL," +
+                    "account_id INTEGER NOT NULL," +
+                    "loan_amount REAL NOT NULL," +
+                    "interest_rate REAL NOT NULL," +
+                    "term_in_months INTEGER NOT NULL," +
+                    "loan_type TEXT NOT NULL," +
+                    "purpose TEXT," +
+                    "application_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP," +
+                    "approval_date TIMESTAMP," +
+                    "disbursement_date TIMESTAMP," +
+                    "due_date TIMESTAMP," +
+                    "status TEXT DEFAULT 'PENDING'," +
+                    "monthly_payment REAL DEFAULT 0.0," +
+                    "remaining_balance REAL DEFAULT 0.0," +
+                    "approved_by TEXT," +
+                    "rejection_reason TEXT," +
+                    "FOREIGN KEY (customer_id) REFERENCES customers (customer_id)," +
+                    "FOREIGN KEY (account_id) REFERENCES accounts (account_id)" +
+                    ")";
+        
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(sql);
+        }
+    }
+    
+    /**
+     * Version 2: indexes backing the DAO lookups and orderings
+     */
+    private void createHotPathIndexes(Connection conn) throws SQLException {
+        String[] statements = {
+            // TransactionDAO.findByAccountId: WHERE account_id = ? ORDER BY transaction_date DESC
+            "CREATE INDEX IF NOT EXISTS idx_transactions_account_date ON transactions (account_id, transaction_date)",
+            // TransactionDAO.findAll ordering and date-range scans
+            "CREATE INDEX IF NOT EXISTS idx_transactions_date ON transactions (transaction_date)",
+            // TransactionDAO.findCompletedTransactions
+            "CREATE INDEX IF NOT EXISTS idx_transactions_status_date ON transactions (status, transaction_date)",
+            // AccountDAO.findByCustomerId / findActiveAccounts
+            "CREATE INDEX IF NOT EXISTS idx_accounts_customer ON accounts (customer_id)",
+            "CREATE INDEX IF NOT EXISTS idx_accounts_status ON accounts (status)",
+            // LoanDAO.findByCustomerId / findByAccountId / find*Loans, all ordered by application_date
+            "CREATE INDEX IF NOT EXISTS idx_loans_customer_date ON loans (customer_id, application_date)",
+            "CREATE INDEX IF NOT EXISTS idx_loans_account_date ON loans (account_id, application_date)",
+            "CREATE INDEX IF NOT EXISTS idx_loans_status_date ON loans (status, application_date)",
+            // CustomerDAO.findActiveCustomers
+            "CREATE INDEX IF NOT EXISTS idx_customers_status ON customers (status)",
+            // Give the query planner statistics for the new indexes
+            "ANALYZE"
+        };
+        
+        try (Statement stmt = conn.createStatement()) {
+            for (String sql : statements) {
+                stmt.execute(sql);
+            }
+        }
+    }
+    
+    /**
+     * Version 3: named sequences that allocators reserve blocks from
+     */
+    private void createSequencesTable(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS sequences (" +
+                         "name TEXT PRIMARY KEY," +
+                         "next_value INTEGER NOT NULL" +
+                         ")");
+            // Account number bodies are nine digits; legacy numbers are shorter and cannot clash
+            stmt.execute("INSERT OR IGNORE INTO sequences (name, next_value) VALUES ('account_number', 100000000)");
+        }
+    }
+    
+    /**
+     * Version 4: lets the statement job scan incoming transfers in account order
+     */
+    private void createStatementIndexes(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            // StatementJob: WHERE to_account_id BETWEEN ? AND ? ORDER BY to_account_id, transaction_date
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_transactions_to_account_date " +
+                         "ON transactions (to_account_id, transaction_date)");
+            stmt.execute("ANALYZE");
+        }
+    }
+    
+    /**
+     * Version 5: money columns hold whole minor units as INTEGER instead of REAL.
+     * Each column is swapped for a new one in place, so table order, keys and
+     * indexes are untouched; none of these columns is indexed or constrained.
+     */
+    private void convertMoneyToMinorUnits(Connection conn) throws SQLException {
+        String[][] columns = {
+            // table, column, new declaration
+            { "accounts", "balance", "INTEGER NOT NULL DEFAULT 0" },
+            { "accounts", "minimum_balance", "INTEGER NOT NULL DEFAULT 0" },
+            { "accounts", "daily_withdrawal_limit", "INTEGER NOT NULL DEFAULT 1000000" },
+            { "accounts", "monthly_withdrawal_limit", "INTEGER NOT NULL DEFAULT 10000000" },
+            { "transactions", "amount", "INTEGER NOT NULL DEFAULT 0" },
+            { "transactions", "balance_after_transaction", "INTEGER" },
+            { "loans", "loan_amount", "INTEGER NOT NULL DEFAULT 0" },
+            { "loans", "monthly_payment", "INTEGER NOT NULL DEFAULT 0" },
+            { "loans", "remaining_balance", "INTEGER NOT NULL DEFAULT 0" }
+        };
+        
+        try (Statement stmt = conn.createStatement()) {
+            for (String[] column : columns) {
+                String table = column[0];
+                String name = column[1];
+                stmt.execute("ALTER TABLE " + table + " RENAME COLUMN " + name + " TO " + name + "_real");
+                stmt.execute("ALTER TABLE " + table + " ADD COLUMN " + name + " " + column[2]);
+                // ROUND rounds half away from zero; NULLs stay NULL
+                stmt.execute("UPDATE " + table + " SET " + name + " = CAST(ROUND(" + name + "_real * 100) AS INTEGER)" +
+                             " WHERE " + name + "_real IS NOT NULL");
+                stmt.execute("ALTER TABLE " + table + " DROP COLUMN " + name + "_real");
+            }
+        }
+    }
+    
+    /**
+     * Version 6: status and type columns hold the enum's integer code instead of its
+     * name. The columns are swapped in place like the money columns in version 5;
+     * the status indexes are dropped first and rebuilt over the codes. NULLs take
+     * the column default.
+     *
+     * The original CLI stored typed-in statuses and types unchecked, so names are
+     * matched after trimming, upper-casing and turning spaces into underscores.
+     * Columns people typed into map anything else to a conservative fallback, and
+     * every row changed that way is logged. Columns only the application wrote have
+     * no safe fallback; an unknown value there stops the migration with a list of
+     * the rows and the UPDATE that repairs them.
+     */
+    private void convertEnumsToCodes(Connection conn) throws SQLException {
+        Object[][] columns = {
+            // table, key, column, enum constants, default code (0 = none), fallback (null = stop)
+            { "customers", "customer_id", "status", CustomerStatus.values(), CustomerStatus.ACTIVE.getCode(),
+              CustomerStatus.SUSPENDED },
+            { "accounts", "account_id", "account_type", AccountType.values(), 0, AccountType.SAVINGS },
+            { "accounts", "account_id", "status", AccountStatus.values(), AccountStatus.ACTIVE.getCode(),
+              AccountStatus.FROZEN },
+            { "transactions", "transaction_id", "transaction_type", TransactionType.values(), 0, null },
+            { "transactions", "transaction_id", "status", TransactionStatus.values(),
+              TransactionStatus.PENDING.getCode(), null },
+            { "loans", "loan_id", "loan_type", LoanType.values(), 0, LoanType.PERSONAL },
+            { "loans", "loan_id", "status", LoanStatus.values(), LoanStatus.PENDING.getCode(), null }
+        };
+        
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP INDEX IF EXISTS idx_customers_status");
+            stmt.execute("DROP INDEX IF EXISTS idx_accounts_status");
+            stmt.execute("DROP INDEX IF EXISTS idx_transactions_status_date");
+            stmt.execute("DROP INDEX IF EXISTS idx_loans_status_date");
+            
+            for (Object[] column : columns) {
+                String table = (String) column[0];
+                String key = (String) column[1];
+                String name = (String) column[2];
+                Coded[] values = (Coded[]) column[3];
+                Coded fallback = (Coded) column[5];
+                
+                StringBuilder names = new StringBuilder();
+                Set<String> known = new HashSet<>();
+                StringBuilder cases = new StringBuilder("CASE " + normalized(name + "_text"));
+                for (Coded value : values) {
+                    names.append(names.length() == 0 ? "" : ", ").append('\'').append(value).append('\'');
+                    known.add(value.toString());
+                    cases.append(" WHEN '").append(value).append("' THEN ").append(value.getCode());
+                }
+                if (fallback != null) {
+                    cases.append(" ELSE ").append(fallback.getCode());
+                }
+                cases.append(" END");
+                
+                List<String> unknownKeys = new ArrayList<>();
+                List<String> unknownRows = new ArrayList<>();
+                try (ResultSet rs = stmt.executeQuery("SELECT " + key + ", " + name + ", " + normalized(name) +
+                                                      " FROM " + table + " WHERE " + name + " NOT IN (" + names + ")")) {
+                    while (rs.next()) {
+                        String row = key + "=" + rs.getInt(1) + " '" + rs.getString(2) + "'";
+                        if (known.contains(rs.getString(3))) {
+                            LOGGER.warning("Normalised " + table + "." + name + " " + row + " to " + rs.getString(3));
+                        } else if (fallback != null) {
+                            LOGGER.warning("Unknown value in " + table + "." + name + " " + row + ", set to fallback " + fallback);
+                        } else {
+                            unknownKeys.add(rs.getString(1));
+                            unknownRows.add(row);
+                        }
+                    }
+                }
+                if (!unknownKeys.isEmpty()) {
+                    throw new SQLException(unknownRows.size() + " rows of " + table + "." + name + " hold no known value: " +
+                                           String.join(", ", unknownRows) + ". Set each to one of " + names +
+                                           " and restart, e.g. UPDATE " + table + " SET " + name + " = '...' WHERE " +
+                                           key + " IN (" + String.join(", ", unknownKeys) + ");");
+                }
+                
+                stmt.execute("ALTER TABLE " + table + " RENAME COLUMN " + name + " TO " + name + "_text");
+                stmt.execute("ALTER TABLE " + table + " ADD COLUMN " + name + " INTEGER NOT NULL DEFAULT " + column[4]);
+                stmt.execute("UPDATE " + table + " SET " + name + " = " + cases +
+                             " WHERE " + name + "_text IS NOT NULL");
+                stmt.execute("ALTER TABLE " + table + " DROP COLUMN " + name + "_text");
+            }
+            
+            stmt.execute("CREATE INDEX idx_customers_status ON customers (status)");
+            stmt.execute("CREATE INDEX idx_accounts_status ON accounts (status)");
+            stmt.execute("CREATE INDEX idx_transactions_status_date ON transactions (status, transaction_date)");
+            stmt.execute("CREATE INDEX idx_loans_status_date ON loans (status, application_date)");
+            stmt.execute("ANALYZE");
+        }
+    }
+    
+    /**
+     * SQL for a stored name as it would have been meant: trimmed, upper case, underscores for spaces
+     */
+    private static String normalized(String column) {
+        return "REPLACE(UPPER(TRIM(" + column + ")), ' ', '_')";
+    }
+    
+    /**
+     * A single schema change step
+     */
+    @FunctionalInterface
+    public interface MigrationStep {
+        void apply(Connection conn) throws SQLException;
+    }
+    
+    /**
+     * Inner class describing one schema version
+     */
+    public static class Migration {
+        private final int version;
+        private final String description;
+        private final MigrationStep step;
+        
+        public Migration(int version, String description, MigrationStep step) {
+            this.version = version;
+            this.description = description;
+            this.step = step;
+        }
+        
+        // Getters
+        public int getVersion() { return version; }
+        public String getDescription() { return description; }
+        public MigrationStep getStep() { return step; }
+    }
+}
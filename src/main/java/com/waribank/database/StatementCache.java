@@ -0,0 +1,230 @@
+package com.waribank.database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+import java.util.logging.Level;
+
+/**
+ * LRU cache of prepared statements belonging to one physical connection.
+ *
+ * The pool routes prepareStatement calls here, so DAOs keep preparing and
+ * closing statements as before. Closing a cached statement only clears its
+ * parameters and makes it available for the next identical SQL text, which
+ * spares SQLite from re-parsing and re-planning hot queries.
+ *
+ * A cache is only ever used by the thread holding its connection, so it needs
+ * no locking of its own.
+ *
+ * @author Albert Fekadu Wari
+ */
+public class StatementCache {
+    private static final Logger LOGGER = Logger.getLogger(StatementCache.class.getName());
+
+    private final Connection physical;
+    private final Counters counters;
+    private final Map<Key, CachedStatement> entries;
+
+    public StatementCache(Connection physical, int capacity, Counters counters) {
+        this.physical = physical;
+        this.counters = counters;
+        this.entries = new LinkedHashMap<>(capacity * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, CachedStatement> eldest) {
+                if (size() <= capacity) {
+                    return false;
+                }
+                counters.evictions.increment();
+                eldest.getValue().evict();
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Return a cached statement for the SQL, preparing and caching it on a miss
+     */
+    public PreparedStatement prepare(Connection owner, String sql, int autoGeneratedKeys) throws SQLException {
+        Key key = new Key(sql, autoGeneratedKeys);
+        CachedStatement cached = entries.get(key);
+
+        if (cached != null && !cached.inUse) {
+            counters.hits.increment();
+            return cached.checkOut(owner);
+        }
+
+        counters.misses.increment();
+        PreparedStatement statement = physical.prepareStatement(sql, autoGeneratedKeys);
+        if (cached != null) {
+            // Same SQL is already open on this connection (nested use); don't cache the second copy
+            return statement;
+        }
+
+        cached = new CachedStatement(statement);
+        entries.put(key, cached);
+        return cached.checkOut(owner);
+    }
+
+    /**
+     * Reclaim statements the previous lease forgot to close
+     */
+    public void releaseAll() {
+        for (CachedStatement cached : entries.values()) {
+            if (cached.inUse) {
+                cached.checkIn();
+            }
+        }
+    }
+
+    /**
+     * Close every cached statement; called before the physical connection is closed
+     */
+    public void closeAll() {
+        List<CachedStatement> statements = new ArrayList<>(entries.values());
+        entries.clear();
+        for (CachedStatement cached : statements) {
+            cached.closePhysical();
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * A cached statement plus the proxy handed to callers
+     */
+    private static final class CachedStatement implements InvocationHandler {
+        private final PreparedStatement statement;
+        private final PreparedStatement proxy;
+        private Connection owner;
+        private boolean inUse;
+        private boolean evicted;
+
+        CachedStatement(PreparedStatement statement) {
+            this.statement = statement;
+            this.proxy = (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(),
+                new Class<?>[] { PreparedStatement.class },
+                this);
+        }
+
+        PreparedStatement checkOut(Connection owner) {
+            this.owner = owner;
+            this.inUse = true;
+            return proxy;
+        }
+
+        void checkIn() {
+            inUse = false;
+            owner = null;
+            if (evicted) {
+                closePhysical();
+                return;
+            }
+            try {
+                ResultSet open = statement.getResultSet();
+                if (open != null) {
+                    open.close();
+                }
+                statement.clearParameters();
+                statement.clearBatch();
+            } catch (SQLException e) {
+                LOGGER.log(Level.FINE, "Could not reset cached statement", e);
+            }
+        }
+
+        void evict() {
+            evicted = true;
+            if (!inUse) {
+                closePhysical();
+            }
+        }
+
+        void closePhysical() {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                LOGGER.log(Level.WARNING, "Error closing cached statement", e);
+            }
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (inUse) {
+                        checkIn();
+                    }
+                    return null;
+                case "isClosed":
+                    return !inUse || statement.isClosed();
+                case "getConnection":
+                    return owner;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + statement + "]";
+                default:
+                    if (!inUse) {
+                        throw new SQLException("Statement has already been closed");
+                    }
+                    try {
+                        return method.invoke(statement, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+            }
+        }
+    }
+
+    /**
+     * Cache key: the SQL text plus the generated-keys flag it was prepared with
+     */
+    private static final class Key {
+        private final String sql;
+        private final int autoGeneratedKeys;
+
+        Key(String sql, int autoGeneratedKeys) {
+            this.sql = sql;
+            this.autoGeneratedKeys = autoGeneratedKeys;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (!(obj instanceof Key)) return false;
+            Key other = (Key) obj;
+            return autoGeneratedKeys == other.autoGeneratedKeys && sql.equals(other.sql);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(sql, autoGeneratedKeys);
+        }
+    }
+
+    /**
+     * Hit/miss/eviction counters shared by all caches of one pool
+     */
+    public static final class Counters {
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder evictions = new LongAdder();
+
+        public long getHits() { return hits.sum(); }
+        public long getMisses() { return misses.sum(); }
+        public long getEvictions() { return evictions.sum(); }
+    }
+}
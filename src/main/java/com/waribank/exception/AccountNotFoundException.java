@@ -3,6 +3,10 @@ package com.waribank.exception;
 /**
  * Custom exception thrown when an account is not found
  * 
+ * Lookups that miss as a matter of course (an existence probe, a bad number in
+ * a batch) throw the {@link #stackless} variants, which skip filling in the
+ * stack trace.
+ * 
  * @author Albert Fekadu Wari
  */
 public class AccountNotFoundException extends Exception {
@@ -24,6 +28,20 @@ public class AccountNotFoundException extends Exception {
         this.accountId = accountId;
     }
     
+    private AccountNotFoundException(String message, String accountNumber, int accountId) {
+        super(message, null, false, false);
+        this.accountNumber = accountNumber;
+        this.accountId = accountId;
+    }
+    
+    public static AccountNotFoundException stackless(String message, String accountNumber) {
+        return new AccountNotFoundException(message, accountNumber, 0);
+    }
+    
+    public static AccountNotFoundException stackless(String message, int accountId) {
+        return new AccountNotFoundException(message, null, accountId);
+    }
+    
     public String getAccountNumber() {
         return accountNumber;
     }
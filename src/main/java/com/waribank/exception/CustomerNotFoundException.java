@@ -3,6 +3,9 @@ package com.waribank.exception;
 /**
  * Custom exception thrown when a customer is not found
  * 
+ * Lookups that miss as a matter of course throw the {@link #stackless} and
+ * {@link #stacklessByEmail} variants, which skip filling in the stack trace.
+ * 
  * @author Albert Fekadu Wari
  */
 public class CustomerNotFoundException extends Exception {
@@ -34,6 +37,25 @@ public class CustomerNotFoundException extends Exception {
         }
     }
     
+    private CustomerNotFoundException(String message, int customerId, String nationalId, String email) {
+        super(message, null, false, false);
+        this.customerId = customerId;
+        this.nationalId = nationalId;
+        this.email = email;
+    }
+    
+    public static CustomerNotFoundException stackless(String message, int customerId) {
+        return new CustomerNotFoundException(message, customerId, null, null);
+    }
+    
+    public static CustomerNotFoundException stackless(String message, String nationalId) {
+        return new CustomerNotFoundException(message, 0, nationalId, null);
+    }
+    
+    public static CustomerNotFoundException stacklessByEmail(String message, String email) {
+        return new CustomerNotFoundException(message, 0, null, email);
+    }
+    
     public int getCustomerId() {
         return customerId;
     }
@@ -0,0 +1,22 @@
+package com.waribank.exception;
+
+import java.sql.SQLException;
+
+/**
+ * Unchecked wrapper for a SQLException raised while a lazily evaluated stream
+ * is being consumed, where checked exceptions cannot be thrown
+ *
+ * @author Albert Fekadu Wari
+ */
+public class DataAccessException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public DataAccessException(String message, SQLException cause) {
+        super(message, cause);
+    }
+
+    @Override
+    public synchronized SQLException getCause() {
+        return (SQLException) super.getCause();
+    }
+}
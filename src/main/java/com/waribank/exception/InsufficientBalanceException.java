@@ -1,38 +1,41 @@
 package com.waribank.exception;
 
+import com.waribank.model.Money;
+
 /**
- * Custom exception thrown when account has insufficient balance for a transaction
+ * Custom exception thrown when account has insufficient balance for a transaction;
+ * amounts are in minor units
  * 
  * @author Albert Fekadu Wari
  */
 public class InsufficientBalanceException extends Exception {
     
-    private double requestedAmount;
-    private double availableBalance;
+    private long requestedAmount;
+    private long availableBalance;
     
     public InsufficientBalanceException(String message) {
         super(message);
     }
     
-    public InsufficientBalanceException(String message, double requestedAmount, double availableBalance) {
+    public InsufficientBalanceException(String message, long requestedAmount, long availableBalance) {
         super(message);
         this.requestedAmount = requestedAmount;
         this.availableBalance = availableBalance;
     }
     
-    public double getRequestedAmount() {
+    public long getRequestedAmount() {
         return requestedAmount;
     }
     
-    public double getAvailableBalance() {
+    public long getAvailableBalance() {
         return availableBalance;
     }
     
     @Override
     public String getMessage() {
         if (requestedAmount > 0 && availableBalance >= 0) {
-            return String.format("Insufficient balance. Requested: %.2f, Available: %.2f", 
-                               requestedAmount, availableBalance);
+            return String.format("Insufficient balance. Requested: %s, Available: %s", 
+                               Money.format(requestedAmount), Money.format(availableBalance));
         }
         return super.getMessage();
     }
@@ -1,38 +1,41 @@
 package com.waribank.exception;
 
+import com.waribank.model.Money;
+import com.waribank.model.TransactionType;
+
 /**
- * Custom exception thrown when a transaction is invalid
+ * Custom exception thrown when a transaction is invalid; amounts are in minor units
  * 
  * @author Albert Fekadu Wari
  */
 public class InvalidTransactionException extends Exception {
     
-    private String transactionType;
-    private double amount;
+    private TransactionType transactionType;
+    private long amount;
     private String reason;
     
     public InvalidTransactionException(String message) {
         super(message);
     }
     
-    public InvalidTransactionException(String message, String transactionType, double amount) {
+    public InvalidTransactionException(String message, TransactionType transactionType, long amount) {
         super(message);
         this.transactionType = transactionType;
         this.amount = amount;
     }
     
-    public InvalidTransactionException(String message, String transactionType, double amount, String reason) {
+    public InvalidTransactionException(String message, TransactionType transactionType, long amount, String reason) {
         super(message);
         this.transactionType = transactionType;
         this.amount = amount;
         this.reason = reason;
     }
     
-    public String getTransactionType() {
+    public TransactionType getTransactionType() {
         return transactionType;
     }
     
-    public double getAmount() {
+    public long getAmount() {
         return amount;
     }
     
@@ -43,8 +46,8 @@ public class InvalidTransactionException extends Exception {
     @Override
     public String getMessage() {
         if (transactionType != null && amount > 0) {
-            return String.format("Invalid %s transaction for amount %.2f. %s", 
-                               transactionType, amount, reason != null ? reason : "");
+            return String.format("Invalid %s transaction for amount %s. %s", 
+                               transactionType, Money.format(amount), reason != null ? reason : "");
         }
         return super.getMessage();
     }
@@ -8,42 +8,63 @@ import java.util.ArrayList;
 /**
  * Account entity representing a bank account
  * 
+ * Balances, minimums and limits are in minor units; see {@link Money}.
+ * 
  * @author Albert Fekadu Wari
  */
 public class Account extends BankEntity implements Transactionable, Reportable {
     private int accountId;
     private int customerId;
     private String accountNumber;
-    private String accountType; // SAVINGS, CHECKING, FIXED_DEPOSIT
-    private double balance;
+    private AccountType accountType;
+    private long balance;
     private double interestRate;
     private LocalDateTime openingDate;
     private LocalDateTime lastTransactionDate;
-    private String status; // ACTIVE, FROZEN, CLOSED
-    private double minimumBalance;
-    private double dailyWithdrawalLimit;
-    private double monthlyWithdrawalLimit;
+    private AccountStatus status;
+    private long minimumBalance;
+    private long dailyWithdrawalLimit;
+    private long monthlyWithdrawalLimit;
 
     // Default constructor
     public Account() {
         super();
         this.openingDate = LocalDateTime.now();
         this.lastTransactionDate = LocalDateTime.now();
-        this.balance = 0.0;
+        this.balance = 0;
         this.interestRate = 0.0;
-        this.minimumBalance = 0.0;
-        this.dailyWithdrawalLimit = 10000.0;
-        this.monthlyWithdrawalLimit = 100000.0;
+        this.minimumBalance = 0;
+        this.dailyWithdrawalLimit = 1_000_000;
+        this.monthlyWithdrawalLimit = 10_000_000;
+        this.status = AccountStatus.ACTIVE;
+    }
+
+    // Copy constructor
+    public Account(Account other) {
+        super();
+        this.id = other.id;
+        this.createdAt = other.createdAt;
+        this.accountId = other.accountId;
+        this.customerId = other.customerId;
+        this.accountNumber = other.accountNumber;
+        this.accountType = other.accountType;
+        this.balance = other.balance;
+        this.interestRate = other.interestRate;
+        this.openingDate = other.openingDate;
+        this.lastTransactionDate = other.lastTransactionDate;
+        this.status = other.status;
+        this.minimumBalance = other.minimumBalance;
+        this.dailyWithdrawalLimit = other.dailyWithdrawalLimit;
+        this.monthlyWithdrawalLimit = other.monthlyWithdrawalLimit;
     }
 
     // Parameterized constructor
-    public Account(int customerId, String accountType, double initialBalance) {
+    public Account(int customerId, AccountType accountType, long initialBalance) {
         this();
         this.customerId = customerId;
         this.accountType = accountType;
         this.balance = initialBalance;
-        this.accountNumber = generateAccountNumber();
-        setAccountDefaults();
+        setAccountDefaults(); // account number is assigned when the account is saved
     }
 
     // Getters and Setters
@@ -71,20 +92,20 @@ public class Account extends BankEntity implements Transactionable, Reportable {
         this.accountNumber = accountNumber;
     }
 
-    public String getAccountType() {
+    public AccountType getAccountType() {
         return accountType;
     }
 
-    public void setAccountType(String accountType) {
+    public void setAccountType(AccountType accountType) {
         this.accountType = accountType;
         setAccountDefaults();
     }
 
-    public double getBalance() {
+    public long getBalance() {
         return balance;
     }
 
-    public void setBalance(double balance) {
+    public void setBalance(long balance) {
         this.balance = balance;
     }
 
@@ -112,44 +133,45 @@ public class Account extends BankEntity implements Transactionable, Reportable {
         this.lastTransactionDate = lastTransactionDate;
     }
 
-    public String getStatus() {
+    public AccountStatus getStatus() {
         return status;
     }
 
-    public void setStatus(String status) {
+    public void setStatus(AccountStatus status) {
         this.status = status;
     }
 
-    public double getMinimumBalance() {
+    public long getMinimumBalance() {
         return minimumBalance;
     }
 
-    public void setMinimumBalance(double minimumBalance) {
+    public void setMinimumBalance(long minimumBalance) {
         this.minimumBalance = minimumBalance;
     }
 
-    public double getDailyWithdrawalLimit() {
+    public long getDailyWithdrawalLimit() {
         return dailyWithdrawalLimit;
     }
 
-    public void setDailyWithdrawalLimit(double dailyWithdrawalLimit) {
+    public void setDailyWithdrawalLimit(long dailyWithdrawalLimit) {
         this.dailyWithdrawalLimit = dailyWithdrawalLimit;
     }
 
-    public double getMonthlyWithdrawalLimit() {
+    public long getMonthlyWithdrawalLimit() {
         return monthlyWithdrawalLimit;
     }
 
-    public void setMonthlyWithdrawalLimit(double monthlyWithdrawalLimit) {
+    public void setMonthlyWithdrawalLimit(long monthlyWithdrawalLimit) {
         this.monthlyWithdrawalLimit = monthlyWithdrawalLimit;
     }
 
     // Business methods
+    @Override
     public boolean isActive() {
-        return "ACTIVE".equals(status);
+        return status == AccountStatus.ACTIVE;
     }
 
-    public boolean hasSufficientBalance(double amount) {
+    public boolean hasSufficientBalance(long amount) {
         return balance >= amount;
     }
 
@@ -157,16 +179,16 @@ public class Account extends BankEntity implements Transactionable, Reportable {
         return balance >= minimumBalance;
     }
 
-    public void deposit(double amount) {
+    public void deposit(long amount) {
         if (amount > 0 && isActive()) {
-            this.balance += amount;
+            this.balance = Money.add(balance, amount);
             this.lastTransactionDate = LocalDateTime.now();
         }
     }
 
-    public boolean withdraw(double amount) {
+    public boolean withdraw(long amount) {
         if (amount > 0 && isActive() && hasSufficientBalance(amount)) {
-            this.balance -= amount;
+            this.balance = Money.subtract(balance, amount);
             this.lastTransactionDate = LocalDateTime.now();
             return true;
         }
@@ -175,54 +197,47 @@ public class Account extends BankEntity implements Transactionable, Reportable {
 
     public void addInterest() {
         if (isActive() && balance > 0) {
-            double interest = balance * (interestRate / 100);
-            this.balance += interest;
+            long interest = Money.multiply(balance, interestRate / 100);
+            this.balance = Money.add(balance, interest);
         }
     }
 
     public void freeze() {
-        this.status = "FROZEN";
+        this.status = AccountStatus.FROZEN;
     }
 
     public void unfreeze() {
-        this.status = "ACTIVE";
+        this.status = AccountStatus.ACTIVE;
     }
 
     public void close() {
-        this.status = "CLOSED";
+        this.status = AccountStatus.CLOSED;
     }
 
     // Private helper methods
-    private String generateAccountNumber() {
-        // Simple account number generation - in real app, use more sophisticated logic
-        return "WB" + System.currentTimeMillis() % 1000000;
-    }
-
     private void setAccountDefaults() {
+        if (accountType == null) {
+            return;
+        }
         switch (accountType) {
-            case "SAVINGS":
+            case SAVINGS:
                 this.interestRate = 2.5;
-                this.minimumBalance = 100.0;
-                this.dailyWithdrawalLimit = 5000.0;
-                this.monthlyWithdrawalLimit = 50000.0;
+                this.minimumBalance = 10_000;
+                this.dailyWithdrawalLimit = 500_000;
+                this.monthlyWithdrawalLimit = 5_000_000;
                 break;
-            case "CHECKING":
+            case CHECKING:
                 this.interestRate = 0.5;
-                this.minimumBalance = 0.0;
-                this.dailyWithdrawalLimit = 10000.0;
-                this.monthlyWithdrawalLimit = 100000.0;
+                this.minimumBalance = 0;
+                this.dailyWithdrawalLimit = 1_000_000;
+                this.monthlyWithdrawalLimit = 10_000_000;
                 break;
-            case "FIXED_DEPOSIT":
+            case FIXED_DEPOSIT:
                 this.interestRate = 8.0;
-                this.minimumBalance = 1000.0;
-                this.dailyWithdrawalLimit = 0.0; // No withdrawals for fixed deposits
-                this.monthlyWithdrawalLimit = 0.0;
+                this.minimumBalance = 100_000;
+                this.dailyWithdrawalLimit = 0; // No withdrawals for fixed deposits
+                this.monthlyWithdrawalLimit = 0;
                 break;
-            default:
-                this.interestRate = 1.0;
-                this.minimumBalance = 0.0;
-                this.dailyWithdrawalLimit = 5000.0;
-                this.monthlyWithdrawalLimit = 50000.0;
         }
     }
 
@@ -249,8 +264,7 @@ public class Account extends BankEntity implements Transactionable, Reportable {
     
     @Override
     public boolean isValid() {
-        return accountNumber != null && !accountNumber.isEmpty() && 
-               accountType != null && !accountType.isEmpty();
+        return accountNumber != null && !accountNumber.isEmpty() && accountType != null;
     }
     
     // Transactionable interface implementation
@@ -260,21 +274,21 @@ public class Account extends BankEntity implements Transactionable, Reportable {
     }
     
     @Override
-    public void updateBalance(double amount) {
-        this.balance += amount;
+    public void updateBalance(long amount) {
+        this.balance = Money.add(balance, amount);
         this.lastTransactionDate = LocalDateTime.now();
     }
     
     @Override
-    public double getTransactionLimit() {
+    public long getTransactionLimit() {
         return dailyWithdrawalLimit;
     }
     
     // Reportable interface implementation
     @Override
     public String generateSummary() {
-        return String.format("Account %s: %s, Balance: %.2f, Status: %s", 
-                           accountNumber, accountType, balance, status);
+        return String.format("Account %s: %s, Balance: %s, Status: %s", 
+                           accountNumber, accountType, Money.format(balance), status);
     }
     
     @Override
@@ -283,7 +297,7 @@ public class Account extends BankEntity implements Transactionable, Reportable {
         details.add("Account ID: " + accountId);
         details.add("Account Number: " + accountNumber);
         details.add("Type: " + accountType);
-        details.add("Balance: " + balance);
+        details.add("Balance: " + Money.format(balance));
         details.add("Interest Rate: " + interestRate + "%");
         details.add("Status: " + status);
         details.add("Opening Date: " + openingDate);
@@ -295,18 +309,9 @@ public class Account extends BankEntity implements Transactionable, Reportable {
         return accountId > 0 && accountNumber != null;
     }
     
-    // Method overriding example
-    @Override
-    public void updateStatus(String newStatus) {
-        super.updateStatus(newStatus);
-        if ("FROZEN".equals(newStatus)) {
-            // Additional logic for frozen accounts
-        }
-    }
-    
     @Override
     public String toString() {
-        return String.format("Account{id=%d, number='%s', type='%s', balance=%.2f, status='%s'}",
-                accountId, accountNumber, accountType, balance, status);
+        return String.format("Account{id=%d, number='%s', type='%s', balance=%s, status='%s'}",
+                accountId, accountNumber, accountType, Money.format(balance), status);
     }
 } 
\ No newline at end of file
@@ -0,0 +1,29 @@
+package com.waribank.model;
+
+/**
+ * Lifecycle of an account; stored in accounts.status by code
+ *
+ * @author Albert Fekadu Wari
+ */
+public enum AccountStatus implements Coded {
+    ACTIVE(1),
+    FROZEN(2),
+    CLOSED(3);
+
+    private static final AccountStatus[] BY_CODE = Coded.index(values());
+
+    private final int code;
+
+    AccountStatus(int code) {
+        this.code = code;
+    }
+
+    @Override
+    public int getCode() {
+        return code;
+    }
+
+    public static AccountStatus fromCode(int code) {
+        return Coded.lookup(BY_CODE, code, "account status");
+    }
+}
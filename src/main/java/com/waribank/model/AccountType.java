@@ -0,0 +1,29 @@
+package com.waribank.model;
+
+/**
+ * Kind of account; stored in accounts.account_type by code
+ *
+ * @author Albert Fekadu Wari
+ */
+public enum AccountType implements Coded {
+    SAVINGS(1),
+    CHECKING(2),
+    FIXED_DEPOSIT(3);
+
+    private static final AccountType[] BY_CODE = Coded.index(values());
+
+    private final int code;
+
+    AccountType(int code) {
+        this.code = code;
+    }
+
+    @Override
+    public int getCode() {
+        return code;
+    }
+
+    public static AccountType fromCode(int code) {
+        return Coded.lookup(BY_CODE, code, "account type");
+    }
+}
@@ -10,16 +10,15 @@ import java.time.LocalDateTime;
 public abstract class BankEntity {
     protected int id;
     protected LocalDateTime createdAt;
-    protected String status;
     
     public BankEntity() {
         this.createdAt = LocalDateTime.now();
-        this.status = "ACTIVE";
     }
     
     // Abstract methods that subclasses must implement
     public abstract String getDisplayName();
     public abstract boolean isValid();
+    public abstract boolean isActive();
     
     // Common methods for all entities
     public int getId() {
@@ -37,26 +36,4 @@ public abstract class BankEntity {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
-    
-    public String getStatus() {
-        return status;
-    }
-    
-    public void setStatus(String status) {
-        this.status = status;
-    }
-    
-    public boolean isActive() {
-        return "ACTIVE".equals(status);
-    }
-    
-    // Method overloading example
-    public void updateStatus(String newStatus) {
-        this.status = newStatus;
-    }
-    
-    public void updateStatus(String newStatus, String reason) {
-        this.status = newStatus;
-        // In a real app, you might log the reason
-    }
 } 
\ No newline at end of file
@@ -0,0 +1,42 @@
+package com.waribank.model;
+
+import java.util.Arrays;
+
+/**
+ * An enum stored in the database as a small integer code instead of its name.
+ *
+ * Codes belong to the schema: once assigned they never change and are never
+ * reused, so constants can be added or reordered without a migration. Code 0
+ * is left unassigned so a NULL read through getInt is never mistaken for a value.
+ *
+ * @author Albert Fekadu Wari
+ */
+public interface Coded {
+    int getCode();
+
+    /**
+     * Table from code to constant, built once per enum for {@link #lookup}
+     */
+    static <E extends Enum<E> & Coded> E[] index(E[] values) {
+        int max = 0;
+        for (E value : values) {
+            max = Math.max(max, value.getCode());
+        }
+        E[] table = Arrays.copyOf(values, max + 1);
+        Arrays.fill(table, null);
+        for (E value : values) {
+            if (value.getCode() <= 0 || table[value.getCode()] != null) {
+                throw new IllegalStateException("Bad or duplicate code " + value.getCode() + " for " + value);
+            }
+            table[value.getCode()] = value;
+        }
+        return table;
+    }
+
+    static <E extends Enum<E> & Coded> E lookup(E[] table, int code, String kind) {
+        if (code <= 0 || code >= table.length || table[code] == null) {
+            throw new IllegalArgumentException("Unknown " + kind + " code: " + code);
+        }
+        return table[code];
+    }
+}
@@ -19,7 +19,7 @@ public class Customer extends BankEntity implements Reportable {
     private String address;
     private String nationalId;
     private LocalDateTime registrationDate;
-    private String status; // ACTIVE, INACTIVE, SUSPENDED
+    private CustomerStatus status;
     private double creditScore;
 
     // Default constructor
@@ -27,6 +27,24 @@ public class Customer extends BankEntity implements Reportable {
         super();
         this.registrationDate = LocalDateTime.now();
         this.creditScore = 0.0;
+        this.status = CustomerStatus.ACTIVE;
+    }
+
+    // Copy constructor
+    public Customer(Customer other) {
+        super();
+        this.id = other.id;
+        this.createdAt = other.createdAt;
+        this.customerId = other.customerId;
+        this.firstName = other.firstName;
+        this.lastName = other.lastName;
+        this.email = other.email;
+        this.phoneNumber = other.phoneNumber;
+        this.address = other.address;
+        this.nationalId = other.nationalId;
+        this.registrationDate = other.registrationDate;
+        this.status = other.status;
+        this.creditScore = other.creditScore;
     }
 
     // Parameterized constructor
@@ -106,11 +124,11 @@ public class Customer extends BankEntity implements Reportable {
         this.registrationDate = registrationDate;
     }
 
-    public String getStatus() {
+    public CustomerStatus getStatus() {
         return status;
     }
 
-    public void setStatus(String status) {
+    public void setStatus(CustomerStatus status) {
         this.status = status;
     }
 
@@ -127,20 +145,21 @@ public class Customer extends BankEntity implements Reportable {
     }
 
     // Business methods
+    @Override
     public boolean isActive() {
-        return "ACTIVE".equals(status);
+        return status == CustomerStatus.ACTIVE;
     }
 
     public void activate() {
-        this.status = "ACTIVE";
+        this.status = CustomerStatus.ACTIVE;
     }
 
     public void suspend() {
-        this.status = "SUSPENDED";
+        this.status = CustomerStatus.SUSPENDED;
     }
 
     public void deactivate() {
-        this.status = "INACTIVE";
+        this.status = CustomerStatus.INACTIVE;
     }
 
     public void updateCreditScore(double newScore) {
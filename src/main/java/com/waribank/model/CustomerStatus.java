@@ -0,0 +1,29 @@
+package com.waribank.model;
+
+/**
+ * Standing of a customer; stored in customers.status by code
+ *
+ * @author Albert Fekadu Wari
+ */
+public enum CustomerStatus implements Coded {
+    ACTIVE(1),
+    INACTIVE(2),
+    SUSPENDED(3);
+
+    private static final CustomerStatus[] BY_CODE = Coded.index(values());
+
+    private final int code;
+
+    CustomerStatus(int code) {
+        this.code = code;
+    }
+
+    @Override
+    public int getCode() {
+        return code;
+    }
+
+    public static CustomerStatus fromCode(int code) {
+        return Coded.lookup(BY_CODE, code, "customer status");
+    }
+}
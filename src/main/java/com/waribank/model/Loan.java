@@ -6,38 +6,40 @@ import java.util.Objects;
 /**
  * Loan entity representing a loan application and disbursement
  * 
+ * Amounts are in minor units; see {@link Money}.
+ * 
  * @author Albert Fekadu Wari
  */
 public class Loan {
     private int loanId;
     private int customerId;
     private int accountId;
-    private double loanAmount;
+    private long loanAmount;
     private double interestRate;
     private int termInMonths;
-    private String loanType; // PERSONAL, BUSINESS, EDUCATION, AGRICULTURE
+    private LoanType loanType;
     private String purpose;
     private LocalDateTime applicationDate;
     private LocalDateTime approvalDate;
     private LocalDateTime disbursementDate;
     private LocalDateTime dueDate;
-    private String status; // PENDING, APPROVED, DISBURSED, ACTIVE, COMPLETED, DEFAULTED
-    private double monthlyPayment;
-    private double remainingBalance;
+    private LoanStatus status;
+    private long monthlyPayment;
+    private long remainingBalance;
     private String approvedBy;
     private String rejectionReason;
 
     // Default constructor
     public Loan() {
         this.applicationDate = LocalDateTime.now();
-        this.status = "PENDING";
-        this.remainingBalance = 0.0;
-        this.monthlyPayment = 0.0;
+        this.status = LoanStatus.PENDING;
+        this.remainingBalance = 0;
+        this.monthlyPayment = 0;
     }
 
     // Parameterized constructor
-    public Loan(int customerId, int accountId, double loanAmount, int termInMonths, 
-                String loanType, String purpose) {
+    public Loan(int customerId, int accountId, long loanAmount, int termInMonths, 
+                LoanType loanType, String purpose) {
         this();
         this.customerId = customerId;
         this.accountId = accountId;
@@ -74,11 +76,11 @@ public class Loan {
         this.accountId = accountId;
     }
 
-    public double getLoanAmount() {
+    public long getLoanAmount() {
         return loanAmount;
     }
 
-    public void setLoanAmount(double loanAmount) {
+    public void setLoanAmount(long loanAmount) {
         this.loanAmount = loanAmount;
     }
 
@@ -98,11 +100,11 @@ public class Loan {
         this.termInMonths = termInMonths;
     }
 
-    public String getLoanType() {
+    public LoanType getLoanType() {
         return loanType;
     }
 
-    public void setLoanType(String loanType) {
+    public void setLoanType(LoanType loanType) {
         this.loanType = loanType;
         setLoanDefaults();
     }
@@ -147,27 +149,27 @@ public class Loan {
         this.dueDate = dueDate;
     }
 
-    public String getStatus() {
+    public LoanStatus getStatus() {
         return status;
     }
 
-    public void setStatus(String status) {
+    public void setStatus(LoanStatus status) {
         this.status = status;
     }
 
-    public double getMonthlyPayment() {
+    public long getMonthlyPayment() {
         return monthlyPayment;
     }
 
-    public void setMonthlyPayment(double monthlyPayment) {
+    public void setMonthlyPayment(long monthlyPayment) {
         this.monthlyPayment = monthlyPayment;
     }
 
-    public double getRemainingBalance() {
+    public long getRemainingBalance() {
         return remainingBalance;
     }
 
-    public void setRemainingBalance(double remainingBalance) {
+    public void setRemainingBalance(long remainingBalance) {
         this.remainingBalance = remainingBalance;
     }
 
@@ -189,53 +191,53 @@ public class Loan {
 
     // Business methods
     public boolean isPending() {
-        return "PENDING".equals(status);
+        return status == LoanStatus.PENDING;
     }
 
     public boolean isApproved() {
-        return "APPROVED".equals(status);
+        return status == LoanStatus.APPROVED;
     }
 
     public boolean isDisbursed() {
-        return "DISBURSED".equals(status);
+        return status == LoanStatus.DISBURSED;
     }
 
     public boolean isActive() {
-        return "ACTIVE".equals(status);
+        return status == LoanStatus.ACTIVE;
     }
 
     public boolean isCompleted() {
-        return "COMPLETED".equals(status);
+        return status == LoanStatus.COMPLETED;
     }
 
     public boolean isDefaulted() {
-        return "DEFAULTED".equals(status);
+        return status == LoanStatus.DEFAULTED;
     }
 
     public void approve(String approvedBy) {
-        this.status = "APPROVED";
+        this.status = LoanStatus.APPROVED;
         this.approvalDate = LocalDateTime.now();
         this.approvedBy = approvedBy;
         calculateMonthlyPayment();
     }
 
     public void reject(String reason) {
-        this.status = "REJECTED";
+        this.status = LoanStatus.REJECTED;
         this.rejectionReason = reason;
     }
 
     public void disburse() {
-        this.status = "DISBURSED";
+        this.status = LoanStatus.DISBURSED;
         this.disbursementDate = LocalDateTime.now();
         this.dueDate = disbursementDate.plusMonths(termInMonths);
-        this.status = "ACTIVE";
+        this.status = LoanStatus.ACTIVE;
     }
 
-    public void makePayment(double amount) {
+    public void makePayment(long amount) {
         if (isActive() && amount > 0) {
-            this.remainingBalance -= amount;
+            this.remainingBalance = Money.subtract(remainingBalance, amount);
             if (this.remainingBalance <= 0) {
-                this.status = "COMPLETED";
+                this.status = LoanStatus.COMPLETED;
                 this.remainingBalance = 0;
             }
         }
@@ -255,39 +257,40 @@ public class Loan {
         return 0;
     }
 
-    public double getTotalInterest() {
-        return (loanAmount * interestRate * termInMonths) / (12 * 100);
+    public long getTotalInterest() {
+        return Money.multiply(loanAmount, interestRate * termInMonths / (12 * 100));
     }
 
-    public double getTotalAmount() {
-        return loanAmount + getTotalInterest();
+    public long getTotalAmount() {
+        return Money.add(loanAmount, getTotalInterest());
     }
 
     // Private helper methods
     private void setLoanDefaults() {
+        if (loanType == null) {
+            return;
+        }
         switch (loanType) {
-            case "PERSONAL":
+            case PERSONAL:
                 this.interestRate = 12.0;
                 break;
-            case "BUSINESS":
+            case BUSINESS:
                 this.interestRate = 10.0;
                 break;
-            case "EDUCATION":
+            case EDUCATION:
                 this.interestRate = 8.0;
                 break;
-            case "AGRICULTURE":
+            case AGRICULTURE:
                 this.interestRate = 6.0;
                 break;
-            default:
-                this.interestRate = 15.0;
         }
     }
 
     private void calculateMonthlyPayment() {
         if (termInMonths > 0) {
             double monthlyRate = interestRate / (12 * 100);
-            double totalAmount = getTotalAmount();
-            this.monthlyPayment = totalAmount / termInMonths;
+            long totalAmount = getTotalAmount();
+            this.monthlyPayment = Money.multiply(totalAmount, 1.0 / termInMonths);
         }
     }
 
@@ -307,7 +310,7 @@ public class Loan {
 
     @Override
     public String toString() {
-        return String.format("Loan{id=%d, amount=%.2f, type='%s', status='%s', remaining=%.2f}",
-                loanId, loanAmount, loanType, status, remainingBalance);
+        return String.format("Loan{id=%d, amount=%s, type='%s', status='%s', remaining=%s}",
+                loanId, Money.format(loanAmount), loanType, status, Money.format(remainingBalance));
     }
 } 
\ No newline at end of file
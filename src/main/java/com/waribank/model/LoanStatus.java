@@ -0,0 +1,33 @@
+package com.waribank.model;
+
+/**
+ * Lifecycle of a loan; stored in loans.status by code
+ *
+ * @author Albert Fekadu Wari
+ */
+public enum LoanStatus implements Coded {
+    PENDING(1),
+    APPROVED(2),
+    REJECTED(3),
+    DISBURSED(4),
+    ACTIVE(5),
+    COMPLETED(6),
+    DEFAULTED(7);
+
+    private static final LoanStatus[] BY_CODE = Coded.index(values());
+
+    private final int code;
+
+    LoanStatus(int code) {
+        this.code = code;
+    }
+
+    @Override
+    public int getCode() {
+        return code;
+    }
+
+    public static LoanStatus fromCode(int code) {
+        return Coded.lookup(BY_CODE, code, "loan status");
+    }
+}
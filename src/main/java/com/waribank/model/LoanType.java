@@ -0,0 +1,30 @@
+package com.waribank.model;
+
+/**
+ * Kind of loan; stored in loans.loan_type by code
+ *
+ * @author Albert Fekadu Wari
+ */
+public enum LoanType implements Coded {
+    PERSONAL(1),
+    BUSINESS(2),
+    EDUCATION(3),
+    AGRICULTURE(4);
+
+    private static final LoanType[] BY_CODE = Coded.index(values());
+
+    private final int code;
+
+    LoanType(int code) {
+        this.code = code;
+    }
+
+    @Override
+    public int getCode() {
+        return code;
+    }
+
+    public static LoanType fromCode(int code) {
+        return Coded.lookup(BY_CODE, code, "loan type");
+    }
+}
@@ -0,0 +1,209 @@
+package com.waribank.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point money in minor units (hundredths of a birr).
+ *
+ * Amounts are carried through the models, DAOs and database as plain
+ * {@code long} minor units, so hot paths add and compare them without
+ * allocating or rounding. The static helpers below do the arithmetic on
+ * primitives and fail on overflow instead of wrapping. A Money instance wraps
+ * the same value for code that prefers a type over a bare long.
+ *
+ * Conversion from doubles (interest rates, amortisation) rounds half-even to the
+ * nearest minor unit; parsing user input is exact and rejects more than two
+ * decimal places.
+ *
+ * @author Albert Fekadu Wari
+ */
+public final class Money implements Comparable<Money> {
+    public static final int SCALE = 2;
+    public static final long MINOR_PER_MAJOR = 100;
+    public static final Money ZERO = new Money(0);
+
+    private final long minor;
+
+    private Money(long minor) {
+        this.minor = minor;
+    }
+
+    public static Money ofMinor(long minor) {
+        return minor == 0 ? ZERO : new Money(minor);
+    }
+
+    public static Money parseMoney(String text) {
+        return ofMinor(parse(text));
+    }
+
+    // Getters
+    public long getMinor() { return minor; }
+
+    public Money plus(Money other) {
+        return ofMinor(add(minor, other.minor));
+    }
+
+    public Money minus(Money other) {
+        return ofMinor(subtract(minor, other.minor));
+    }
+
+    public Money times(double factor) {
+        return ofMinor(multiply(minor, factor));
+    }
+
+    public boolean isNegative() {
+        return minor < 0;
+    }
+
+    public boolean isPositive() {
+        return minor > 0;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minor, SCALE);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minor, other.minor);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof Money && ((Money) obj).minor == minor;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(minor);
+    }
+
+    @Override
+    public String toString() {
+        return format(minor);
+    }
+
+    // Primitive helpers
+
+    public static long add(long a, long b) {
+        return Math.addExact(a, b);
+    }
+
+    public static long subtract(long a, long b) {
+        return Math.subtractExact(a, b);
+    }
+
+    public static long negate(long minor) {
+        return Math.negateExact(minor);
+    }
+
+    public static long multiply(long minor, long factor) {
+        return Math.multiplyExact(minor, factor);
+    }
+
+    /**
+     * Scale by a fractional factor (a rate, a share), rounding half-even to a minor unit
+     */
+    public static long multiply(long minor, double factor) {
+        return roundMinor(minor * factor);
+    }
+
+    /**
+     * Minor units for a decimal amount, rounded half-even; for computed values, not user input
+     */
+    public static long fromMajor(double major) {
+        if (Double.isNaN(major) || Double.isInfinite(major)) {
+            throw new ArithmeticException("Not a finite amount: " + major);
+        }
+        return roundMinor(major * MINOR_PER_MAJOR);
+    }
+
+    public static double toMajor(long minor) {
+        return minor / (double) MINOR_PER_MAJOR;
+    }
+
+    public static long fromBigDecimal(BigDecimal amount) {
+        return amount.setScale(SCALE, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Parse a decimal amount such as "1250", "-3.5" or "0.05" exactly
+     *
+     * @throws NumberFormatException if the text is not a number with at most two decimal places
+     */
+    public static long parse(String text) {
+        String s = text.trim();
+        int i = 0;
+        boolean negative = false;
+        if (!s.isEmpty() && (s.charAt(0) == '-' || s.charAt(0) == '+')) {
+            negative = s.charAt(0) == '-';
+            i = 1;
+        }
+
+        long major = 0;
+        int majorDigits = 0;
+        for (; i < s.length() && s.charAt(i) != '.'; i++, majorDigits++) {
+            major = Math.addExact(Math.multiplyExact(major, 10), digit(s, i));
+        }
+        long fraction = 0;
+        int fractionDigits = 0;
+        if (i < s.length()) {
+            for (i++; i < s.length(); i++, fractionDigits++) {
+                if (fractionDigits == SCALE) {
+                    throw new NumberFormatException("At most " + SCALE + " decimal places allowed: " + text);
+                }
+                fraction = fraction * 10 + digit(s, i);
+            }
+        }
+        if (majorDigits + fractionDigits == 0) {
+            throw new NumberFormatException("Not an amount: " + text);
+        }
+        for (; fractionDigits < SCALE; fractionDigits++) {
+            fraction *= 10;
+        }
+
+        long minor = Math.addExact(Math.multiplyExact(major, MINOR_PER_MAJOR), fraction);
+        return negative ? -minor : minor;
+    }
+
+    /**
+     * Plain decimal with two places, e.g. "-1234.50"; no grouping, so it parses back
+     */
+    public static String format(long minor) {
+        StringBuilder sb = new StringBuilder(24);
+        if (minor < 0) {
+            sb.append('-');
+        }
+        long major = Math.abs(minor / MINOR_PER_MAJOR);
+        int cents = (int) Math.abs(minor % MINOR_PER_MAJOR);
+        sb.append(major).append('.');
+        if (cents < 10) {
+            sb.append('0');
+        }
+        return sb.append(cents).toString();
+    }
+
+    /**
+     * Decimal with thousands separators, e.g. "1,234.50", for display
+     */
+    public static String formatGrouped(long minor) {
+        return String.format("%s%,d.%02d", minor < 0 ? "-" : "", Math.abs(minor / MINOR_PER_MAJOR),
+                             Math.abs(minor % MINOR_PER_MAJOR));
+    }
+
+    private static long roundMinor(double minor) {
+        if (Double.isNaN(minor) || Math.abs(minor) >= 0x1p52) {
+            throw new ArithmeticException("Amount out of range: " + minor);
+        }
+        return (long) Math.rint(minor);
+    }
+
+    private static int digit(String s, int index) {
+        char c = s.charAt(index);
+        if (c < '0' || c > '9') {
+            throw new NumberFormatException("Not an amount: " + s);
+        }
+        return c - '0';
+    }
+}
@@ -1,34 +1,38 @@
 package com.waribank.model;
 
+import com.waribank.utils.IdGenerator;
+
 import java.time.LocalDateTime;
 import java.util.Objects;
 
 /**
  * Transaction entity representing a bank transaction
  * 
+ * Amounts are in minor units; see {@link Money}.
+ * 
  * @author Albert Fekadu Wari
  */
 public class Transaction {
     private int transactionId;
     private int accountId;
-    private String transactionType; // DEPOSIT, WITHDRAWAL, TRANSFER, LOAN_DISBURSEMENT, LOAN_REPAYMENT
-    private double amount;
+    private TransactionType transactionType;
+    private long amount;
     private String description;
     private LocalDateTime transactionDate;
-    private String status; // PENDING, COMPLETED, FAILED, CANCELLED
+    private TransactionStatus status;
     private String referenceNumber;
     private Integer toAccountId; // For transfers
-    private double balanceAfterTransaction;
+    private long balanceAfterTransaction;
 
     // Default constructor
     public Transaction() {
         this.transactionDate = LocalDateTime.now();
-        this.status = "PENDING";
+        this.status = TransactionStatus.PENDING;
         this.referenceNumber = generateReferenceNumber();
     }
 
     // Parameterized constructor
-    public Transaction(int accountId, String transactionType, double amount, String description) {
+    public Transaction(int accountId, TransactionType transactionType, long amount, String description) {
         this();
         this.accountId = accountId;
         this.transactionType = transactionType;
@@ -53,19 +57,19 @@ public class Transaction {
         this.accountId = accountId;
     }
 
-    public String getTransactionType() {
+    public TransactionType getTransactionType() {
         return transactionType;
     }
 
-    public void setTransactionType(String transactionType) {
+    public void setTransactionType(TransactionType transactionType) {
         this.transactionType = transactionType;
     }
 
-    public double getAmount() {
+    public long getAmount() {
         return amount;
     }
 
-    public void setAmount(double amount) {
+    public void setAmount(long amount) {
         this.amount = amount;
     }
 
@@ -85,11 +89,11 @@ public class Transaction {
         this.transactionDate = transactionDate;
     }
 
-    public String getStatus() {
+    public TransactionStatus getStatus() {
         return status;
     }
 
-    public void setStatus(String status) {
+    public void setStatus(TransactionStatus status) {
         this.status = status;
     }
 
@@ -109,58 +113,58 @@ public class Transaction {
         this.toAccountId = toAccountId;
     }
 
-    public double getBalanceAfterTransaction() {
+    public long getBalanceAfterTransaction() {
         return balanceAfterTransaction;
     }
 
-    public void setBalanceAfterTransaction(double balanceAfterTransaction) {
+    public void setBalanceAfterTransaction(long balanceAfterTransaction) {
         this.balanceAfterTransaction = balanceAfterTransaction;
     }
 
     // Business methods
     public boolean isCompleted() {
-        return "COMPLETED".equals(status);
+        return status == TransactionStatus.COMPLETED;
     }
 
     public boolean isPending() {
-        return "PENDING".equals(status);
+        return status == TransactionStatus.PENDING;
     }
 
     public boolean isFailed() {
-        return "FAILED".equals(status);
+        return status == TransactionStatus.FAILED;
     }
 
     public void markCompleted() {
-        this.status = "COMPLETED";
+        this.status = TransactionStatus.COMPLETED;
     }
 
     public void markFailed() {
-        this.status = "FAILED";
+        this.status = TransactionStatus.FAILED;
     }
 
     public void markCancelled() {
-        this.status = "CANCELLED";
+        this.status = TransactionStatus.CANCELLED;
     }
 
     public boolean isCredit() {
-        return "DEPOSIT".equals(transactionType) || 
-               "TRANSFER".equals(transactionType) && toAccountId != null;
+        return transactionType == TransactionType.DEPOSIT ||
+               transactionType == TransactionType.TRANSFER && toAccountId != null;
     }
 
     public boolean isDebit() {
-        return "WITHDRAWAL".equals(transactionType) || 
-               "TRANSFER".equals(transactionType) && toAccountId == null;
+        return transactionType == TransactionType.WITHDRAWAL ||
+               transactionType == TransactionType.TRANSFER && toAccountId == null;
     }
 
     public String getFormattedAmount() {
         String sign = isCredit() ? "+" : "-";
-        return sign + String.format("%.2f", amount);
+        return sign + Money.format(amount);
     }
 
     // Private helper methods
     private String generateReferenceNumber() {
-        // Simple reference number generation
-        return "TXN" + System.currentTimeMillis() % 1000000;
+        // Time-ordered and unique per node, so it also sorts in creation order
+        return IdGenerator.getDefault().nextReference("TXN");
     }
 
     // Override methods
@@ -180,7 +184,7 @@ public class Transaction {
 
     @Override
     public String toString() {
-        return String.format("Transaction{id=%d, type='%s', amount=%.2f, status='%s', ref='%s'}",
-                transactionId, transactionType, amount, status, referenceNumber);
+        return String.format("Transaction{id=%d, type='%s', amount=%s, status='%s', ref='%s'}",
+                transactionId, transactionType, Money.format(amount), status, referenceNumber);
     }
 } 
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.waribank.model;
+
+/**
+ * Outcome of a posting; stored in transactions.status by code
+ *
+ * @author Albert Fekadu Wari
+ */
+public enum TransactionStatus implements Coded {
+    PENDING(1),
+    COMPLETED(2),
+    FAILED(3),
+    CANCELLED(4);
+
+    private static final TransactionStatus[] BY_CODE = Coded.index(values());
+
+    private final int code;
+
+    TransactionStatus(int code) {
+        this.code = code;
+    }
+
+    @Override
+    public int getCode() {
+        return code;
+    }
+
+    public static TransactionStatus fromCode(int code) {
+        return Coded.lookup(BY_CODE, code, "transaction status");
+    }
+}
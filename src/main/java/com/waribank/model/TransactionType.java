@@ -0,0 +1,31 @@
+package com.waribank.model;
+
+/**
+ * Kind of posting; stored in transactions.transaction_type by code
+ *
+ * @author Albert Fekadu Wari
+ */
+public enum TransactionType implements Coded {
+    DEPOSIT(1),
+    WITHDRAWAL(2),
+    TRANSFER(3),
+    LOAN_DISBURSEMENT(4),
+    LOAN_REPAYMENT(5);
+
+    private static final TransactionType[] BY_CODE = Coded.index(values());
+
+    private final int code;
+
+    TransactionType(int code) {
+        this.code = code;
+    }
+
+    @Override
+    public int getCode() {
+        return code;
+    }
+
+    public static TransactionType fromCode(int code) {
+        return Coded.lookup(BY_CODE, code, "transaction type");
+    }
+}
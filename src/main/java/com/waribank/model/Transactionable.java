@@ -13,17 +13,17 @@ public interface Transactionable {
     boolean canPerformTransaction();
     
     /**
-     * Get the current balance
+     * Get the current balance in minor units
      */
-    double getBalance();
+    long getBalance();
     
     /**
-     * Update the balance
+     * Update the balance by an amount in minor units
      */
-    void updateBalance(double amount);
+    void updateBalance(long amount);
     
     /**
-     * Get transaction limit
+     * Get transaction limit in minor units
      */
-    double getTransactionLimit();
+    long getTransactionLimit();
 } 
\ No newline at end of file
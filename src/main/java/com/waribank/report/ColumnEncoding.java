@@ -0,0 +1,47 @@
+package com.waribank.report;
+
+/**
+ * How a column is laid out inside each row group of a columnar export.
+ * All multi-byte values are little-endian.
+ *
+ * @author Albert Fekadu Wari
+ */
+public enum ColumnEncoding {
+
+    /** Four bytes per row; NULL is stored as 0 */
+    INT32(1),
+
+    /** Eight-byte IEEE doubles; NULL is stored as 0.0 */
+    FLOAT64(2),
+
+    /** Zig-zag varint differences from the previous row, starting from 0 in each group */
+    DELTA_INT64(3),
+
+    /** One unsigned byte per row indexing the column's dictionary (at most 256 values) */
+    DICTIONARY(4),
+
+    /** rows + 1 int offsets into the UTF-8 bytes that follow; NULL is stored as empty */
+    STRING(5),
+
+    /** Eight-byte longs, used for money in minor units; NULL is stored as 0 */
+    INT64(6);
+
+    private final byte id;
+
+    ColumnEncoding(int id) {
+        this.id = (byte) id;
+    }
+
+    public byte getId() {
+        return id;
+    }
+
+    public static ColumnEncoding fromId(byte id) {
+        for (ColumnEncoding encoding : values()) {
+            if (encoding.id == id) {
+                return encoding;
+            }
+        }
+        throw new IllegalArgumentException("Unknown column encoding: " + id);
+    }
+}
@@ -0,0 +1,543 @@
+package com.waribank.report;
+
+import com.waribank.database.DatabaseManager;
+import com.waribank.model.AccountStatus;
+import com.waribank.model.AccountType;
+import com.waribank.model.LoanStatus;
+import com.waribank.model.LoanType;
+import com.waribank.model.TransactionStatus;
+import com.waribank.model.TransactionType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.logging.Logger;
+import java.util.logging.Level;
+
+/**
+ * Exports tables to a compact column-oriented file for offline analysis, so
+ * analysts can scan a copy instead of querying the live database.
+ *
+ * Rows are read in primary-key order and buffered into row groups of
+ * {@value #GROUP_ROWS} rows. Each full group is written as one block per
+ * column, encoded as described in {@link ColumnEncoding}: ids and dates as
+ * varint deltas, type and status columns as one-byte dictionary codes, money
+ * as raw longs of minor units and rates as raw doubles. Blocks are 8-byte
+ * aligned so a reader can view them in place. Dictionaries hold the enum names,
+ * not the database's integer codes, so files stand on their own.
+ *
+ * File layout: an 8-byte magic, the column blocks of each group in turn, a
+ * footer (table, columns, dictionaries, and the offset and length of every
+ * block), then the footer's offset and the magic again.
+ *
+ * @author Albert Fekadu Wari
+ */
+public class ColumnarExporter {
+    private static final Logger LOGGER = Logger.getLogger(ColumnarExporter.class.getName());
+    static final byte[] MAGIC = "WBCOLUMN".getBytes(StandardCharsets.US_ASCII);
+    static final int VERSION = 2;
+    static final int GROUP_ROWS = 65_536;
+    /** Stored in place of a NULL timestamp in a DELTA_INT64 column */
+    public static final long NULL_TIMESTAMP = Long.MIN_VALUE;
+    private static final int FETCH_SIZE = 1_000;
+
+    private static final ColumnSpec[] TRANSACTION_COLUMNS = {
+        new ColumnSpec("transaction_id", ColumnEncoding.DELTA_INT64, false),
+        new ColumnSpec("account_id", ColumnEncoding.INT32, false),
+        new ColumnSpec("to_account_id", ColumnEncoding.INT32, false),
+        new ColumnSpec("transaction_type", TransactionType::fromCode),
+        new ColumnSpec("status", TransactionStatus::fromCode),
+        new ColumnSpec("amount", ColumnEncoding.INT64, false),
+        new ColumnSpec("balance_after_transaction", ColumnEncoding.INT64, false),
+        new ColumnSpec("transaction_date", ColumnEncoding.DELTA_INT64, true),
+        new ColumnSpec("reference_number", ColumnEncoding.STRING, false),
+        new ColumnSpec("description", ColumnEncoding.STRING, false)
+    };
+
+    private static final ColumnSpec[] ACCOUNT_COLUMNS = {
+        new ColumnSpec("account_id", ColumnEncoding.DELTA_INT64, false),
+        new ColumnSpec("customer_id", ColumnEncoding.INT32, false),
+        new ColumnSpec("account_number", ColumnEncoding.STRING, false),
+        new ColumnSpec("account_type", AccountType::fromCode),
+        new ColumnSpec("status", AccountStatus::fromCode),
+        new ColumnSpec("balance", ColumnEncoding.INT64, false),
+        new ColumnSpec("interest_rate", ColumnEncoding.FLOAT64, false),
+        new ColumnSpec("opening_date", ColumnEncoding.DELTA_INT64, true)
+    };
+
+    private static final ColumnSpec[] LOAN_COLUMNS = {
+        new ColumnSpec("loan_id", ColumnEncoding.DELTA_INT64, false),
+        new ColumnSpec("customer_id", ColumnEncoding.INT32, false),
+        new ColumnSpec("account_id", ColumnEncoding.INT32, false),
+        new ColumnSpec("loan_type", LoanType::fromCode),
+        new ColumnSpec("status", LoanStatus::fromCode),
+        new ColumnSpec("loan_amount", ColumnEncoding.INT64, false),
+        new ColumnSpec("interest_rate", ColumnEncoding.FLOAT64, false),
+        new ColumnSpec("term_in_months", ColumnEncoding.INT32, false),
+        new ColumnSpec("monthly_payment", ColumnEncoding.INT64, false),
+        new ColumnSpec("remaining_balance", ColumnEncoding.INT64, false),
+        new ColumnSpec("application_date", ColumnEncoding.DELTA_INT64, true)
+    };
+
+    private final DatabaseManager dbManager;
+
+    public ColumnarExporter() {
+        this.dbManager = DatabaseManager.getInstance();
+    }
+
+    public ExportResult exportTransactions(Path target) throws SQLException, IOException {
+        return export("transactions", "transaction_id", TRANSACTION_COLUMNS, target);
+    }
+
+    public ExportResult exportAccounts(Path target) throws SQLException, IOException {
+        return export("accounts", "account_id", ACCOUNT_COLUMNS, target);
+    }
+
+    public ExportResult exportLoans(Path target) throws SQLException, IOException {
+        return export("loans", "loan_id", LOAN_COLUMNS, target);
+    }
+
+    private ExportResult export(String table, String key, ColumnSpec[] specs, Path target)
+            throws SQLException, IOException {
+        Path parent = target.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = target.resolveSibling(target.getFileName() + ".part");
+
+        StringBuilder sql = new StringBuilder("SELECT ");
+        ColumnBuffer[] columns = new ColumnBuffer[specs.length];
+        for (int i = 0; i < specs.length; i++) {
+            sql.append(i == 0 ? "" : ", ").append(specs[i].name);
+            columns[i] = ColumnBuffer.create(specs[i]);
+        }
+        sql.append(" FROM ").append(table).append(" ORDER BY ").append(key);
+
+        BlockWriter writer = null;
+        long rows = 0;
+        long start = System.nanoTime();
+
+        try (Connection conn = dbManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql.toString());
+             FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                 StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+
+            writer = new BlockWriter(channel);
+            writer.writeMagic();
+            pstmt.setFetchSize(FETCH_SIZE);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                int groupRows = 0;
+                while (rs.next()) {
+                    for (int i = 0; i < columns.length; i++) {
+                        columns[i].add(rs, i + 1, groupRows);
+                    }
+                    rows++;
+                    if (++groupRows == GROUP_ROWS) {
+                        writer.writeGroup(columns, groupRows);
+                        groupRows = 0;
+                    }
+                }
+                if (groupRows > 0) {
+                    writer.writeGroup(columns, groupRows);
+                }
+            }
+            writer.writeFooter(table, specs, columns, rows);
+        } catch (SQLException | IOException | RuntimeException e) {
+            deleteQuietly(temp);
+            throw e;
+        }
+
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        ExportResult result = new ExportResult(table, target, rows, Files.size(target), System.nanoTime() - start);
+        LOGGER.info("Columnar export of " + table + " written to " + target + " (" + result + ")");
+        return result;
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Could not delete " + path, e);
+        }
+    }
+
+    private static final class ColumnSpec {
+        final String name;
+        final ColumnEncoding encoding;
+        final boolean timestamp;
+        final IntFunction<? extends Enum<?>> decoder;
+
+        ColumnSpec(String name, ColumnEncoding encoding, boolean timestamp) {
+            this.name = name;
+            this.encoding = encoding;
+            this.timestamp = timestamp;
+            this.decoder = null;
+        }
+
+        /**
+         * A dictionary column over an integer-coded enum, written by name
+         */
+        ColumnSpec(String name, IntFunction<? extends Enum<?>> decoder) {
+            this.name = name;
+            this.encoding = ColumnEncoding.DICTIONARY;
+            this.timestamp = false;
+            this.decoder = decoder;
+        }
+    }
+
+    /**
+     * Writes column blocks and the footer through one reusable little-endian buffer
+     */
+    private static final class BlockWriter {
+        private final FileChannel channel;
+        private final List<Integer> groupRows = new ArrayList<>();
+        private final List<long[]> blockOffsets = new ArrayList<>();
+        private final List<int[]> blockLengths = new ArrayList<>();
+        private ByteBuffer buffer = ByteBuffer.allocate(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+
+        BlockWriter(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        void writeMagic() throws IOException {
+            buffer.clear();
+            buffer.put(MAGIC);
+            flush();
+        }
+
+        void writeGroup(ColumnBuffer[] columns, int rows) throws IOException {
+            long[] offsets = new long[columns.length];
+            int[] lengths = new int[columns.length];
+            for (int i = 0; i < columns.length; i++) {
+                buffer.clear();
+                columns[i].encode(this, rows);
+                offsets[i] = channel.position();
+                lengths[i] = buffer.position();
+                while (buffer.position() % 8 != 0) {
+                    buffer.put((byte) 0);
+                }
+                flush();
+                columns[i].reset();
+            }
+            groupRows.add(rows);
+            blockOffsets.add(offsets);
+            blockLengths.add(lengths);
+        }
+
+        void writeFooter(String table, ColumnSpec[] specs, ColumnBuffer[] columns, long rows) throws IOException {
+            long footerOffset = channel.position();
+            buffer.clear();
+            putInt(VERSION);
+            putString(table);
+            putInt(specs.length);
+            for (int i = 0; i < specs.length; i++) {
+                putString(specs[i].name);
+                ensure(1);
+                buffer.put(specs[i].encoding.getId());
+                if (specs[i].encoding == ColumnEncoding.DICTIONARY) {
+                    List<String> entries = ((DictionaryColumn) columns[i]).entries;
+                    putInt(entries.size());
+                    for (String entry : entries) {
+                        putString(entry);
+                    }
+                }
+            }
+            putLong(rows);
+            putInt(groupRows.size());
+            for (int g = 0; g < groupRows.size(); g++) {
+                putInt(groupRows.get(g));
+                for (int i = 0; i < specs.length; i++) {
+                    putLong(blockOffsets.get(g)[i]);
+                    putInt(blockLengths.get(g)[i]);
+                }
+            }
+            putLong(footerOffset);
+            ensure(MAGIC.length);
+            buffer.put(MAGIC);
+            flush();
+        }
+
+        void ensure(int bytes) {
+            if (buffer.remaining() < bytes) {
+                ByteBuffer larger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes))
+                                              .order(ByteOrder.LITTLE_ENDIAN);
+                buffer.flip();
+                larger.put(buffer);
+                buffer = larger;
+            }
+        }
+
+        void putInt(int value) {
+            ensure(4);
+            buffer.putInt(value);
+        }
+
+        void putLong(long value) {
+            ensure(8);
+            buffer.putLong(value);
+        }
+
+        void putDouble(double value) {
+            ensure(8);
+            buffer.putDouble(value);
+        }
+
+        void putVarLong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer.put((byte) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            buffer.put((byte) value);
+        }
+
+        void putBytes(byte[] bytes, int length) {
+            ensure(length);
+            buffer.put(bytes, 0, length);
+        }
+
+        /** Length-prefixed UTF-8; a length of -1 is NULL */
+        void putString(String value) {
+            if (value == null) {
+                putInt(-1);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            putInt(bytes.length);
+            putBytes(bytes, bytes.length);
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+
+    /**
+     * One column's values for the current row group
+     */
+    private abstract static class ColumnBuffer {
+        static ColumnBuffer create(ColumnSpec spec) {
+            switch (spec.encoding) {
+                case INT32:
+                    return new IntColumn();
+                case FLOAT64:
+                    return new DoubleColumn();
+                case INT64:
+                    return new LongColumn();
+                case DELTA_INT64:
+                    return new DeltaColumn(spec.timestamp);
+                case DICTIONARY:
+                    return new DictionaryColumn(spec.name, spec.decoder);
+                default:
+                    return new StringColumn();
+            }
+        }
+
+        abstract void add(ResultSet rs, int column, int row) throws SQLException;
+
+        abstract void encode(BlockWriter out, int rows);
+
+        void reset() {
+        }
+    }
+
+    private static final class IntColumn extends ColumnBuffer {
+        private final int[] values = new int[GROUP_ROWS];
+
+        @Override
+        void add(ResultSet rs, int column, int row) throws SQLException {
+            values[row] = rs.getInt(column);
+        }
+
+        @Override
+        void encode(BlockWriter out, int rows) {
+            out.ensure(rows * 4);
+            for (int i = 0; i < rows; i++) {
+                out.buffer.putInt(values[i]);
+            }
+        }
+    }
+
+    private static final class DoubleColumn extends ColumnBuffer {
+        private final double[] values = new double[GROUP_ROWS];
+
+        @Override
+        void add(ResultSet rs, int column, int row) throws SQLException {
+            values[row] = rs.getDouble(column);
+        }
+
+        @Override
+        void encode(BlockWriter out, int rows) {
+            out.ensure(rows * 8);
+            for (int i = 0; i < rows; i++) {
+                out.buffer.putDouble(values[i]);
+            }
+        }
+    }
+
+    private static final class LongColumn extends ColumnBuffer {
+        private final long[] values = new long[GROUP_ROWS];
+
+        @Override
+        void add(ResultSet rs, int column, int row) throws SQLException {
+            values[row] = rs.getLong(column);
+        }
+
+        @Override
+        void encode(BlockWriter out, int rows) {
+            out.ensure(rows * 8);
+            for (int i = 0; i < rows; i++) {
+                out.buffer.putLong(values[i]);
+            }
+        }
+    }
+
+    private static final class DeltaColumn extends ColumnBuffer {
+        private final long[] values = new long[GROUP_ROWS];
+        private final boolean timestamp;
+
+        DeltaColumn(boolean timestamp) {
+            this.timestamp = timestamp;
+        }
+
+        @Override
+        void add(ResultSet rs, int column, int row) throws SQLException {
+            if (timestamp) {
+                Timestamp value = rs.getTimestamp(column);
+                values[row] = value == null ? NULL_TIMESTAMP : value.getTime();
+            } else {
+                values[row] = rs.getLong(column);
+            }
+        }
+
+        @Override
+        void encode(BlockWriter out, int rows) {
+            long previous = 0;
+            for (int i = 0; i < rows; i++) {
+                long delta = values[i] - previous;
+                out.putVarLong((delta << 1) ^ (delta >> 63));
+                previous = values[i];
+            }
+        }
+    }
+
+    private static final class DictionaryColumn extends ColumnBuffer {
+        private final String name;
+        private final IntFunction<? extends Enum<?>> decoder;
+        private final byte[] codes = new byte[GROUP_ROWS];
+        private final Map<String, Integer> index = new HashMap<>();
+        private final List<String> entries = new ArrayList<>();
+
+        DictionaryColumn(String name, IntFunction<? extends Enum<?>> decoder) {
+            this.name = name;
+            this.decoder = decoder;
+        }
+
+        @Override
+        void add(ResultSet rs, int column, int row) throws SQLException {
+            String value = decoder != null ? decoder.apply(rs.getInt(column)).name() : rs.getString(column);
+            Integer code = index.get(value);
+            if (code == null) {
+                if (entries.size() == 256) {
+                    throw new IllegalStateException("Column " + name + " has more than 256 distinct values");
+                }
+                code = entries.size();
+                index.put(value, code);
+                entries.add(value);
+            }
+            codes[row] = (byte) (int) code;
+        }
+
+        @Override
+        void encode(BlockWriter out, int rows) {
+            out.putBytes(codes, rows);
+        }
+    }
+
+    private static final class StringColumn extends ColumnBuffer {
+        private final int[] offsets = new int[GROUP_ROWS + 1];
+        private byte[] data = new byte[1 << 16];
+        private int size;
+
+        @Override
+        void add(ResultSet rs, int column, int row) throws SQLException {
+            String value = rs.getString(column);
+            if (value != null) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                if (size + bytes.length > data.length) {
+                    byte[] larger = new byte[Math.max(data.length * 2, size + bytes.length)];
+                    System.arraycopy(data, 0, larger, 0, size);
+                    data = larger;
+                }
+                System.arraycopy(bytes, 0, data, size, bytes.length);
+                size += bytes.length;
+            }
+            offsets[row + 1] = size;
+        }
+
+        @Override
+        void encode(BlockWriter out, int rows) {
+            out.ensure((rows + 1) * 4);
+            for (int i = 0; i <= rows; i++) {
+                out.buffer.putInt(offsets[i]);
+            }
+            out.putBytes(data, size);
+        }
+
+        @Override
+        void reset() {
+            size = 0;
+        }
+    }
+
+    /**
+     * Inner class for the outcome of one table export
+     */
+    public static class ExportResult {
+        private final String table;
+        private final Path file;
+        private final long rows;
+        private final long bytes;
+        private final long elapsedNanos;
+
+        public ExportResult(String table, Path file, long rows, long bytes, long elapsedNanos) {
+            this.table = table;
+            this.file = file;
+            this.rows = rows;
+            this.bytes = bytes;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        // Getters
+        public String getTable() { return table; }
+        public Path getFile() { return file; }
+        public long getRows() { return rows; }
+        public long getBytes() { return bytes; }
+        public double getElapsedMillis() { return elapsedNanos / 1_000_000.0; }
+
+        public double getRowsPerSecond() {
+            return elapsedNanos == 0 ? 0.0 : rows / (elapsedNanos / 1_000_000_000.0);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %,d rows, %.1f MB in %.0f ms, %,.0f rows/s", table, rows,
+                                 bytes / (1024.0 * 1024.0), getElapsedMillis(), getRowsPerSecond());
+        }
+    }
+}
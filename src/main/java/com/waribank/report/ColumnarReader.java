@@ -0,0 +1,266 @@
+package com.waribank.report;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongConsumer;
+
+/**
+ * Reads files written by {@link ColumnarExporter} through memory maps.
+ *
+ * Each row group is mapped once when the file is opened. Fixed-width blocks are
+ * returned as buffer views over the mapping, so scanning a column of amounts or
+ * account ids copies nothing onto the heap; dictionary columns return their
+ * one-byte codes the same way. Delta-encoded columns are decoded straight from
+ * the mapping into a caller-supplied array, one group at a time.
+ *
+ * Views stay valid after {@link #close()}; the mappings themselves are
+ * released when the buffers are garbage collected.
+ *
+ * @author Albert Fekadu Wari
+ */
+public class ColumnarReader implements Closeable {
+    private final FileChannel channel;
+    private final String table;
+    private final long rowCount;
+    private final List<String> columnNames;
+    private final Map<String, Integer> columnIndex = new HashMap<>();
+    private final ColumnEncoding[] encodings;
+    private final List<List<String>> dictionaries;
+    private final int[] groupRows;
+    private final MappedByteBuffer[] groups;
+    private final long[] groupStarts;
+    private final long[][] blockOffsets;
+    private final int[][] blockLengths;
+
+    private ColumnarReader(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            int trailer = 8 + ColumnarExporter.MAGIC.length;
+            if (size < ColumnarExporter.MAGIC.length + trailer) {
+                throw new IOException(file + " is not a columnar export");
+            }
+            ByteBuffer tail = channel.map(FileChannel.MapMode.READ_ONLY, size - trailer, trailer)
+                                     .order(ByteOrder.LITTLE_ENDIAN);
+            long footerOffset = tail.getLong();
+            checkMagic(tail, file);
+            checkMagic(channel.map(FileChannel.MapMode.READ_ONLY, 0, ColumnarExporter.MAGIC.length), file);
+
+            ByteBuffer footer = channel.map(FileChannel.MapMode.READ_ONLY, footerOffset, size - trailer - footerOffset)
+                                       .order(ByteOrder.LITTLE_ENDIAN);
+            int version = footer.getInt();
+            // Version 1 differs only in storing money as FLOAT64 major units
+            if (version < 1 || version > ColumnarExporter.VERSION) {
+                throw new IOException("Unsupported columnar export version " + version + " in " + file);
+            }
+            this.table = getString(footer);
+
+            int columns = footer.getInt();
+            List<String> names = new ArrayList<>(columns);
+            this.encodings = new ColumnEncoding[columns];
+            this.dictionaries = new ArrayList<>(columns);
+            for (int i = 0; i < columns; i++) {
+                String name = getString(footer);
+                names.add(name);
+                columnIndex.put(name, i);
+                encodings[i] = ColumnEncoding.fromId(footer.get());
+                List<String> dictionary = Collections.emptyList();
+                if (encodings[i] == ColumnEncoding.DICTIONARY) {
+                    String[] entries = new String[footer.getInt()];
+                    for (int e = 0; e < entries.length; e++) {
+                        entries[e] = getString(footer);
+                    }
+                    dictionary = Collections.unmodifiableList(Arrays.asList(entries));
+                }
+                dictionaries.add(dictionary);
+            }
+            this.columnNames = Collections.unmodifiableList(names);
+
+            this.rowCount = footer.getLong();
+            int groupCount = footer.getInt();
+            this.groupRows = new int[groupCount];
+            this.groups = new MappedByteBuffer[groupCount];
+            this.groupStarts = new long[groupCount];
+            this.blockOffsets = new long[groupCount][columns];
+            this.blockLengths = new int[groupCount][columns];
+            for (int g = 0; g < groupCount; g++) {
+                groupRows[g] = footer.getInt();
+                for (int i = 0; i < columns; i++) {
+                    blockOffsets[g][i] = footer.getLong();
+                    blockLengths[g][i] = footer.getInt();
+                }
+                // A group's blocks are contiguous, so one mapping covers all of them
+                groupStarts[g] = blockOffsets[g][0];
+                long end = blockOffsets[g][columns - 1] + blockLengths[g][columns - 1];
+                groups[g] = channel.map(FileChannel.MapMode.READ_ONLY, groupStarts[g], end - groupStarts[g]);
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public static ColumnarReader open(Path file) throws IOException {
+        return new ColumnarReader(file);
+    }
+
+    // Getters
+    public String getTable() { return table; }
+    public long getRowCount() { return rowCount; }
+    public List<String> getColumnNames() { return columnNames; }
+    public int getGroupCount() { return groups.length; }
+    public int getGroupRows(int group) { return groupRows[group]; }
+
+    public ColumnEncoding getEncoding(String column) {
+        return encodings[indexOf(column)];
+    }
+
+    /**
+     * Values of a dictionary column, indexed by code
+     */
+    public List<String> getDictionary(String column) {
+        return dictionaries.get(indexOf(column, ColumnEncoding.DICTIONARY));
+    }
+
+    /**
+     * Zero-copy view of an INT32 column within one group
+     */
+    public IntBuffer ints(String column, int group) {
+        return block(indexOf(column, ColumnEncoding.INT32), group).asIntBuffer();
+    }
+
+    /**
+     * Zero-copy view of a FLOAT64 column within one group
+     */
+    public DoubleBuffer doubles(String column, int group) {
+        return block(indexOf(column, ColumnEncoding.FLOAT64), group).asDoubleBuffer();
+    }
+
+    /**
+     * Zero-copy view of an INT64 column within one group; money columns are in minor units
+     */
+    public LongBuffer longs(String column, int group) {
+        return block(indexOf(column, ColumnEncoding.INT64), group).asLongBuffer();
+    }
+
+    /**
+     * Zero-copy view of a dictionary column's codes within one group; read them with
+     * {@code Byte.toUnsignedInt}
+     */
+    public ByteBuffer codes(String column, int group) {
+        return block(indexOf(column, ColumnEncoding.DICTIONARY), group);
+    }
+
+    /**
+     * Decode a DELTA_INT64 column within one group into the array; returns the row count
+     */
+    public int decodeLongs(String column, int group, long[] into) {
+        ByteBuffer block = block(indexOf(column, ColumnEncoding.DELTA_INT64), group);
+        int rows = groupRows[group];
+        long value = 0;
+        for (int i = 0; i < rows; i++) {
+            long zigzag = getVarLong(block);
+            value += (zigzag >>> 1) ^ -(zigzag & 1);
+            into[i] = value;
+        }
+        return rows;
+    }
+
+    /**
+     * Decode every value of a DELTA_INT64 column in row order
+     */
+    public void forEachLong(String column, LongConsumer action) {
+        long[] values = new long[ColumnarExporter.GROUP_ROWS];
+        for (int g = 0; g < groups.length; g++) {
+            int rows = decodeLongs(column, g, values);
+            for (int i = 0; i < rows; i++) {
+                action.accept(values[i]);
+            }
+        }
+    }
+
+    /**
+     * One value of a STRING column; NULLs were exported as empty strings
+     */
+    public String getString(String column, int group, int row) {
+        ByteBuffer block = block(indexOf(column, ColumnEncoding.STRING), group);
+        int dataStart = (groupRows[group] + 1) * 4;
+        int from = block.getInt(row * 4);
+        int to = block.getInt((row + 1) * 4);
+        byte[] bytes = new byte[to - from];
+        block.get(dataStart + from, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private ByteBuffer block(int column, int group) {
+        int offset = (int) (blockOffsets[group][column] - groupStarts[group]);
+        return groups[group].slice(offset, blockLengths[group][column]).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private int indexOf(String column) {
+        Integer index = columnIndex.get(column);
+        if (index == null) {
+            throw new IllegalArgumentException("No column " + column + " in " + table);
+        }
+        return index;
+    }
+
+    private int indexOf(String column, ColumnEncoding expected) {
+        int index = indexOf(column);
+        if (encodings[index] != expected) {
+            throw new IllegalArgumentException("Column " + column + " is " + encodings[index] + ", not " + expected);
+        }
+        return index;
+    }
+
+    private static long getVarLong(ByteBuffer buffer) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void checkMagic(ByteBuffer buffer, Path file) throws IOException {
+        byte[] magic = new byte[ColumnarExporter.MAGIC.length];
+        buffer.get(magic);
+        if (!Arrays.equals(magic, ColumnarExporter.MAGIC)) {
+            throw new IOException(file + " is not a columnar export");
+        }
+    }
+}
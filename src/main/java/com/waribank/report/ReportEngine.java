@@ -0,0 +1,222 @@
+package com.waribank.report;
+
+import com.waribank.database.DatabaseManager;
+import com.waribank.model.Money;
+import com.waribank.model.TransactionStatus;
+import com.waribank.model.TransactionType;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+import java.util.logging.Level;
+
+/**
+ * Streams transaction reports from a database cursor straight to a file.
+ *
+ * Rows are read with a bounded fetch window and each one is formatted and
+ * handed to a buffered writer before the next is read, so memory use does not
+ * depend on how many rows the report has. The query orders by
+ * (transaction_date, transaction_id), which the date index already provides, so
+ * a full report needs no temporary sort either; an account report looks up the
+ * account's sent and received transfers by index and sorts just those. Reports are
+ * written to a temporary file and renamed into place when complete.
+ *
+ * @author Albert Fekadu Wari
+ */
+public class ReportEngine {
+    private static final Logger LOGGER = Logger.getLogger(ReportEngine.class.getName());
+    private static final int FETCH_SIZE = 1_000;
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final long PROGRESS_INTERVAL = 100_000;
+
+    private static final String[] COLUMNS = {
+        "Transaction ID", "Reference", "Account ID", "Type", "Amount", "Date",
+        "Status", "To Account ID", "Balance After", "Description"
+    };
+    private static final int[] WIDTHS = { 14, 16, 10, 17, 15, 19, 10, 13, 15, 30 };
+
+    private static final String SELECT_SQL =
+        "SELECT transaction_id, reference_number, account_id, transaction_type, amount, transaction_date, " +
+        "status, to_account_id, balance_after_transaction, description FROM transactions";
+
+    private final DatabaseManager dbManager;
+
+    public ReportEngine() {
+        this.dbManager = DatabaseManager.getInstance();
+    }
+
+    /**
+     * Export the transactions matching the filter to a file in the given format
+     */
+    public ReportResult exportTransactions(ReportFilter filter, ReportFormat format, Path target,
+                                           ProgressListener listener) throws SQLException, IOException {
+        Path parent = target.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = target.resolveSibling(target.getFileName() + ".part");
+
+        List<Object> parameters = new ArrayList<>();
+        String sql = buildQuery(filter, parameters);
+        String[] fields = new String[COLUMNS.length];
+        long rows = 0;
+        long start = System.nanoTime();
+
+        try (Connection conn = dbManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             Writer out = new BufferedWriter(new OutputStreamWriter(
+                 Files.newOutputStream(temp), StandardCharsets.UTF_8), BUFFER_SIZE)) {
+
+            for (int i = 0; i < parameters.size(); i++) {
+                pstmt.setObject(i + 1, parameters.get(i));
+            }
+            pstmt.setFetchSize(FETCH_SIZE);
+
+            format.writeRow(out, COLUMNS, WIDTHS);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    fields[0] = Integer.toString(rs.getInt(1));
+                    fields[1] = rs.getString(2);
+                    fields[2] = Integer.toString(rs.getInt(3));
+                    fields[3] = TransactionType.fromCode(rs.getInt(4)).name();
+                    fields[4] = Money.format(rs.getLong(5));
+                    Timestamp date = rs.getTimestamp(6);
+                    fields[5] = date == null ? "" : formatDate(date.toLocalDateTime());
+                    fields[6] = TransactionStatus.fromCode(rs.getInt(7)).name();
+                    int toAccountId = rs.getInt(8);
+                    fields[7] = rs.wasNull() ? "" : Integer.toString(toAccountId);
+                    fields[8] = Money.format(rs.getLong(9));
+                    fields[9] = rs.getString(10);
+                    format.writeRow(out, fields, WIDTHS);
+
+                    if (++rows % PROGRESS_INTERVAL == 0 && listener != null) {
+                        listener.onProgress(rows, rowsPerSecond(rows, System.nanoTime() - start));
+                    }
+                }
+            }
+        } catch (SQLException | IOException | RuntimeException e) {
+            deleteQuietly(temp);
+            throw e;
+        }
+
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        ReportResult result = new ReportResult(target, rows, Files.size(target), System.nanoTime() - start);
+        LOGGER.info("Transaction report written to " + target + " (" + result + ", " + filter + ")");
+        return result;
+    }
+
+    /**
+     * Build the filtered query, collecting bind values in order
+     */
+    private static String buildQuery(ReportFilter filter, List<Object> parameters) {
+        StringBuilder sql = new StringBuilder(SELECT_SQL);
+        String joiner = " WHERE ";
+        if (filter.getFrom() != null) {
+            sql.append(joiner).append("transaction_date >= ?");
+            parameters.add(Timestamp.valueOf(filter.getFrom()));
+            joiner = " AND ";
+        }
+        if (filter.getTo() != null) {
+            sql.append(joiner).append("transaction_date < ?");
+            parameters.add(Timestamp.valueOf(filter.getTo()));
+            joiner = " AND ";
+        }
+        if (filter.getAccountId() != null) {
+            // Sent and received, like an account statement; each branch has its own index
+            sql.append(joiner).append("(account_id = ? OR to_account_id = ?)");
+            parameters.add(filter.getAccountId());
+            parameters.add(filter.getAccountId());
+            joiner = " AND ";
+        }
+        if (filter.getTransactionType() != null) {
+            sql.append(joiner).append("transaction_type = ?");
+            parameters.add(filter.getTransactionType().getCode());
+        }
+        return sql.append(" ORDER BY transaction_date, transaction_id").toString();
+    }
+
+    /**
+     * yyyy-MM-dd HH:mm:ss
+     */
+    static String formatDate(LocalDateTime date) {
+        char[] chars = new char[19];
+        putDigits(chars, 0, date.getYear(), 4);
+        chars[4] = '-';
+        putDigits(chars, 5, date.getMonthValue(), 2);
+        chars[7] = '-';
+        putDigits(chars, 8, date.getDayOfMonth(), 2);
+        chars[10] = ' ';
+        putDigits(chars, 11, date.getHour(), 2);
+        chars[13] = ':';
+        putDigits(chars, 14, date.getMinute(), 2);
+        chars[16] = ':';
+        putDigits(chars, 17, date.getSecond(), 2);
+        return new String(chars);
+    }
+
+    private static void putDigits(char[] chars, int offset, int value, int digits) {
+        for (int i = offset + digits - 1; i >= offset; i--) {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    private static double rowsPerSecond(long rows, long elapsedNanos) {
+        return elapsedNanos == 0 ? 0.0 : rows / (elapsedNanos / 1_000_000_000.0);
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Could not delete " + path, e);
+        }
+    }
+
+    /**
+     * Receives the running row count and rate every hundred thousand rows
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        void onProgress(long rows, double rowsPerSecond);
+    }
+
+    /**
+     * Inner class for the outcome of one export
+     */
+    public static class ReportResult {
+        private final Path file;
+        private final long rows;
+        private final long bytes;
+        private final long elapsedNanos;
+
+        public ReportResult(Path file, long rows, long bytes, long elapsedNanos) {
+            this.file = file;
+            this.rows = rows;
+            this.bytes = bytes;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        // Getters
+        public Path getFile() { return file; }
+        public long getRows() { return rows; }
+        public long getBytes() { return bytes; }
+        public double getElapsedMillis() { return elapsedNanos / 1_000_000.0; }
+        public double getRowsPerSecond() { return rowsPerSecond(rows, elapsedNanos); }
+
+        @Override
+        public String toString() {
+            return String.format("%,d rows, %.1f MB in %.0f ms, %,.0f rows/s",
+                                 rows, bytes / (1024.0 * 1024.0), getElapsedMillis(), getRowsPerSecond());
+        }
+    }
+}
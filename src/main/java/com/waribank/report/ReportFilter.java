@@ -0,0 +1,63 @@
+package com.waribank.report;
+
+import com.waribank.model.TransactionType;
+
+import java.time.LocalDateTime;
+
+/**
+ * Restricts which transactions a report includes. Unset criteria match everything.
+ *
+ * @author Albert Fekadu Wari
+ */
+public class ReportFilter {
+    private LocalDateTime from;        // inclusive
+    private LocalDateTime to;          // exclusive
+    private Integer accountId;         // sent from or transferred to this account
+    private TransactionType transactionType;
+
+    public ReportFilter() {
+    }
+
+    // Getters and Setters
+    public LocalDateTime getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDateTime from) {
+        this.from = from;
+    }
+
+    public LocalDateTime getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDateTime to) {
+        this.to = to;
+    }
+
+    public Integer getAccountId() {
+        return accountId;
+    }
+
+    public void setAccountId(Integer accountId) {
+        this.accountId = accountId;
+    }
+
+    public TransactionType getTransactionType() {
+        return transactionType;
+    }
+
+    public void setTransactionType(TransactionType transactionType) {
+        this.transactionType = transactionType;
+    }
+
+    @Override
+    public String toString() {
+        return "ReportFilter{" +
+                "from=" + from +
+                ", to=" + to +
+                ", accountId=" + accountId +
+                ", transactionType='" + transactionType + '\'' +
+                '}';
+    }
+}
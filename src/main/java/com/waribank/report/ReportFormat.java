@@ -0,0 +1,100 @@
+package com.waribank.report;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Output formats for exported reports. Each format writes one row at a time,
+ * so nothing but the current row is ever held in memory.
+ *
+ * @author Albert Fekadu Wari
+ */
+public enum ReportFormat {
+
+    /** Comma separated, quoted per RFC 4180 where needed */
+    CSV("csv") {
+        @Override
+        public void writeRow(Writer out, String[] fields, int[] widths) throws IOException {
+            for (int i = 0; i < fields.length; i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                writeCsvField(out, fields[i]);
+            }
+            out.write('\n');
+        }
+    },
+
+    /** Tab separated; tabs and line breaks inside values become spaces */
+    TSV("tsv") {
+        @Override
+        public void writeRow(Writer out, String[] fields, int[] widths) throws IOException {
+            for (int i = 0; i < fields.length; i++) {
+                if (i > 0) {
+                    out.write('\t');
+                }
+                String value = fields[i];
+                if (value != null) {
+                    out.write(value.replace('\t', ' ').replace('\n', ' ').replace('\r', ' '));
+                }
+            }
+            out.write('\n');
+        }
+    },
+
+    /** Columns padded or cut to fixed widths, for printing and legacy imports */
+    FIXED_WIDTH("txt") {
+        @Override
+        public void writeRow(Writer out, String[] fields, int[] widths) throws IOException {
+            for (int i = 0; i < fields.length; i++) {
+                if (i > 0) {
+                    out.write(' ');
+                }
+                String value = fields[i] == null ? "" : fields[i].replace('\n', ' ').replace('\r', ' ');
+                int width = widths[i];
+                if (value.length() >= width) {
+                    out.write(value, 0, width);
+                } else {
+                    out.write(value);
+                    for (int pad = value.length(); pad < width; pad++) {
+                        out.write(' ');
+                    }
+                }
+            }
+            out.write('\n');
+        }
+    };
+
+    private final String extension;
+
+    ReportFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Write one row; widths are only used by the fixed-width format
+     */
+    public abstract void writeRow(Writer out, String[] fields, int[] widths) throws IOException;
+
+    private static void writeCsvField(Writer out, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+}
@@ -0,0 +1,519 @@
+package com.waribank.report;
+
+import com.waribank.database.DatabaseManager;
+import com.waribank.model.AccountStatus;
+import com.waribank.model.AccountType;
+import com.waribank.model.Money;
+import com.waribank.model.TransactionType;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+import java.util.logging.Level;
+
+/**
+ * Month-end statements for every active account, generated in parallel.
+ *
+ * Active accounts are split into contiguous id ranges of a fixed size and the
+ * ranges are worked through by a pool of threads, one read connection each.
+ * A partition is a single pass over three ordered cursors that share one read
+ * snapshot: its accounts, the transactions they sent and the transfers they
+ * received, all ordered by account. The cursors are merged per account, so only
+ * one account's month of transactions is held in memory at a time.
+ *
+ * Transactions after the month are read too: the closing balance is the current
+ * balance less everything posted since, and the opening balance is the closing
+ * balance less the month's movements.
+ *
+ * Each partition writes its own file, renamed into place when complete, and is
+ * then recorded in a checkpoint file next to the output together with the
+ * partition plan. A run that is interrupted picks up from the checkpoint and
+ * only redoes the partitions that had not finished.
+ *
+ * @author Albert Fekadu Wari
+ */
+public class StatementJob {
+    private static final Logger LOGGER = Logger.getLogger(StatementJob.class.getName());
+    private static final int DEFAULT_PARTITION_SIZE = 10_000;
+    private static final int FETCH_SIZE = 1_000;
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final String CHECKPOINT_FILE = "statements.checkpoint";
+
+    private static final String PLAN_SQL =
+        "SELECT MIN(account_id), COUNT(*) FROM (" +
+        "SELECT account_id, (ROW_NUMBER() OVER (ORDER BY account_id) - 1) / ? AS tile " +
+        "FROM accounts WHERE status = " + AccountStatus.ACTIVE.getCode() + ") GROUP BY tile ORDER BY tile";
+    private static final String ACCOUNTS_SQL =
+        "SELECT account_id, account_number, customer_id, account_type, balance FROM accounts " +
+        "WHERE status = " + AccountStatus.ACTIVE.getCode() + " AND account_id BETWEEN ? AND ? ORDER BY account_id";
+    private static final String OUTGOING_SQL =
+        "SELECT account_id, transaction_id, transaction_type, amount, transaction_date, reference_number " +
+        "FROM transactions WHERE account_id BETWEEN ? AND ? AND transaction_date >= ? " +
+        "ORDER BY account_id, transaction_date, transaction_id";
+    private static final String INCOMING_SQL =
+        "SELECT to_account_id, transaction_id, transaction_type, amount, transaction_date, reference_number " +
+        "FROM transactions WHERE to_account_id BETWEEN ? AND ? AND transaction_date >= ? " +
+        "AND transaction_type = " + TransactionType.TRANSFER.getCode() + " ORDER BY to_account_id, transaction_date, transaction_id";
+
+    private static final String RULE = "=".repeat(96);
+    private static final String THIN_RULE = "-".repeat(96);
+
+    private final DatabaseManager dbManager;
+    private final YearMonth month;
+    private final Path outputDirectory;
+    private final int threads;
+    private final int partitionSize;
+
+    public StatementJob(YearMonth month, Path outputDirectory) {
+        this(month, outputDirectory, defaultThreads(), DEFAULT_PARTITION_SIZE);
+    }
+
+    public StatementJob(YearMonth month, Path outputDirectory, int threads, int partitionSize) {
+        if (threads <= 0 || partitionSize <= 0) {
+            throw new IllegalArgumentException("Threads and partition size must be positive");
+        }
+        this.dbManager = DatabaseManager.getInstance();
+        this.month = month;
+        this.outputDirectory = outputDirectory;
+        this.threads = threads;
+        this.partitionSize = partitionSize;
+    }
+
+    /**
+     * One worker per read connection, but no more than there are cores
+     */
+    private static int defaultThreads() {
+        int readConnections = DatabaseManager.getInstance().getReadPoolStatistics().getMaxSize();
+        return Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), readConnections));
+    }
+
+    /**
+     * Generate statements for every partition not already recorded in the checkpoint
+     */
+    public JobResult run(ProgressListener listener) throws SQLException, IOException {
+        Files.createDirectories(outputDirectory);
+        long start = System.nanoTime();
+
+        Checkpoint checkpoint = Checkpoint.load(outputDirectory.resolve(CHECKPOINT_FILE), month);
+        if (checkpoint.partitions.isEmpty()) {
+            checkpoint.writePlan(month, planPartitions());
+        }
+        List<Partition> partitions = checkpoint.partitions;
+        int skipped = checkpoint.completed.size();
+        if (skipped > 0) {
+            LOGGER.info("Resuming statements for " + month + ": " + skipped + " of " +
+                        partitions.size() + " partitions already complete");
+        }
+
+        int partitionsDone = skipped;
+        AtomicLong accounts = new AtomicLong();
+        AtomicLong transactions = new AtomicLong();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "waribank-statements-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        CompletionService<Void> completion = new ExecutorCompletionService<>(executor);
+
+        int submitted = 0;
+        try {
+            for (Partition partition : partitions) {
+                if (checkpoint.completed.contains(partition.index)) {
+                    continue;
+                }
+                completion.submit(() -> {
+                    long[] counts = writePartition(partition);
+                    accounts.addAndGet(counts[0]);
+                    transactions.addAndGet(counts[1]);
+                    checkpoint.markComplete(partition.index);
+                    return null;
+                });
+                submitted++;
+            }
+
+            for (int i = 0; i < submitted; i++) {
+                try {
+                    completion.take().get();
+                    if (listener != null) {
+                        listener.onProgress(++partitionsDone, partitions.size(), accounts.get());
+                    }
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof SQLException) {
+                        throw (SQLException) cause;
+                    }
+                    if (cause instanceof IOException) {
+                        throw (IOException) cause;
+                    }
+                    throw new IllegalStateException("Statement partition failed", cause);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Statement run interrupted; completed partitions are checkpointed", e);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        JobResult result = new JobResult(month, partitions.size(), skipped, accounts.get(), transactions.get(),
+                                         System.nanoTime() - start);
+        LOGGER.info("Statements for " + month + " written to " + outputDirectory + " (" + result + ")");
+        return result;
+    }
+
+    /**
+     * Split the active accounts into contiguous id ranges of about partitionSize accounts.
+     * The last range is open-ended so accounts opened after planning are still covered.
+     */
+    private List<Partition> planPartitions() throws SQLException {
+        List<int[]> tiles = new ArrayList<>();
+        try (Connection conn = dbManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(PLAN_SQL)) {
+
+            pstmt.setInt(1, partitionSize);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    tiles.add(new int[] { rs.getInt(1), rs.getInt(2) });
+                }
+            }
+        }
+
+        List<Partition> partitions = new ArrayList<>();
+        for (int i = 0; i < tiles.size(); i++) {
+            int low = i == 0 ? 0 : tiles.get(i)[0];
+            int high = i + 1 < tiles.size() ? tiles.get(i + 1)[0] - 1 : Integer.MAX_VALUE;
+            partitions.add(new Partition(i, low, high));
+        }
+        return partitions;
+    }
+
+    /**
+     * Write one partition's statements; returns {accounts, transactions}
+     */
+    private long[] writePartition(Partition partition) throws SQLException, IOException {
+        Path target = outputDirectory.resolve(String.format("statements-%s-part-%04d.txt", month, partition.index));
+        Path temp = target.resolveSibling(target.getFileName() + ".part");
+        Timestamp monthStart = Timestamp.valueOf(month.atDay(1).atStartOfDay());
+        LocalDateTime monthEnd = month.plusMonths(1).atDay(1).atStartOfDay();
+        long accounts = 0;
+        long transactions = 0;
+
+        try (Connection conn = dbManager.getReadConnection()) {
+            // One read snapshot for balances and transactions alike
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement accountStmt = conn.prepareStatement(ACCOUNTS_SQL);
+                 PreparedStatement outgoingStmt = conn.prepareStatement(OUTGOING_SQL);
+                 PreparedStatement incomingStmt = conn.prepareStatement(INCOMING_SQL);
+                 Writer out = new BufferedWriter(new OutputStreamWriter(
+                     Files.newOutputStream(temp), StandardCharsets.UTF_8), BUFFER_SIZE)) {
+
+                accountStmt.setInt(1, partition.low);
+                accountStmt.setInt(2, partition.high);
+                accountStmt.setFetchSize(FETCH_SIZE);
+                for (PreparedStatement pstmt : new PreparedStatement[] { outgoingStmt, incomingStmt }) {
+                    pstmt.setInt(1, partition.low);
+                    pstmt.setInt(2, partition.high);
+                    pstmt.setTimestamp(3, monthStart);
+                    pstmt.setFetchSize(FETCH_SIZE);
+                }
+
+                try (ResultSet accountRows = accountStmt.executeQuery();
+                     ResultSet outgoingRows = outgoingStmt.executeQuery();
+                     ResultSet incomingRows = incomingStmt.executeQuery()) {
+
+                    Cursor outgoing = new Cursor(outgoingRows, false);
+                    Cursor incoming = new Cursor(incomingRows, true);
+                    List<Entry> entries = new ArrayList<>();
+
+                    while (accountRows.next()) {
+                        int accountId = accountRows.getInt(1);
+                        entries.clear();
+                        long laterNet = outgoing.collect(accountId, monthEnd, entries)
+                                      + incoming.collect(accountId, monthEnd, entries);
+                        entries.sort(Entry.ORDER);
+
+                        long closing = accountRows.getLong(5) - laterNet;
+                        writeStatement(out, accountRows.getString(2), accountRows.getInt(3),
+                                       AccountType.fromCode(accountRows.getInt(4)), closing, entries);
+                        accounts++;
+                        transactions += entries.size();
+                    }
+                }
+            }
+        } catch (SQLException | IOException | RuntimeException e) {
+            deleteQuietly(temp);
+            throw e;
+        }
+
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return new long[] { accounts, transactions };
+    }
+
+    private void writeStatement(Writer out, String accountNumber, int customerId, AccountType accountType,
+                                long closing, List<Entry> entries) throws IOException {
+        long monthNet = 0;
+        long credits = 0;
+        long debits = 0;
+        for (Entry entry : entries) {
+            monthNet += entry.signedAmount;
+            if (entry.signedAmount >= 0) {
+                credits += entry.signedAmount;
+            } else {
+                debits -= entry.signedAmount;
+            }
+        }
+        long balance = closing - monthNet;
+
+        out.write(RULE);
+        out.write('\n');
+        out.write(String.format("WARIBANK MONTHLY STATEMENT %69s%n", month));
+        out.write(String.format("Account: %-20s Type: %-15s Customer ID: %d%n", accountNumber, accountType, customerId));
+        out.write(THIN_RULE);
+        out.write('\n');
+        out.write(String.format("%-19s  %-17s  %15s  %15s  %-20s%n", "Date", "Type", "Amount", "Balance", "Reference"));
+        out.write(String.format("%-19s  %-17s  %15s  %15s%n", "", "Opening balance", "", Money.format(balance)));
+        for (Entry entry : entries) {
+            balance += entry.signedAmount;
+            out.write(String.format("%-19s  %-17s  %15s  %15s  %-20s%n",
+                ReportEngine.formatDate(entry.date), entry.incoming ? "TRANSFER IN" : entry.type,
+                (entry.signedAmount >= 0 ? "+" : "") + Money.format(entry.signedAmount),
+                Money.format(balance), entry.reference == null ? "" : entry.reference));
+        }
+        out.write(String.format("%-19s  %-17s  %15s  %15s%n", "", "Closing balance", "", Money.format(closing)));
+        out.write(String.format("Transactions: %d   Credits: %s   Debits: %s%n%n", entries.size(),
+                                Money.format(credits), Money.format(debits)));
+    }
+
+    /**
+     * Effect of a transaction on the statement account's balance
+     */
+    private static long signedAmount(TransactionType type, long amount, boolean incoming) {
+        if (incoming) {
+            return amount;
+        }
+        switch (type) {
+            case DEPOSIT:
+            case LOAN_DISBURSEMENT:
+                return amount;
+            default:
+                return -amount;
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Could not delete " + path, e);
+        }
+    }
+
+    /**
+     * Forward-only view over transaction rows ordered by owning account
+     */
+    private static final class Cursor {
+        private final ResultSet rs;
+        private final boolean incoming;
+        private boolean hasRow;
+
+        Cursor(ResultSet rs, boolean incoming) throws SQLException {
+            this.rs = rs;
+            this.incoming = incoming;
+            this.hasRow = rs.next();
+        }
+
+        /**
+         * Skip rows of accounts before this one, keep this account's rows in the month
+         * and return the net of its rows after the month
+         */
+        long collect(int accountId, LocalDateTime monthEnd, List<Entry> entries) throws SQLException {
+            long laterNet = 0;
+            while (hasRow && rs.getInt(1) < accountId) {
+                hasRow = rs.next();
+            }
+            while (hasRow && rs.getInt(1) == accountId) {
+                TransactionType type = TransactionType.fromCode(rs.getInt(3));
+                long signed = signedAmount(type, rs.getLong(4), incoming);
+                LocalDateTime date = rs.getTimestamp(5).toLocalDateTime();
+                if (date.isBefore(monthEnd)) {
+                    entries.add(new Entry(rs.getInt(2), type, signed, date, rs.getString(6), incoming));
+                } else {
+                    laterNet += signed;
+                }
+                hasRow = rs.next();
+            }
+            return laterNet;
+        }
+    }
+
+    private static final class Entry {
+        static final Comparator<Entry> ORDER =
+            Comparator.comparing((Entry e) -> e.date).thenComparingInt(e -> e.transactionId);
+
+        final int transactionId;
+        final TransactionType type;
+        final long signedAmount;
+        final LocalDateTime date;
+        final String reference;
+        final boolean incoming;
+
+        Entry(int transactionId, TransactionType type, long signedAmount, LocalDateTime date, String reference, boolean incoming) {
+            this.transactionId = transactionId;
+            this.type = type;
+            this.signedAmount = signedAmount;
+            this.date = date;
+            this.reference = reference;
+            this.incoming = incoming;
+        }
+    }
+
+    private static final class Partition {
+        final int index;
+        final int low;
+        final int high;
+
+        Partition(int index, int low, int high) {
+            this.index = index;
+            this.low = low;
+            this.high = high;
+        }
+    }
+
+    /**
+     * Partition plan and completed partitions, appended to as the job runs.
+     *
+     * Format: a "month=" line, one "partition=index,low,high" line per
+     * partition, then a "done=index" line as each partition completes.
+     */
+    private static final class Checkpoint {
+        private final Path file;
+        private final List<Partition> partitions = new ArrayList<>();
+        private final Set<Integer> completed = new HashSet<>();
+
+        private Checkpoint(Path file) {
+            this.file = file;
+        }
+
+        static Checkpoint load(Path file, YearMonth month) throws IOException {
+            Checkpoint checkpoint = new Checkpoint(file);
+            if (!Files.exists(file)) {
+                return checkpoint;
+            }
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                int eq = line.indexOf('=');
+                if (eq < 0) {
+                    continue;
+                }
+                String key = line.substring(0, eq);
+                String value = line.substring(eq + 1);
+                switch (key) {
+                    case "month":
+                        if (!month.toString().equals(value)) {
+                            throw new IOException("Checkpoint " + file + " belongs to " + value + ", not " + month);
+                        }
+                        break;
+                    case "partition":
+                        String[] parts = value.split(",");
+                        checkpoint.partitions.add(new Partition(Integer.parseInt(parts[0]),
+                            Integer.parseInt(parts[1]), Integer.parseInt(parts[2])));
+                        break;
+                    case "done":
+                        checkpoint.completed.add(Integer.parseInt(value));
+                        break;
+                    default:
+                        break;
+                }
+            }
+            return checkpoint;
+        }
+
+        void writePlan(YearMonth month, List<Partition> plan) throws IOException {
+            StringBuilder sb = new StringBuilder("month=").append(month).append('\n');
+            for (Partition partition : plan) {
+                sb.append("partition=").append(partition.index).append(',')
+                  .append(partition.low).append(',').append(partition.high).append('\n');
+            }
+            Files.writeString(file, sb, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                              StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE, StandardOpenOption.DSYNC);
+            partitions.addAll(plan);
+        }
+
+        synchronized void markComplete(int index) throws IOException {
+            Files.writeString(file, "done=" + index + "\n", StandardCharsets.UTF_8,
+                              StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.DSYNC);
+            completed.add(index);
+        }
+    }
+
+    /**
+     * Receives (partitions done, total partitions, accounts written this run) after each
+     * partition, on the thread that called run
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        void onProgress(int partitionsDone, int totalPartitions, long accounts);
+    }
+
+    /**
+     * Inner class for the outcome of one statement run
+     */
+    public static class JobResult {
+        private final YearMonth month;
+        private final int partitions;
+        private final int skippedPartitions;
+        private final long accounts;
+        private final long transactions;
+        private final long elapsedNanos;
+
+        public JobResult(YearMonth month, int partitions, int skippedPartitions, long accounts,
+                         long transactions, long elapsedNanos) {
+            this.month = month;
+            this.partitions = partitions;
+            this.skippedPartitions = skippedPartitions;
+            this.accounts = accounts;
+            this.transactions = transactions;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        // Getters
+        public YearMonth getMonth() { return month; }
+        public int getPartitions() { return partitions; }
+        public int getSkippedPartitions() { return skippedPartitions; }
+        public long getAccounts() { return accounts; }
+        public long getTransactions() { return transactions; }
+        public double getElapsedMillis() { return elapsedNanos / 1_000_000.0; }
+
+        public double getAccountsPerSecond() {
+            return elapsedNanos == 0 ? 0.0 : accounts / (elapsedNanos / 1_000_000_000.0);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%,d accounts, %,d transactions, %d partitions (%d resumed) in %.0f ms, %,.0f accounts/s",
+                                 accounts, transactions, partitions, skippedPartitions, getElapsedMillis(),
+                                 getAccountsPerSecond());
+        }
+    }
+}
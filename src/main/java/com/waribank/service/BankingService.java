@@ -1,19 +1,38 @@
 package com.waribank.service;
 
+import com.waribank.cache.EntityCache;
 import com.waribank.dao.CustomerDAO;
 import com.waribank.dao.AccountDAO;
 import com.waribank.dao.TransactionDAO;
 import com.waribank.dao.LoanDAO;
+import com.waribank.dao.PostingPipeline;
+import com.waribank.dao.StatisticsRegistry;
+import com.waribank.dao.TransferEngine;
 import com.waribank.model.*;
 import com.waribank.exception.*;
 import com.waribank.utils.AppLogger;
+import com.waribank.database.BackupManager;
+import com.waribank.database.ConnectionPool;
 import com.waribank.database.DatabaseManager;
+import com.waribank.report.ColumnarExporter;
+import com.waribank.report.ReportEngine;
+import com.waribank.report.ReportFilter;
+import com.waribank.report.ReportFormat;
+import com.waribank.report.StatementJob;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.sql.SQLException;
 import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Service class containing all banking business logic
@@ -21,18 +40,44 @@ import java.time.format.DateTimeFormatter;
  * @author Albert Fekadu Wari
  */
 public class BankingService {
+    private static final int HISTORY_PAGE_SIZE = 20;
+    private static final DateTimeFormatter REPORT_FILE_STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    
     private final CustomerDAO customerDAO;
     private final AccountDAO accountDAO;
     private final TransactionDAO transactionDAO;
     private final LoanDAO loanDAO;
+    private final PostingPipeline postingPipeline;
+    private final StatisticsRegistry statistics;
     private final DatabaseManager dbManager;
+    private final BackupManager backupManager;
+    private final ReportEngine reportEngine;
+    private final Path reportDirectory;
+    private final Path statementDirectory;
+    private final Path exportDirectory;
     
     public BankingService() {
         this.customerDAO = new CustomerDAO();
         this.accountDAO = new AccountDAO();
         this.transactionDAO = new TransactionDAO();
         this.loanDAO = new LoanDAO();
+        this.postingPipeline = new PostingPipeline(transactionDAO);
+        this.statistics = StatisticsRegistry.getInstance();
         this.dbManager = DatabaseManager.getInstance();
+        this.backupManager = new BackupManager(Paths.get(System.getProperty("waribank.backup.dir", "backups")),
+                                               Integer.getInteger("waribank.backup.retention", 7));
+        this.reportEngine = new ReportEngine();
+        this.reportDirectory = Paths.get(System.getProperty("waribank.report.dir", "reports"));
+        this.statementDirectory = Paths.get(System.getProperty("waribank.statement.dir", "statements"));
+        this.exportDirectory = Paths.get(System.getProperty("waribank.export.dir", "exports"));
+    }
+    
+    /**
+     * Commit any queued postings and stop background workers
+     */
+    public void shutdown() {
+        backupManager.stopSchedule();
+        postingPipeline.shutdown();
     }
     
     // ==================== CUSTOMER MANAGEMENT ====================
@@ -67,6 +112,14 @@ public class BankingService {
                 System.out.println("Error: Required fields cannot be empty.");
                 return;
             }
+            if (customerDAO.lookupByEmail(email).isPresent()) {
+                System.out.println("Error: A customer with this email is already registered.");
+                return;
+            }
+            if (customerDAO.lookupByNationalId(nationalId).isPresent()) {
+                System.out.println("Error: A customer with this National ID is already registered.");
+                return;
+            }
             
             Customer customer = new Customer(firstName, lastName, email, phoneNumber, address, nationalId);
             Customer savedCustomer = customerDAO.createCustomer(customer);
@@ -243,7 +296,7 @@ public class BankingService {
             
             System.out.println("Available statuses: ACTIVE, SUSPENDED, INACTIVE");
             System.out.print("Enter new status: ");
-            String newStatus = scanner.nextLine().trim().toUpperCase();
+            CustomerStatus newStatus = CustomerStatus.valueOf(scanner.nextLine().trim().toUpperCase());
             
             boolean updated = customerDAO.updateCustomerStatus(customerId, newStatus);
             if (updated) {
@@ -255,6 +308,8 @@ public class BankingService {
             
         } catch (NumberFormatException e) {
             System.out.println("Error: Please enter a valid customer ID.");
+        } catch (IllegalArgumentException e) {
+            System.out.println("Error: Unknown customer status.");
         } catch (SQLException | CustomerNotFoundException e) {
             AppLogger.error("Failed to update customer status: " + e.getMessage());
             System.out.println("Error: " + e.getMessage());
@@ -277,10 +332,10 @@ public class BankingService {
             
             System.out.println("Available account types: SAVINGS, CHECKING, FIXED_DEPOSIT");
             System.out.print("Enter Account Type: ");
-            String accountType = scanner.nextLine().trim().toUpperCase();
+            AccountType accountType = AccountType.valueOf(scanner.nextLine().trim().toUpperCase());
             
             System.out.print("Enter Initial Balance: ");
-            double initialBalance = Double.parseDouble(scanner.nextLine().trim());
+            long initialBalance = Money.parse(scanner.nextLine());
             
             Account account = new Account(customerId, accountType, initialBalance);
             Account savedAccount = accountDAO.createAccount(account);
@@ -289,10 +344,12 @@ public class BankingService {
             System.out.println("Account opened successfully!");
             System.out.println("Account Number: " + savedAccount.getAccountNumber());
             System.out.println("Account Type: " + savedAccount.getAccountType());
-            System.out.println("Initial Balance: " + savedAccount.getBalance());
+            System.out.println("Initial Balance: " + Money.format(savedAccount.getBalance()));
             
         } catch (NumberFormatException e) {
             System.out.println("Error: Please enter valid numbers.");
+        } catch (IllegalArgumentException e) {
+            System.out.println("Error: Unknown account type.");
         } catch (SQLException | CustomerNotFoundException e) {
             AppLogger.error("Failed to open account: " + e.getMessage());
             System.out.println("Error: " + e.getMessage());
@@ -338,10 +395,10 @@ public class BankingService {
             System.out.println("=".repeat(75));
             
             for (Account account : accounts) {
-                System.out.printf("%-15s %-15s %-15.2f %-15s %-10.2f%%%n",
+                System.out.printf("%-15s %-15s %-15s %-15s %-10.2f%%%n",
                                account.getAccountNumber(),
                                account.getAccountType(),
-                               account.getBalance(),
+                               Money.format(account.getBalance()),
                                account.getStatus(),
                                account.getInterestRate());
             }
@@ -368,7 +425,7 @@ public class BankingService {
             
             System.out.println("Available statuses: ACTIVE, FROZEN, CLOSED");
             System.out.print("Enter new status: ");
-            String newStatus = scanner.nextLine().trim().toUpperCase();
+            AccountStatus newStatus = AccountStatus.valueOf(scanner.nextLine().trim().toUpperCase());
             
             boolean updated = accountDAO.updateAccountStatus(accountNumber, newStatus);
             if (updated) {
@@ -378,6 +435,8 @@ public class BankingService {
                 System.out.println("Failed to update account status.");
             }
             
+        } catch (IllegalArgumentException e) {
+            System.out.println("Error: Unknown account status.");
         } catch (SQLException | AccountNotFoundException e) {
             AppLogger.error("Failed to update account status: " + e.getMessage());
             System.out.println("Error: " + e.getMessage());
@@ -396,7 +455,7 @@ public class BankingService {
             Account account = accountDAO.findByAccountNumber(accountNumber);
             
             if (account.getBalance() > 0) {
-                System.out.println("Warning: Account has remaining balance of " + account.getBalance());
+                System.out.println("Warning: Account has remaining balance of " + Money.format(account.getBalance()));
                 System.out.print("Are you sure you want to close this account? (y/n): ");
                 String confirm = scanner.nextLine().trim().toLowerCase();
                 
@@ -432,7 +491,7 @@ public class BankingService {
             String accountNumber = scanner.nextLine().trim();
             
             System.out.print("Enter Amount: ");
-            double amount = Double.parseDouble(scanner.nextLine().trim());
+            long amount = Money.parse(scanner.nextLine());
             
             if (amount <= 0) {
                 System.out.println("Error: Amount must be greater than zero.");
@@ -445,14 +504,14 @@ public class BankingService {
                 description = "Cash deposit";
             }
             
-            Transaction transaction = new Transaction(0, "DEPOSIT", amount, description);
-            Transaction savedTransaction = transactionDAO.createTransaction(accountNumber, transaction);
+            Transaction transaction = new Transaction(0, TransactionType.DEPOSIT, amount, description);
+            Transaction savedTransaction = postingPipeline.post(accountNumber, transaction);
             
             AppLogger.success("Deposit successful. Transaction ID: " + savedTransaction.getTransactionId());
             System.out.println("Deposit successful!");
             System.out.println("Transaction ID: " + savedTransaction.getTransactionId());
             System.out.println("Reference Number: " + savedTransaction.getReferenceNumber());
-            System.out.println("New Balance: " + savedTransaction.getBalanceAfterTransaction());
+            System.out.println("New Balance: " + Money.format(savedTransaction.getBalanceAfterTransaction()));
             
         } catch (NumberFormatException e) {
             System.out.println("Error: Please enter a valid amount.");
@@ -472,7 +531,7 @@ public class BankingService {
             String accountNumber = scanner.nextLine().trim();
             
             System.out.print("Enter Amount: ");
-            double amount = Double.parseDouble(scanner.nextLine().trim());
+            long amount = Money.parse(scanner.nextLine());
             
             if (amount <= 0) {
                 System.out.println("Error: Amount must be greater than zero.");
@@ -485,14 +544,14 @@ public class BankingService {
                 description = "Cash withdrawal";
             }
             
-            Transaction transaction = new Transaction(0, "WITHDRAWAL", amount, description);
-            Transaction savedTransaction = transactionDAO.createTransaction(accountNumber, transaction);
+            Transaction transaction = new Transaction(0, TransactionType.WITHDRAWAL, amount, description);
+            Transaction savedTransaction = postingPipeline.post(accountNumber, transaction);
             
             AppLogger.success("Withdrawal successful. Transaction ID: " + savedTransaction.getTransactionId());
             System.out.println("Withdrawal successful!");
             System.out.println("Transaction ID: " + savedTransaction.getTransactionId());
             System.out.println("Reference Number: " + savedTransaction.getReferenceNumber());
-            System.out.println("New Balance: " + savedTransaction.getBalanceAfterTransaction());
+            System.out.println("New Balance: " + Money.format(savedTransaction.getBalanceAfterTransaction()));
             
         } catch (NumberFormatException e) {
             System.out.println("Error: Please enter a valid amount.");
@@ -515,7 +574,7 @@ public class BankingService {
             String toAccountNumber = scanner.nextLine().trim();
             
             System.out.print("Enter Amount: ");
-            double amount = Double.parseDouble(scanner.nextLine().trim());
+            long amount = Money.parse(scanner.nextLine());
             
             if (amount <= 0) {
                 System.out.println("Error: Amount must be greater than zero.");
@@ -528,14 +587,14 @@ public class BankingService {
                 description = "Money transfer";
             }
             
-            Transaction transaction = new Transaction(0, "TRANSFER", amount, description);
+            Transaction transaction = new Transaction(0, TransactionType.TRANSFER, amount, description);
             Transaction savedTransaction = transactionDAO.createTransfer(fromAccountNumber, toAccountNumber, transaction);
             
             AppLogger.success("Transfer successful. Transaction ID: " + savedTransaction.getTransactionId());
             System.out.println("Transfer successful!");
             System.out.println("Transaction ID: " + savedTransaction.getTransactionId());
             System.out.println("Reference Number: " + savedTransaction.getReferenceNumber());
-            System.out.println("New Balance: " + savedTransaction.getBalanceAfterTransaction());
+            System.out.println("New Balance: " + Money.format(savedTransaction.getBalanceAfterTransaction()));
             
         } catch (NumberFormatException e) {
             System.out.println("Error: Please enter a valid amount.");
@@ -554,26 +613,42 @@ public class BankingService {
             System.out.print("Enter Account Number: ");
             String accountNumber = scanner.nextLine().trim();
             
-            List<Transaction> transactions = transactionDAO.findByAccountNumber(accountNumber);
+            TransactionDAO.TransactionPage page = 
+                transactionDAO.findPageByAccountNumber(accountNumber, null, HISTORY_PAGE_SIZE);
             
-            if (transactions.isEmpty()) {
+            if (page.getTransactions().isEmpty()) {
                 System.out.println("No transactions found for this account.");
                 return;
             }
             
-            System.out.printf("%-15s %-15s %-15s %-20s %-15s%n", 
-                           "Date", "Type", "Amount", "Description", "Status");
-            System.out.println("=".repeat(85));
-            
             DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+            int pageNumber = 1;
             
-            for (Transaction transaction : transactions) {
-                System.out.printf("%-15s %-15s %-15s %-20s %-15s%n",
-                               transaction.getTransactionDate().format(formatter),
-                               transaction.getTransactionType(),
-                               transaction.getFormattedAmount(),
-                               transaction.getDescription(),
-                               transaction.getStatus());
+            while (true) {
+                System.out.println("\nPage " + pageNumber);
+                System.out.printf("%-15s %-15s %-15s %-20s %-15s%n", 
+                               "Date", "Type", "Amount", "Description", "Status");
+                System.out.println("=".repeat(85));
+                
+                for (Transaction transaction : page.getTransactions()) {
+                    System.out.printf("%-15s %-15s %-15s %-20s %-15s%n",
+                                   transaction.getTransactionDate().format(formatter),
+                                   transaction.getTransactionType(),
+                                   transaction.getFormattedAmount(),
+                                   transaction.getDescription(),
+                                   transaction.getStatus());
+                }
+                
+                if (!page.hasNext()) {
+                    System.out.println("End of history.");
+                    break;
+                }
+                System.out.print("Press Enter for the next page, or Q to quit: ");
+                if (scanner.nextLine().trim().equalsIgnoreCase("q")) {
+                    break;
+                }
+                page = transactionDAO.findPageByAccountNumber(accountNumber, page.getNextCursor(), HISTORY_PAGE_SIZE);
+                pageNumber++;
             }
             
         } catch (SQLException | AccountNotFoundException e) {
@@ -595,7 +670,7 @@ public class BankingService {
             
             System.out.println("Account Number: " + account.getAccountNumber());
             System.out.println("Account Type: " + account.getAccountType());
-            System.out.println("Current Balance: " + account.getBalance());
+            System.out.println("Current Balance: " + Money.format(account.getBalance()));
             System.out.println("Status: " + account.getStatus());
             System.out.println("Interest Rate: " + account.getInterestRate() + "%");
             
@@ -627,10 +702,10 @@ public class BankingService {
             
             System.out.println("Available loan types: PERSONAL, BUSINESS, EDUCATION, AGRICULTURE");
             System.out.print("Enter Loan Type: ");
-            String loanType = scanner.nextLine().trim().toUpperCase();
+            LoanType loanType = LoanType.valueOf(scanner.nextLine().trim().toUpperCase());
             
             System.out.print("Enter Loan Amount: ");
-            double loanAmount = Double.parseDouble(scanner.nextLine().trim());
+            long loanAmount = Money.parse(scanner.nextLine());
             
             System.out.print("Enter Term (in months): ");
             int termInMonths = Integer.parseInt(scanner.nextLine().trim());
@@ -645,12 +720,14 @@ public class BankingService {
             System.out.println("Loan application submitted successfully!");
             System.out.println("Loan ID: " + savedLoan.getLoanId());
             System.out.println("Loan Type: " + savedLoan.getLoanType());
-            System.out.println("Loan Amount: " + savedLoan.getLoanAmount());
+            System.out.println("Loan Amount: " + Money.format(savedLoan.getLoanAmount()));
             System.out.println("Interest Rate: " + savedLoan.getInterestRate() + "%");
-            System.out.println("Monthly Payment: " + savedLoan.getMonthlyPayment());
+            System.out.println("Monthly Payment: " + Money.format(savedLoan.getMonthlyPayment()));
             
         } catch (NumberFormatException e) {
             System.out.println("Error: Please enter valid numbers.");
+        } catch (IllegalArgumentException e) {
+            System.out.println("Error: Unknown loan type.");
         } catch (SQLException | CustomerNotFoundException | AccountNotFoundException e) {
             AppLogger.error("Failed to apply for loan: " + e.getMessage());
             System.out.println("Error: " + e.getMessage());
@@ -675,11 +752,11 @@ public class BankingService {
             System.out.println("=".repeat(80));
             
             for (Loan loan : loans) {
-                System.out.printf("%-8d %-15d %-15s %-15.2f %-15s %-10d%n",
+                System.out.printf("%-8d %-15d %-15s %-15s %-15s %-10d%n",
                                loan.getLoanId(),
                                loan.getCustomerId(),
                                loan.getLoanType(),
-                               loan.getLoanAmount(),
+                               Money.format(loan.getLoanAmount()),
                                loan.getStatus(),
                                loan.getTermInMonths());
             }
@@ -767,7 +844,7 @@ public class BankingService {
             loanDAO.updateLoan(loan);
             
             // Create disbursement transaction
-            Transaction transaction = new Transaction(loan.getAccountId(), "LOAN_DISBURSEMENT", 
+            Transaction transaction = new Transaction(loan.getAccountId(), TransactionType.LOAN_DISBURSEMENT, 
                                                    loan.getLoanAmount(), "Loan disbursement");
             // Get account number for the transaction
             Account account = accountDAO.findById(loan.getAccountId());
@@ -775,7 +852,7 @@ public class BankingService {
             
             AppLogger.success("Loan disbursed successfully");
             System.out.println("Loan disbursed successfully!");
-            System.out.println("Amount disbursed: " + loan.getLoanAmount());
+            System.out.println("Amount disbursed: " + Money.format(loan.getLoanAmount()));
             System.out.println("Due date: " + loan.getDueDate());
             
         } catch (NumberFormatException e) {
@@ -805,11 +882,11 @@ public class BankingService {
                 return;
             }
             
-            System.out.println("Remaining balance: " + loan.getRemainingBalance());
-            System.out.println("Monthly payment: " + loan.getMonthlyPayment());
+            System.out.println("Remaining balance: " + Money.format(loan.getRemainingBalance()));
+            System.out.println("Monthly payment: " + Money.format(loan.getMonthlyPayment()));
             
             System.out.print("Enter payment amount: ");
-            double paymentAmount = Double.parseDouble(scanner.nextLine().trim());
+            long paymentAmount = Money.parse(scanner.nextLine());
             
             if (paymentAmount <= 0) {
                 System.out.println("Error: Payment amount must be greater than zero.");
@@ -821,8 +898,8 @@ public class BankingService {
             
             AppLogger.success("Loan payment made successfully");
             System.out.println("Loan payment made successfully!");
-            System.out.println("Payment amount: " + paymentAmount);
-            System.out.println("Remaining balance: " + loan.getRemainingBalance());
+            System.out.println("Payment amount: " + Money.format(paymentAmount));
+            System.out.println("Remaining balance: " + Money.format(loan.getRemainingBalance()));
             
         } catch (NumberFormatException e) {
             System.out.println("Error: Please enter valid numbers.");
@@ -866,17 +943,13 @@ public class BankingService {
     public void showCustomerStatistics() {
         try {
             System.out.println("\n=== CUSTOMER STATISTICS ===");
-            List<Customer> customers = customerDAO.findAll();
+            CustomerDAO.CustomerStatistics stats = statistics.getCustomerStatistics();
             
-            long totalCustomers = customers.size();
-            long activeCustomers = customers.stream().filter(Customer::isActive).count();
-            long suspendedCustomers = customers.stream().filter(c -> "SUSPENDED".equals(c.getStatus())).count();
-            long inactiveCustomers = customers.stream().filter(c -> "INACTIVE".equals(c.getStatus())).count();
-            
-            double avgCreditScore = customers.stream()
-                .mapToDouble(Customer::getCreditScore)
-                .average()
-                .orElse(0.0);
+            long totalCustomers = stats.getTotalCustomers();
+            long activeCustomers = stats.getActiveCustomers();
+            long suspendedCustomers = stats.getSuspendedCustomers();
+            long inactiveCustomers = stats.getInactiveCustomers();
+            double avgCreditScore = stats.getAverageCreditScore();
             
             System.out.println("Total Customers: " + totalCustomers);
             System.out.println("Active Customers: " + activeCustomers);
@@ -896,24 +969,21 @@ public class BankingService {
     public void showAccountStatistics() {
         try {
             System.out.println("\n=== ACCOUNT STATISTICS ===");
-            List<Account> accounts = accountDAO.findAll();
-            
-            long totalAccounts = accounts.size();
-            long activeAccounts = accounts.stream().filter(Account::isActive).count();
-            long savingsAccounts = accounts.stream().filter(a -> "SAVINGS".equals(a.getAccountType())).count();
-            long checkingAccounts = accounts.stream().filter(a -> "CHECKING".equals(a.getAccountType())).count();
-            long fixedDepositAccounts = accounts.stream().filter(a -> "FIXED_DEPOSIT".equals(a.getAccountType())).count();
+            AccountDAO.AccountStatistics stats = statistics.getAccountStatistics();
             
-            double totalBalance = accounts.stream()
-                .mapToDouble(Account::getBalance)
-                .sum();
+            long totalAccounts = stats.getTotalAccounts();
+            long activeAccounts = stats.getActiveAccounts();
+            long savingsAccounts = stats.getSavingsAccounts();
+            long checkingAccounts = stats.getCheckingAccounts();
+            long fixedDepositAccounts = stats.getFixedDepositAccounts();
+            long totalBalance = stats.getTotalBalance();
             
             System.out.println("Total Accounts: " + totalAccounts);
             System.out.println("Active Accounts: " + activeAccounts);
             System.out.println("Savings Accounts: " + savingsAccounts);
             System.out.println("Checking Accounts: " + checkingAccounts);
             System.out.println("Fixed Deposit Accounts: " + fixedDepositAccounts);
-            System.out.println("Total Balance: " + String.format("%.2f", totalBalance));
+            System.out.println("Total Balance: " + Money.formatGrouped(totalBalance));
             
         } catch (SQLException e) {
             AppLogger.error("Failed to show account statistics: " + e.getMessage());
@@ -927,22 +997,31 @@ public class BankingService {
     public void showTransactionStatistics() {
         try {
             System.out.println("\n=== TRANSACTION STATISTICS ===");
-            List<Transaction> transactions = transactionDAO.findAll();
-            
-            long totalTransactions = transactions.size();
-            long completedTransactions = transactions.stream().filter(Transaction::isCompleted).count();
-            long pendingTransactions = transactions.stream().filter(Transaction::isPending).count();
-            long failedTransactions = transactions.stream().filter(Transaction::isFailed).count();
+            TransactionDAO.TransactionStatistics stats = statistics.getTransactionStatistics();
             
-            double totalAmount = transactions.stream()
-                .mapToDouble(Transaction::getAmount)
-                .sum();
+            long totalTransactions = stats.getTotalTransactions();
+            long completedTransactions = stats.getCompletedTransactions();
+            long pendingTransactions = stats.getPendingTransactions();
+            long failedTransactions = stats.getFailedTransactions();
+            long totalAmount = stats.getTotalAmount();
             
             System.out.println("Total Transactions: " + totalTransactions);
             System.out.println("Completed Transactions: " + completedTransactions);
             System.out.println("Pending Transactions: " + pendingTransactions);
             System.out.println("Failed Transactions: " + failedTransactions);
-            System.out.println("Total Amount: " + String.format("%.2f", totalAmount));
+            System.out.println("Total Amount: " + Money.formatGrouped(totalAmount));
+            
+            TransferEngine.TransferStatistics transfers = transactionDAO.getTransferStatistics();
+            System.out.println("Transfers (this session): " + transfers.getCommitted() + " committed, " +
+                               transfers.getInsufficientFunds() + " insufficient funds, " +
+                               transfers.getLimitBreaches() + " over limit, " +
+                               transfers.getRejected() + " rejected");
+            System.out.println("Transfer Retries: " + transfers.getRetries() +
+                               " (lock contention events: " + transfers.getContentionEvents() + ")");
+            System.out.println("Group Commits: " + postingPipeline.getBatchCount() + " batches, " +
+                               postingPipeline.getPostingCount() + " postings (avg " +
+                               String.format("%.1f", postingPipeline.getAverageBatchSize()) + ", max " +
+                               postingPipeline.getLargestBatch() + " per commit)");
             
         } catch (SQLException e) {
             AppLogger.error("Failed to show transaction statistics: " + e.getMessage());
@@ -956,29 +1035,23 @@ public class BankingService {
     public void showLoanStatistics() {
         try {
             System.out.println("\n=== LOAN STATISTICS ===");
-            List<Loan> loans = loanDAO.findAll();
-            
-            long totalLoans = loans.size();
-            long pendingLoans = loans.stream().filter(Loan::isPending).count();
-            long approvedLoans = loans.stream().filter(Loan::isApproved).count();
-            long activeLoans = loans.stream().filter(Loan::isActive).count();
-            long completedLoans = loans.stream().filter(Loan::isCompleted).count();
+            LoanDAO.LoanStatistics stats = statistics.getLoanStatistics();
             
-            double totalLoanAmount = loans.stream()
-                .mapToDouble(Loan::getLoanAmount)
-                .sum();
-            
-            double totalRemainingBalance = loans.stream()
-                .mapToDouble(Loan::getRemainingBalance)
-                .sum();
+            long totalLoans = stats.getTotalLoans();
+            long pendingLoans = stats.getPendingLoans();
+            long approvedLoans = stats.getApprovedLoans();
+            long activeLoans = stats.getActiveLoans();
+            long completedLoans = stats.getCompletedLoans();
+            long totalLoanAmount = stats.getTotalLoanAmount();
+            long totalRemainingBalance = stats.getTotalRemainingBalance();
             
             System.out.println("Total Loans: " + totalLoans);
             System.out.println("Pending Loans: " + pendingLoans);
             System.out.println("Approved Loans: " + approvedLoans);
             System.out.println("Active Loans: " + activeLoans);
             System.out.println("Completed Loans: " + completedLoans);
-            System.out.println("Total Loan Amount: " + String.format("%.2f", totalLoanAmount));
-            System.out.println("Total Remaining Balance: " + String.format("%.2f", totalRemainingBalance));
+            System.out.println("Total Loan Amount: " + Money.formatGrouped(totalLoanAmount));
+            System.out.println("Total Remaining Balance: " + Money.formatGrouped(totalRemainingBalance));
             
         } catch (SQLException e) {
             AppLogger.error("Failed to show loan statistics: " + e.getMessage());
@@ -991,8 +1064,125 @@ public class BankingService {
      */
     public void generateReport(Scanner scanner) {
         System.out.println("\n=== GENERATE REPORT ===");
-        System.out.println("Report generation feature will be implemented in future versions.");
-        System.out.println("For now, you can use the statistics features to view data.");
+        System.out.println("1. CSV");
+        System.out.println("2. TSV");
+        System.out.println("3. Fixed Width");
+        System.out.print("Select format: ");
+        String choice = scanner.nextLine().trim();
+        
+        ReportFormat format;
+        switch (choice) {
+            case "1":
+                format = ReportFormat.CSV;
+                break;
+            case "2":
+                format = ReportFormat.TSV;
+                break;
+            case "3":
+                format = ReportFormat.FIXED_WIDTH;
+                break;
+            default:
+                System.out.println("Invalid format.");
+                return;
+        }
+        
+        try {
+            ReportFilter filter = new ReportFilter();
+            
+            System.out.print("From date (yyyy-MM-dd, or press Enter for no limit): ");
+            String from = scanner.nextLine().trim();
+            if (!from.isEmpty()) {
+                filter.setFrom(LocalDate.parse(from).atStartOfDay());
+            }
+            
+            System.out.print("To date, inclusive (yyyy-MM-dd, or press Enter for no limit): ");
+            String to = scanner.nextLine().trim();
+            if (!to.isEmpty()) {
+                filter.setTo(LocalDate.parse(to).plusDays(1).atStartOfDay());
+            }
+            
+            System.out.print("Account number (or press Enter for all accounts): ");
+            String accountNumber = scanner.nextLine().trim();
+            if (!accountNumber.isEmpty()) {
+                filter.setAccountId(accountDAO.findByAccountNumber(accountNumber).getAccountId());
+            }
+            
+            System.out.print("Transaction type (e.g. DEPOSIT, WITHDRAWAL, TRANSFER, or press Enter for all): ");
+            String type = scanner.nextLine().trim().toUpperCase();
+            if (!type.isEmpty()) {
+                filter.setTransactionType(TransactionType.valueOf(type));
+            }
+            
+            Path target = reportDirectory.resolve("transactions-" + 
+                LocalDateTime.now().format(REPORT_FILE_STAMP) + "." + format.getExtension());
+            ReportEngine.ReportResult result = reportEngine.exportTransactions(filter, format, target,
+                (rows, rowsPerSecond) -> System.out.printf("  %,d rows (%,.0f rows/s)%n", rows, rowsPerSecond));
+            
+            AppLogger.success("Transaction report generated: " + result.getFile());
+            System.out.println("Report generated: " + result.getFile().toAbsolutePath());
+            System.out.println("  " + result);
+            
+        } catch (DateTimeParseException e) {
+            System.out.println("Error: Invalid date format. Use yyyy-MM-dd.");
+        } catch (IllegalArgumentException e) {
+            System.out.println("Error: Unknown transaction type.");
+        } catch (AccountNotFoundException e) {
+            System.out.println("Error: " + e.getMessage());
+        } catch (SQLException | IOException e) {
+            AppLogger.error("Failed to generate report: " + e.getMessage());
+            System.out.println("Error: Failed to generate report. " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Generate monthly statements for every active account
+     */
+    public void generateMonthlyStatements(Scanner scanner) {
+        System.out.println("\n=== MONTHLY STATEMENTS ===");
+        YearMonth lastMonth = YearMonth.now().minusMonths(1);
+        System.out.print("Statement month (yyyy-MM, or press Enter for " + lastMonth + "): ");
+        String input = scanner.nextLine().trim();
+        
+        try {
+            YearMonth month = input.isEmpty() ? lastMonth : YearMonth.parse(input);
+            
+            // Rerunning a month resumes from its checkpoint
+            StatementJob job = new StatementJob(month, statementDirectory.resolve(month.toString()));
+            StatementJob.JobResult result = job.run((done, total, accounts) ->
+                System.out.printf("  %d/%d partitions, %,d accounts%n", done, total, accounts));
+            
+            AppLogger.success("Statements generated for " + month);
+            System.out.println("Statements written to: " + statementDirectory.resolve(month.toString()).toAbsolutePath());
+            System.out.println("  " + result);
+            
+        } catch (DateTimeParseException e) {
+            System.out.println("Error: Invalid month format. Use yyyy-MM.");
+        } catch (SQLException | IOException e) {
+            AppLogger.error("Failed to generate statements: " + e.getMessage());
+            System.out.println("Error: Failed to generate statements. " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Export transactions, accounts and loans to columnar files for analysts
+     */
+    public void exportForAnalytics() {
+        System.out.println("\n=== EXPORT FOR ANALYTICS ===");
+        Path target = exportDirectory.resolve(LocalDateTime.now().format(REPORT_FILE_STAMP));
+        ColumnarExporter exporter = new ColumnarExporter();
+        
+        try {
+            System.out.println("  " + exporter.exportTransactions(target.resolve("transactions.wbc")));
+            System.out.println("  " + exporter.exportAccounts(target.resolve("accounts.wbc")));
+            System.out.println("  " + exporter.exportLoans(target.resolve("loans.wbc")));
+            
+            AppLogger.success("Analytics export written to " + target);
+            System.out.println("Export written to: " + target.toAbsolutePath());
+            
+        } catch (SQLException | IOException e) {
+            AppLogger.error("Failed to export for analytics: " + e.getMessage());
+            System.out.println("Error: Failed to export for analytics. " + e.getMessage());
+        }
     }
     
     // ==================== SYSTEM SETTINGS ====================
@@ -1004,7 +1194,55 @@ public class BankingService {
         System.out.println("\n=== DATABASE STATUS ===");
         boolean isConnected = dbManager.testConnection();
         System.out.println("Database Connection: " + (isConnected ? "Connected" : "Disconnected"));
-        System.out.println("Database File: waribank.db");
+        System.out.println("Database File: " + dbManager.getDatabasePath());
+        try {
+            System.out.println("Schema Version: " + dbManager.getSchemaVersion());
+        } catch (SQLException e) {
+            System.out.println("Schema Version: unavailable (" + e.getMessage() + ")");
+        }
+        
+        System.out.println("Performance Profile: " + dbManager.getPerformanceProfile().getName());
+        try {
+            for (Map.Entry<String, String> setting : dbManager.getActiveSettings().entrySet()) {
+                System.out.println("  " + setting.getKey() + " = " + setting.getValue());
+            }
+        } catch (SQLException e) {
+            System.out.println("  Settings unavailable (" + e.getMessage() + ")");
+        }
+        
+        printPoolStatistics("Write Connection", dbManager.getPoolStatistics());
+        printPoolStatistics("Read Pool", dbManager.getReadPoolStatistics());
+        printCacheStatistics("Account Cache", AccountDAO.getCacheStatistics());
+        printCacheStatistics("Customer Cache", CustomerDAO.getCacheStatistics());
+        System.out.println("Recent Misses:");
+        for (String summary : AccountDAO.getNegativeCacheSummaries()) {
+            System.out.println("  " + summary);
+        }
+        for (String summary : CustomerDAO.getNegativeCacheSummaries()) {
+            System.out.println("  " + summary);
+        }
+    }
+    
+    private void printCacheStatistics(String label, EntityCache.CacheStatistics cache) {
+        System.out.println(label + ": " + cache.getSize() + " cached / " + cache.getMaxSize() + " max");
+        System.out.println("  Hits: " + cache.getHits() + ", Misses: " + cache.getMisses() +
+                           " (" + String.format("%.1f%%", cache.getHitRatio() * 100) + " hit ratio)");
+        System.out.println("  Loads: " + cache.getLoads() + ", Discarded stale loads: " + cache.getStaleLoads());
+        System.out.println("  Evictions: " + cache.getEvictions() + ", Invalidations: " + cache.getInvalidations());
+    }
+    
+    private void printPoolStatistics(String label, ConnectionPool.PoolStatistics pool) {
+        System.out.println(label + ": " + pool.getOpenConnections() + " open / " + pool.getMaxSize() + " max");
+        System.out.println("  Active: " + pool.getActiveConnections() + ", Idle: " + pool.getIdleConnections() +
+                           ", Waiting: " + pool.getWaitingThreads());
+        System.out.println("  Borrowed: " + pool.getBorrowCount() + ", Created: " + pool.getCreatedConnections() +
+                           ", Evicted: " + pool.getEvictedConnections());
+        System.out.println("  Acquire timeouts: " + pool.getTimeoutCount() +
+                           ", Validation failures: " + pool.getValidationFailures());
+        System.out.println("  Average wait: " + String.format("%.3f ms", pool.getAverageWaitMillis()));
+        System.out.println("  Statement cache: " + pool.getStatementCacheHits() + " hits, " +
+                           pool.getStatementCacheMisses() + " misses, " + pool.getStatementCacheEvictions() +
+                           " evictions (" + String.format("%.1f%%", pool.getStatementCacheHitRatio() * 100) + " hit ratio)");
     }
     
     /**
@@ -1022,10 +1260,72 @@ public class BankingService {
     /**
      * Backup database
      */
-    public void backupDatabase() {
+    public void backupDatabase(Scanner scanner) {
         System.out.println("\n=== BACKUP DATABASE ===");
-        System.out.println("Database backup feature will be implemented in future versions.");
-        System.out.println("For now, you can manually copy the waribank.db file.");
+        System.out.println("Backup Directory: " + backupManager.getBackupDirectory().toAbsolutePath());
+        System.out.println("Retention: " + backupManager.getRetention() + " backups");
+        System.out.println("Scheduled Backups: " + (backupManager.isScheduled() ? "On" : "Off"));
+        BackupManager.BackupResult last = backupManager.getLastResult();
+        if (last != null) {
+            System.out.println("Last Backup: " + last.getFile().getFileName() + " (" + last + ")");
+        }
+        
+        System.out.println("\n1. Back Up Now");
+        System.out.println("2. Schedule Backups");
+        System.out.println("3. Stop Scheduled Backups");
+        System.out.println("4. List Backups");
+        System.out.println("0. Cancel");
+        System.out.print("Enter your choice: ");
+        String choice = scanner.nextLine().trim();
+        
+        try {
+            switch (choice) {
+                case "1":
+                    int[] lastDecile = { -1 };
+                    BackupManager.BackupResult result = backupManager.backupNow((copied, total) -> {
+                        int decile = total == 0 ? 10 : copied * 10 / total;
+                        if (decile != lastDecile[0]) {
+                            lastDecile[0] = decile;
+                            System.out.println("  " + (decile * 10) + "% (" + copied + "/" + total + " pages)");
+                        }
+                    });
+                    AppLogger.success("Database backed up to " + result.getFile());
+                    System.out.println("Backup completed: " + result.getFile());
+                    System.out.println("  " + result);
+                    break;
+                case "2":
+                    System.out.print("Enter interval in minutes: ");
+                    long minutes = Long.parseLong(scanner.nextLine().trim());
+                    if (minutes <= 0) {
+                        System.out.println("Error: Interval must be greater than zero.");
+                        return;
+                    }
+                    backupManager.startSchedule(minutes, TimeUnit.MINUTES);
+                    System.out.println("Backups scheduled every " + minutes + " minutes, keeping the newest " +
+                                       backupManager.getRetention() + ".");
+                    break;
+                case "3":
+                    backupManager.stopSchedule();
+                    System.out.println("Scheduled backups stopped.");
+                    break;
+                case "4":
+                    List<Path> backups = backupManager.listBackups();
+                    if (backups.isEmpty()) {
+                        System.out.println("No backups found.");
+                    }
+                    for (Path backup : backups) {
+                        System.out.println("  " + backup.getFileName());
+                    }
+                    break;
+                default:
+                    break;
+            }
+        } catch (NumberFormatException e) {
+            System.out.println("Error: Invalid number format.");
+        } catch (SQLException e) {
+            AppLogger.error("Database backup failed: " + e.getMessage());
+            System.out.println("Error: Backup failed. " + e.getMessage());
+        }
     }
     
     /**
@@ -1063,12 +1363,12 @@ public class BankingService {
         System.out.println("Account ID: " + account.getAccountId());
         System.out.println("Account Number: " + account.getAccountNumber());
         System.out.println("Account Type: " + account.getAccountType());
-        System.out.println("Balance: " + account.getBalance());
+        System.out.println("Balance: " + Money.format(account.getBalance()));
         System.out.println("Interest Rate: " + account.getInterestRate() + "%");
         System.out.println("Opening Date: " + account.getOpeningDate());
         System.out.println("Last Transaction: " + account.getLastTransactionDate());
         System.out.println("Status: " + account.getStatus());
-        System.out.println("Minimum Balance: " + account.getMinimumBalance());
+        System.out.println("Minimum Balance: " + Money.format(account.getMinimumBalance()));
     }
     
     /**
@@ -1080,14 +1380,14 @@ public class BankingService {
         System.out.println("Customer ID: " + loan.getCustomerId());
         System.out.println("Account ID: " + loan.getAccountId());
         System.out.println("Loan Type: " + loan.getLoanType());
-        System.out.println("Loan Amount: " + loan.getLoanAmount());
+        System.out.println("Loan Amount: " + Money.format(loan.getLoanAmount()));
         System.out.println("Interest Rate: " + loan.getInterestRate() + "%");
         System.out.println("Term (months): " + loan.getTermInMonths());
         System.out.println("Purpose: " + loan.getPurpose());
         System.out.println("Application Date: " + loan.getApplicationDate());
         System.out.println("Status: " + loan.getStatus());
-        System.out.println("Monthly Payment: " + loan.getMonthlyPayment());
-        System.out.println("Remaining Balance: " + loan.getRemainingBalance());
+        System.out.println("Monthly Payment: " + Money.format(loan.getMonthlyPayment()));
+        System.out.println("Remaining Balance: " + Money.format(loan.getRemainingBalance()));
         
         if (loan.getApprovalDate() != null) {
             System.out.println("Approval Date: " + loan.getApprovalDate());
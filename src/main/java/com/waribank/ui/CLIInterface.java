@@ -33,6 +33,7 @@ public class CLIInterface {
         }
         
         AppLogger.info("WariBank CLI interface stopped");
+        bankingService.shutdown();
         scanner.close();
     }
     
@@ -251,6 +252,8 @@ public class CLIInterface {
             System.out.println("3. Transaction Statistics");
             System.out.println("4. Loan Statistics");
             System.out.println("5. Generate Report");
+            System.out.println("6. Monthly Statements");
+            System.out.println("7. Export for Analytics");
             System.out.println("0. Back to Main Menu");
             
             int choice = getIntInput("Enter your choice: ");
@@ -271,6 +274,12 @@ public class CLIInterface {
                 case 5:
                     bankingService.generateReport(scanner);
                     break;
+                case 6:
+                    bankingService.generateMonthlyStatements(scanner);
+                    break;
+                case 7:
+                    bankingService.exportForAnalytics();
+                    break;
                 case 0:
                     backToMain = true;
                     break;
@@ -301,7 +310,7 @@ public class CLIInterface {
                     bankingService.showSystemInformation();
                     break;
                 case 3:
-                    bankingService.backupDatabase();
+                    bankingService.backupDatabase(scanner);
                     break;
                 case 4:
                     bankingService.clearLogs();
@@ -0,0 +1,149 @@
+package com.waribank.utils;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free, time-ordered 64-bit ID generator (Snowflake layout)
+ *
+ * An ID is 41 bits of milliseconds since 2024-01-01 UTC, 10 bits of node id and
+ * a 12-bit per-millisecond sequence. The timestamp and sequence live together in
+ * one AtomicLong that only ever moves forward: if the wall clock steps back, or
+ * more than 4096 IDs are requested in one millisecond, the generator keeps
+ * counting on logical time instead of blocking or repeating itself. IDs from one
+ * node are therefore strictly increasing.
+ *
+ * @author Albert Fekadu Wari
+ */
+public class IdGenerator {
+    public static final long EPOCH_MILLIS = 1_704_067_200_000L; // 2024-01-01T00:00:00Z
+
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    // Crockford base32: ascending in ASCII, so fixed-width encodings sort like the numbers
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int REFERENCE_WIDTH = 13; // 13 * 5 bits covers the 63 usable bits
+
+    private static final IdGenerator DEFAULT = new IdGenerator(Long.getLong("waribank.node.id", 0L));
+
+    private final long nodeId;
+    private final AtomicLong lastState = new AtomicLong(); // (millis since epoch << 12) | sequence
+    private final AtomicLong lastWallMillis = new AtomicLong(); // highest wall-clock reading seen
+    private final AtomicLong clockRegressions = new AtomicLong();
+
+    public IdGenerator(long nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeId = nodeId;
+    }
+
+    /**
+     * Shared generator for this process; node id from -Dwaribank.node.id
+     */
+    public static IdGenerator getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Mint the next ID
+     */
+    public long nextId() {
+        while (true) {
+            long previous = lastState.get();
+            long now = System.currentTimeMillis() - EPOCH_MILLIS;
+            long previousMillis = previous >>> SEQUENCE_BITS;
+
+            // A fresh millisecond restarts the sequence; otherwise carry on from the last state,
+            // letting a sequence overflow roll into the next (logical) millisecond
+            long next = now > previousMillis ? now << SEQUENCE_BITS : previous + 1;
+
+            if (lastState.compareAndSet(previous, next)) {
+                // Compare against the wall clock, not the state: after a sequence overflow the
+                // logical millis run ahead of a clock that never went backwards
+                if (now < lastWallMillis.getAndAccumulate(now, Math::max)) {
+                    clockRegressions.incrementAndGet();
+                }
+                long millis = next >>> SEQUENCE_BITS;
+                long sequence = next & SEQUENCE_MASK;
+                return (millis << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | sequence;
+            }
+        }
+    }
+
+    /**
+     * Mint the next ID as a fixed-width, sortable reference string
+     */
+    public String nextReference(String prefix) {
+        return toReference(prefix, nextId());
+    }
+
+    /**
+     * Encode an ID as prefix + 13 Crockford base32 characters
+     */
+    public static String toReference(String prefix, long id) {
+        char[] chars = new char[REFERENCE_WIDTH];
+        long value = id;
+        for (int i = REFERENCE_WIDTH - 1; i >= 0; i--) {
+            chars[i] = ALPHABET[(int) (value & 31)];
+            value >>>= 5;
+        }
+        return prefix + new String(chars);
+    }
+
+    /**
+     * Decode a reference produced by {@link #toReference}
+     */
+    public static long fromReference(String prefix, String reference) {
+        if (reference == null || !reference.startsWith(prefix)
+                || reference.length() != prefix.length() + REFERENCE_WIDTH) {
+            throw new IllegalArgumentException("Not a generated reference: " + reference);
+        }
+        long value = 0;
+        for (int i = prefix.length(); i < reference.length(); i++) {
+            int digit = indexOf(reference.charAt(i));
+            if (digit < 0) {
+                throw new IllegalArgumentException("Not a generated reference: " + reference);
+            }
+            value = (value << 5) | digit;
+        }
+        return value;
+    }
+
+    /**
+     * The creation time encoded in an ID
+     */
+    public static Instant timestampOf(long id) {
+        return Instant.ofEpochMilli((id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH_MILLIS);
+    }
+
+    /**
+     * The node that minted an ID
+     */
+    public static long nodeOf(long id) {
+        return (id >>> SEQUENCE_BITS) & MAX_NODE_ID;
+    }
+
+    private static int indexOf(char c) {
+        for (int i = 0; i < ALPHABET.length; i++) {
+            if (ALPHABET[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public long getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * How many times the wall clock was seen going backwards
+     */
+    public long getClockRegressions() {
+        return clockRegressions.get();
+    }
+}